@@ -0,0 +1,39 @@
+package com.nutrition.tracker.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+
+/**
+ * Fixture payloads under {@code src/main/resources/fixtures}, and setup helpers for beans built without Spring.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static byte[] load(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sets a field Spring would inject, such as an {@code @Value} property.
+     */
+    public static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName, e);
+        }
+    }
+}
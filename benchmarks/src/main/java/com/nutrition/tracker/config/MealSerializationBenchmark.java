@@ -0,0 +1,99 @@
+package com.nutrition.tracker.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.entity.MealFood;
+import com.nutrition.tracker.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of {@link Meal} graphs with the application's {@link JacksonConfig} mapper,
+ * including its Hibernate6Module: a day or a month of meals, four meals a day with three foods each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MealSerializationBenchmark {
+
+    private static final int FOODS_PER_MEAL = 3;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Param({"1", "30"})
+    private int days;
+
+    private List<Meal> meals;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+
+        List<Food> foods = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            Food food = new Food();
+            food.setId(id);
+            food.setName("Food " + id);
+            food.setBrand("Brand");
+            food.setBarcode(String.valueOf(3017620422000L + id));
+            food.setServingSize(100.0);
+            food.setServingUnit("g");
+            food.setCalories(120.0 + id);
+            food.setProtein(5.0);
+            food.setCarbohydrates(20.0);
+            food.setFat(3.0);
+            food.setFiber(2.0);
+            food.setSugar(6.0);
+            food.setSodium(0.2);
+            food.setSource(Food.FoodSource.USDA);
+            food.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+            foods.add(food);
+        }
+
+        meals = new ArrayList<>();
+        long mealId = 1;
+        long mealFoodId = 1;
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        for (int day = 0; day < days; day++) {
+            for (Meal.MealType mealType : Meal.MealType.values()) {
+                Meal meal = new Meal();
+                meal.setId(mealId++);
+                meal.setUser(user);
+                meal.setMealType(mealType);
+                meal.setMealDate(start.plusDays(day));
+                meal.setNotes("Logged from the app");
+                meal.setCreatedAt(start.plusDays(day).atTime(8, 0));
+                for (int i = 0; i < FOODS_PER_MEAL; i++) {
+                    Food food = foods.get((int) (mealFoodId % foods.size()));
+                    MealFood mealFood = new MealFood();
+                    mealFood.setId(mealFoodId++);
+                    mealFood.setMeal(meal);
+                    mealFood.setFood(food);
+                    mealFood.setQuantity(150.0);
+                    mealFood.setQuantityUnit("g");
+                    mealFood.setServings(1.5);
+                    mealFood.setCalories(food.getCalories() * 1.5);
+                    meal.getMealFoods().add(mealFood);
+                }
+                meals.add(meal);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeMeals() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(meals);
+    }
+}
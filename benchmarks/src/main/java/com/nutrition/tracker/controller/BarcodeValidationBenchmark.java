@@ -0,0 +1,28 @@
+package com.nutrition.tracker.controller;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The barcode format check every scan request runs before any lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BarcodeValidationBenchmark {
+
+    private final BarcodeController barcodeController = new BarcodeController();
+
+    // Valid, padded, not numeric, too short
+    @Param({"3017620422003", " 3017620422003 ", "30176204220x3", "301762"})
+    private String barcode;
+
+    @Benchmark
+    public boolean validateBarcodeFormat() {
+        return barcodeController.isValidBarcodeFormat(barcode);
+    }
+}
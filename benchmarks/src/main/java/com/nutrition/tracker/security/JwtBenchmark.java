@@ -0,0 +1,59 @@
+package com.nutrition.tracker.security;
+
+import com.nutrition.tracker.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue on login and the per-request signature check and claim read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider();
+
+    private Authentication authentication;
+
+    private String token;
+
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        Fixtures.inject(tokenProvider, "jwtSecret", "benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+        Fixtures.inject(tokenProvider, "jwtExpiration", 86_400_000L);
+        tokenProvider.init();
+
+        UserPrincipal principal = new UserPrincipal(42L, "benchmark-user", "", List.of());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+        tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public JwtTokenProvider.TokenClaims parseToken() {
+        return tokenProvider.parse(token);
+    }
+
+    /**
+     * Rejection cost, paid for every request with a forged or corrupted token.
+     */
+    @Benchmark
+    public JwtTokenProvider.TokenClaims parseTamperedToken() {
+        return tokenProvider.parse(tamperedToken);
+    }
+}
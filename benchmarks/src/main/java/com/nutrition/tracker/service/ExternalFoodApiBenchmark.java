@@ -0,0 +1,103 @@
+package com.nutrition.tracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.tracker.benchmark.Fixtures;
+import com.nutrition.tracker.config.JacksonConfig;
+import com.nutrition.tracker.entity.Food;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response handling of the USDA and Open Food Facts clients, minus the HTTP call: barcode validation,
+ * JSON parsing and mapping to {@link Food}. The fixtures follow the APIs' response format:
+ * a ten food USDA search page and an Open Food Facts product.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExternalFoodApiBenchmark {
+
+    private static final String BARCODE = "3017620422003";
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private final USDAService usdaService = new USDAService();
+
+    private final OpenFoodFactsService openFoodFactsService = new OpenFoodFactsService();
+
+    private byte[] usdaSearchResponse;
+    private JsonNode usdaFood;
+
+    private byte[] productResponse;
+    private JsonNode product;
+    private JsonNode nutriments;
+
+    @Setup
+    public void setUp() throws IOException {
+        usdaSearchResponse = Fixtures.load("usda-search.json");
+        usdaFood = objectMapper.readTree(usdaSearchResponse).path("foods").get(0);
+
+        productResponse = Fixtures.load("openfoodfacts-product.json");
+        product = objectMapper.readTree(productResponse).path("product");
+        nutriments = product.path("nutriments");
+    }
+
+    @Benchmark
+    public Food usdaParseFood() {
+        return usdaService.parseUSDAFood(usdaFood);
+    }
+
+    /**
+     * What {@link USDAService#searchFood} does with a response body.
+     */
+    @Benchmark
+    public List<Food> usdaSearchResponse() throws IOException {
+        List<Food> foods = new ArrayList<>();
+        for (JsonNode foodNode : objectMapper.readTree(usdaSearchResponse).path("foods")) {
+            foods.add(usdaService.parseUSDAFood(foodNode));
+        }
+        return foods;
+    }
+
+    @Benchmark
+    public Food openFoodFactsParseProduct() {
+        return openFoodFactsService.parseProductData(product, BARCODE);
+    }
+
+    @Benchmark
+    public Food openFoodFactsParseNutriments() {
+        Food food = new Food();
+        openFoodFactsService.parseNutriments(food, nutriments);
+        return food;
+    }
+
+    /**
+     * What {@link OpenFoodFactsService#getFoodByBarcode} does with a response body.
+     */
+    @Benchmark
+    public Food openFoodFactsProductResponse() throws IOException {
+        JsonNode root = objectMapper.readTree(productResponse);
+        return root.path("status").asInt() == 1 ? openFoodFactsService.parseProductData(root.path("product"), BARCODE) : null;
+    }
+
+    @Benchmark
+    public boolean openFoodFactsValidateBarcode(Barcodes barcodes) {
+        return openFoodFactsService.isValidBarcode(barcodes.barcode);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Barcodes {
+
+        // Valid, not numeric, too short
+        @Param({"3017620422003", "30176204220x3", "301762"})
+        private String barcode;
+    }
+}
@@ -6,6 +6,7 @@ import Dashboard from './pages/Dashboard';
 import Profile from './pages/Profile';
 import AddMeal from './pages/AddMeal';
 import Navigation from './components/Navigation';
+import { authService } from './services/api';
 
 function App() {
   const [isAuthenticated, setIsAuthenticated] = useState(false);
@@ -20,6 +21,8 @@ function App() {
   };
 
   const handleLogout = () => {
+    // Revokes the token server-side; the local session ends either way
+    authService.logout().catch(() => {});
     localStorage.removeItem('token');
     localStorage.removeItem('user');
     setIsAuthenticated(false);
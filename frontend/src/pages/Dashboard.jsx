@@ -24,13 +24,17 @@ function Dashboard() {
     setLoading(true);
     setError('');
     try {
-      const response = await mealService.getMealsByDate(selectedDate);
+      const [response, summaryResponse] = await Promise.all([
+        mealService.getMealsByDate(selectedDate),
+        mealService.getDailySummary(selectedDate)
+      ]);
       console.log('API Response:', response.data); // Debug log
 
       // Ensure response.data is an array
       const mealData = Array.isArray(response.data) ? response.data : [];
       setMeals(mealData);
-      calculateTotalCalories(mealData);
+      // Daily total is computed by the server in one aggregate query
+      setTotalCalories(Math.round(summaryResponse.data?.totals?.calories || 0));
     } catch (error) {
       console.error('Failed to load meals:', error);
 
@@ -53,28 +57,6 @@ function Dashboard() {
     }
   };
 
-  const calculateTotalCalories = (mealList) => {
-    // Validate input is an array
-    if (!Array.isArray(mealList)) {
-      setTotalCalories(0);
-      return;
-    }
-
-    let total = 0;
-    mealList.forEach(meal => {
-      // Check if meal has mealFoods array
-      if (meal.mealFoods && Array.isArray(meal.mealFoods)) {
-        meal.mealFoods.forEach(mf => {
-          if (mf.food && mf.food.calories) {
-            const servings = mf.servings || 1;
-            total += mf.food.calories * servings;
-          }
-        });
-      }
-    });
-    setTotalCalories(Math.round(total));
-  };
-
   const handleDeleteMeal = async (id) => {
     if (window.confirm('Are you sure you want to delete this meal?')) {
       try {
@@ -24,7 +24,11 @@ api.interceptors.request.use(
 
 export const authService = {
   register: (data) => api.post('/auth/register', data),
-  login: (data) => api.post('/auth/login', data)
+  login: (data) => api.post('/auth/login', data),
+  // Header read now: callers clear the stored token right after calling this
+  logout: () => api.post('/auth/logout', null, {
+    headers: { Authorization: `Bearer ${localStorage.getItem('token')}` }
+  })
 };
 
 export const userService = {
@@ -35,11 +39,86 @@ export const userService = {
 
 export const mealService = {
   createMeal: (data) => api.post('/meals', data),
+  // operations: [{ type: 'CREATE' | 'DELETE', clientId, meal?, mealId? }]
+  applyBatch: (operations) => api.post('/meals/batch', { operations }),
+  importCsv: (file, dateFormat = 'yyyy-MM-dd') => {
+    const formData = new FormData();
+    formData.append('file', file);
+    formData.append('dateFormat', dateFormat);
+    return api.post('/meals/import', formData, {
+      headers: { 'Content-Type': 'multipart/form-data' }
+    });
+  },
+  getImportStatus: (id) => api.get(`/meals/import/${id}`),
   getMealsByDate: (date) => api.get(`/meals/date/${date}`),
   getMealsByDateRange: (startDate, endDate) =>
     api.get(`/meals/range?startDate=${startDate}&endDate=${endDate}`),
+  getMealFeed: (cursor, size, includeTotals = false) =>
+    api.get('/meals/feed', { params: { cursor, size, includeTotals } }),
+  getDailySummary: (date) => api.get(`/meals/summary?date=${date}`),
+  getSummaryByDateRange: (startDate, endDate) =>
+    api.get(`/meals/summary/range?startDate=${startDate}&endDate=${endDate}`),
+  getDailyTotals: (startDate, endDate) =>
+    api.get(`/meals/totals?startDate=${startDate}&endDate=${endDate}`),
   getMeal: (id) => api.get(`/meals/${id}`),
-  deleteMeal: (id) => api.delete(`/meals/${id}`)
+  // format: 'csv' | 'ndjson'; resolves to a Blob to save
+  exportMeals: (format = 'csv', gzip = false) =>
+    api.get('/meals/export', { params: { format, gzip }, responseType: 'blob' }),
+  copyMeal: (id, startDate, endDate) => api.post(`/meals/${id}/copy`, { startDate, endDate }),
+  copyDay: (sourceDate, startDate, endDate) =>
+    api.post('/meals/copy-day', { sourceDate, startDate, endDate }),
+  deleteMeal: (id) => api.delete(`/meals/${id}`),
+  // Calls onEvent({ type, mealId, mealDate, delta, dayTotals }) for every committed meal change.
+  // EventSource cannot send the Authorization header, so the stream is read with fetch.
+  // Returns a function that closes the stream.
+  subscribeToMealEvents: (onEvent) => {
+    const controller = new AbortController();
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const response = await fetch(`${API_BASE_URL}/meals/events`, {
+            headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+            signal: controller.signal
+          });
+          const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += value;
+            const messages = buffer.split('\n\n');
+            buffer = messages.pop();
+            for (const message of messages) {
+              const data = message.split('\n')
+                .filter((line) => line.startsWith('data:'))
+                .map((line) => line.slice(5))
+                .join('\n');
+              if (data) onEvent(JSON.parse(data));
+            }
+          }
+        } catch (error) {
+          if (controller.signal.aborted) return;
+        }
+        await new Promise((resolve) => setTimeout(resolve, 3000));
+      }
+    };
+    connect();
+    return () => controller.abort();
+  }
+};
+
+export const mealTemplateService = {
+  getTemplates: () => api.get('/meal-templates'),
+  createTemplate: (name, mealId) => api.post('/meal-templates', { name, mealId }),
+  applyTemplate: (id, startDate, endDate) =>
+    api.post(`/meal-templates/${id}/apply`, { startDate, endDate }),
+  deleteTemplate: (id) => api.delete(`/meal-templates/${id}`)
+};
+
+// Without a token only the current token comes back: take it before the initial load.
+// Then repeat sync(token) with the returned token while hasMore is true.
+export const syncService = {
+  sync: (token) => api.get('/sync', { params: { token } })
 };
 
 export const foodService = {
@@ -47,6 +126,8 @@ export const foodService = {
   getFood: (id) => api.get(`/foods/${id}`),
   searchFoods: (name) => api.get(`/foods/search?name=${name}`),
   getFoodByBarcode: (barcode) => api.get(`/foods/barcode/${barcode}`),
+  getShortcuts: (limit = 10) => api.get(`/foods/shortcuts?limit=${limit}`),
+  getRecommendations: (limit = 10) => api.get(`/foods/recommendations?limit=${limit}`),
   createFood: (data) => api.post('/foods', data)
 };
 
@@ -64,6 +145,19 @@ export const imageService = {
   }
 };
 
+export const photoService = {
+  uploadPhoto: (file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    return api.post('/images', formData, {
+      headers: { 'Content-Type': 'multipart/form-data' }
+    });
+  },
+  deletePhoto: (hash) => api.delete(`/images/${hash}`),
+  // size: original, small (160px), medium (480px) or large (1024px)
+  photoUrl: (hash, size = 'small') => `${API_BASE_URL}/images/${hash}?size=${size}`
+};
+
 export const barcodeService = {
   getFoodByBarcode: (barcode) => api.get(`/barcode/${barcode}`)
 };
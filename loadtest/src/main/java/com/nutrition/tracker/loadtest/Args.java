@@ -0,0 +1,56 @@
+package com.nutrition.tracker.loadtest;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code --name=value} options. Unknown names are rejected once all options are read,
+ * so a typo does not silently run with a default.
+ */
+final class Args {
+
+    private final Map<String, String> values;
+
+    private final Set<String> used = new HashSet<>();
+
+    private Args(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Args parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return new Args(values);
+    }
+
+    String string(String name, String defaultValue) {
+        used.add(name);
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int integer(String name, int defaultValue) {
+        String value = string(name, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    double decimal(String name, double defaultValue) {
+        String value = string(name, null);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    void requireAllUsed() {
+        Set<String> unknown = new HashSet<>(values.keySet());
+        unknown.removeAll(used);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + unknown);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.nutrition.tracker.loadtest;
+
+import java.util.Random;
+
+/**
+ * Log-normal response times given as median and 99th percentile, the usual shape of a remote API:
+ * most calls near the median and a long tail of slow ones.
+ */
+record LatencyProfile(double medianMs, double p99Ms) {
+
+    // 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    /**
+     * Parses {@code median:p99} in milliseconds, e.g. {@code 120:600}.
+     */
+    static LatencyProfile parse(String spec) {
+        String[] parts = spec.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Latency must be median:p99 in milliseconds, got '" + spec + "'");
+        }
+        double median = Double.parseDouble(parts[0]);
+        double p99 = Double.parseDouble(parts[1]);
+        if (median < 0 || p99 < median) {
+            throw new IllegalArgumentException("Latency needs 0 <= median <= p99, got '" + spec + "'");
+        }
+        return new LatencyProfile(median, p99);
+    }
+
+    long sampleMillis(Random random) {
+        if (medianMs == 0 || p99Ms == medianMs) {
+            return Math.round(medianMs);
+        }
+        double sigma = Math.log(p99Ms / medianMs) / Z_99;
+        return Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    @Override
+    public String toString() {
+        return "median " + Math.round(medianMs) + " ms, p99 " + Math.round(p99Ms) + " ms";
+    }
+}
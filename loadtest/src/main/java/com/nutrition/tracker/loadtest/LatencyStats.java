@@ -0,0 +1,52 @@
+package com.nutrition.tracker.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Response times of one kind of request. Every sample is kept, so percentiles are exact;
+ * a million requests take 8 MB.
+ */
+final class LatencyStats {
+
+    private long[] samples = new long[1024];
+
+    private int count;
+
+    private long errors;
+
+    synchronized void record(long nanos, boolean error) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized long errors() {
+        return errors;
+    }
+
+    /**
+     * Percentiles in milliseconds, for each of {@code percentiles} (0-100) followed by the maximum.
+     */
+    synchronized double[] percentilesMillis(double... percentiles) {
+        double[] result = new double[percentiles.length + 1];
+        if (count == 0) {
+            return result;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        for (int i = 0; i < percentiles.length; i++) {
+            int index = (int) Math.ceil(percentiles[i] / 100 * count) - 1;
+            result[i] = sorted[Math.max(0, Math.min(count - 1, index))] / 1e6;
+        }
+        result[percentiles.length] = sorted[count - 1] / 1e6;
+        return result;
+    }
+}
@@ -0,0 +1,392 @@
+package com.nutrition.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Closed-model load: each virtual user registers, then repeats scenarios picked by weight with a think
+ * time in between, until the run ends. Requests made during warm-up are not counted. The report lists
+ * throughput and latency percentiles per request.
+ * <p>
+ * In a closed model a slow server also slows the users down, so throughput falls rather than latency
+ * growing without bound; compare runs at the same user count.
+ */
+final class LoadDriver {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    // What people type into the search box, a few keystrokes at a time
+    private static final String[] SEARCH_WORDS = {"cheddar", "chicken", "banana", "oatmeal", "yogurt", "almond",
+            "rice", "salmon", "broccoli", "apple", "bread", "egg", "avocado", "pasta", "spinach", "lentils"};
+
+    // Scanned again and again by many users, like best-selling products; other scans are one-offs
+    private static final int POPULAR_BARCODES = 200;
+    private static final double POPULAR_SCAN_SHARE = 0.7;
+
+    private static final String[] MEAL_TYPES = {"BREAKFAST", "LUNCH", "DINNER", "SNACK"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+    private final int users;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int rampUpSeconds;
+    private final int thinkMs;
+    private final int keystrokeMs;
+    private final int imageKb;
+    private final long seed;
+    private final Map<String, Integer> mix;
+
+    private final Map<String, LatencyStats> stats = new ConcurrentHashMap<>();
+
+    private volatile boolean recording;
+
+    LoadDriver(Args args) {
+        baseUrl = args.string("base-url", "http://localhost:8080/api");
+        users = args.integer("users", 50);
+        durationSeconds = args.integer("duration", 120);
+        warmupSeconds = args.integer("warmup", 20);
+        rampUpSeconds = args.integer("ramp-up", 10);
+        thinkMs = args.integer("think-ms", 1000);
+        keystrokeMs = args.integer("keystroke-ms", 150);
+        imageKb = args.integer("image-kb", 300);
+        seed = args.integer("seed", 1);
+        mix = parseMix(args.string("mix", "search:40,barcode:20,image:5,dashboard:30,log:5"));
+        args.requireAllUsed();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("%d users against %s for %ds after %ds warm-up, mix %s%n",
+                users, baseUrl, durationSeconds, warmupSeconds, mix);
+
+        long start = System.nanoTime();
+        long measureStart = start + warmupSeconds * 1_000_000_000L;
+        long end = measureStart + durationSeconds * 1_000_000_000L;
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            VirtualUser user = new VirtualUser("lt-" + runId + "-" + i, new Random(seed * 1_000_003 + i));
+            long startDelayMs = users > 1 ? rampUpSeconds * 1000L * i / (users - 1) : 0;
+            Thread thread = new Thread(() -> user.run(startDelayMs, end), "user-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        sleepUntil(measureStart);
+        recording = true;
+        System.out.println("Warm-up done, measuring");
+        while (System.nanoTime() < end) {
+            sleepUntil(Math.min(end, System.nanoTime() + 10_000_000_000L));
+            printProgress((System.nanoTime() - measureStart) / 1e9);
+        }
+        recording = false;
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+        for (Thread thread : threads) {
+            thread.join(30_000);
+        }
+        printReport(measuredSeconds);
+    }
+
+    private void printProgress(double seconds) {
+        long requests = 0;
+        long errors = 0;
+        for (LatencyStats requestStats : stats.values()) {
+            requests += requestStats.count();
+            errors += requestStats.errors();
+        }
+        System.out.printf("[%4.0fs] %d requests, %.1f req/s, %d errors%n", seconds, requests, requests / seconds, errors);
+    }
+
+    private void printReport(double seconds) {
+        System.out.println();
+        System.out.printf("%-22s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "request", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        long totalErrors = 0;
+        for (Map.Entry<String, LatencyStats> entry : new TreeMap<>(stats).entrySet()) {
+            LatencyStats requestStats = entry.getValue();
+            double[] millis = requestStats.percentilesMillis(PERCENTILES);
+            System.out.printf("%-22s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    requestStats.count(), requestStats.errors(), requestStats.count() / seconds,
+                    millis[0], millis[1], millis[2], millis[3], millis[4]);
+            total += requestStats.count();
+            totalErrors += requestStats.errors();
+        }
+        System.out.printf("%-22s %9d %8d %9.1f%n", "total", total, totalErrors, total / seconds);
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Set<String> scenarios = Set.of("search", "barcode", "image", "dashboard", "log");
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.split(":");
+            if (nameAndWeight.length != 2 || !scenarios.contains(nameAndWeight[0])) {
+                throw new IllegalArgumentException("Mix entries are scenario:weight with scenarios " + scenarios
+                        + ", got '" + part + "'");
+            }
+            weights.put(nameAndWeight[0], Integer.parseInt(nameAndWeight[1]));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The mix needs a positive weight");
+        }
+        return weights;
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long millis = (nanoTime - System.nanoTime()) / 1_000_000;
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private final class VirtualUser {
+
+        private final String username;
+
+        private final Random random;
+
+        // Ids of foods seen in search results, to log meals with
+        private final List<Long> foodIds = new ArrayList<>();
+
+        private String token;
+
+        VirtualUser(String username, Random random) {
+            this.username = username;
+            this.random = random;
+        }
+
+        void run(long startDelayMs, long endNanos) {
+            try {
+                Thread.sleep(startDelayMs);
+                if (!register()) {
+                    System.err.println(username + " could not register, stopping");
+                    return;
+                }
+                while (System.nanoTime() < endNanos) {
+                    switch (pickScenario()) {
+                        case "search" -> searchTyping();
+                        case "barcode" -> barcodeScan();
+                        case "image" -> imageUpload();
+                        case "dashboard" -> dashboard();
+                        case "log" -> logMeal();
+                        default -> throw new IllegalStateException();
+                    }
+                    // Half to one and a half times the think time
+                    Thread.sleep(thinkMs / 2 + random.nextInt(thinkMs + 1));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean register() {
+            ObjectNode body = objectMapper.createObjectNode()
+                    .put("username", username)
+                    .put("email", username + "@loadtest.local")
+                    .put("password", "loadtest-password")
+                    .put("fullName", "Load Test " + username);
+            JsonNode response = send("auth register", post("/auth/register", body), false);
+            if (response == null) {
+                return false;
+            }
+            token = response.path("token").asText();
+            return true;
+        }
+
+        private String pickScenario() {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int pick = random.nextInt(total);
+            for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        /**
+         * The search box queries on every keystroke from the second character on.
+         */
+        private void searchTyping() throws InterruptedException {
+            String word = SEARCH_WORDS[random.nextInt(SEARCH_WORDS.length)];
+            for (int length = 2; length <= word.length(); length++) {
+                String query = URLEncoder.encode(word.substring(0, length), StandardCharsets.UTF_8);
+                JsonNode foods = send("food search", get("/foods/search?name=" + query), false);
+                if (foods != null) {
+                    for (JsonNode food : foods) {
+                        if (foodIds.size() < 50 && food.hasNonNull("id")) {
+                            foodIds.add(food.get("id").asLong());
+                        }
+                    }
+                }
+                Thread.sleep(keystrokeMs);
+            }
+        }
+
+        private void barcodeScan() {
+            long number = random.nextDouble() < POPULAR_SCAN_SHARE
+                    ? 3_017_620_000_000L + random.nextInt(POPULAR_BARCODES)
+                    : 4_000_000_000_000L + (long) (random.nextDouble() * 5_000_000_000_000L);
+            // Unknown products come back as 404
+            send("barcode scan", get("/barcode/" + number), true);
+        }
+
+        private void imageUpload() {
+            byte[] image = new byte[imageKb * 1024];
+            random.nextBytes(image);
+            // JPEG start of image marker; the content is never decoded
+            image[0] = (byte) 0xFF;
+            image[1] = (byte) 0xD8;
+
+            String boundary = "loadtest" + Long.toHexString(random.nextLong());
+            ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 256);
+            body.writeBytes(("--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"meal.jpg\"\r\n"
+                    + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(image);
+            body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+            HttpRequest request = authorized("/image/analyze")
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                    .build();
+            sendRaw("image analyze", request, false);
+        }
+
+        /**
+         * The home screen, which loads its panels in parallel.
+         */
+        private void dashboard() {
+            LocalDate today = LocalDate.now();
+            CompletableFuture.allOf(
+                    sendAsync("dashboard meals", get("/meals/date/" + today)),
+                    sendAsync("dashboard summary", get("/meals/summary?date=" + today)),
+                    sendAsync("dashboard totals", get("/meals/totals?startDate=" + today.minusDays(6)
+                            + "&endDate=" + today)),
+                    sendAsync("dashboard trend", get("/trends/series?startDate=" + today.minusDays(89)
+                            + "&endDate=" + today)),
+                    sendAsync("dashboard shortcuts", get("/foods/shortcuts?limit=10"))
+            ).join();
+        }
+
+        private void logMeal() throws InterruptedException {
+            if (foodIds.isEmpty()) {
+                searchTyping();
+                if (foodIds.isEmpty()) {
+                    return;
+                }
+            }
+            ArrayNode foods = objectMapper.createArrayNode();
+            int items = 1 + random.nextInt(3);
+            for (int i = 0; i < items; i++) {
+                foods.addObject()
+                        .put("foodId", foodIds.get(random.nextInt(foodIds.size())))
+                        .put("quantity", 50 + random.nextInt(200))
+                        .put("quantityUnit", "g")
+                        .put("servings", 1.0);
+            }
+            ObjectNode meal = objectMapper.createObjectNode()
+                    .put("mealType", MEAL_TYPES[random.nextInt(MEAL_TYPES.length)])
+                    .put("mealDate", LocalDate.now().minusDays(random.nextInt(3)).toString());
+            meal.set("foods", foods);
+            send("meal create", post("/meals", meal), false);
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder;
+        }
+
+        private HttpRequest get(String path) {
+            return authorized(path).GET().build();
+        }
+
+        private HttpRequest post(String path, JsonNode body) {
+            try {
+                return authorized(path)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                        .build();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Sends a request and parses its JSON response, or returns null if it failed.
+         */
+        private JsonNode send(String name, HttpRequest request, boolean notFoundIsSuccess) {
+            String body = sendRaw(name, request, notFoundIsSuccess);
+            try {
+                return body != null && !body.isEmpty() ? objectMapper.readTree(body) : null;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private String sendRaw(String name, HttpRequest request, boolean notFoundIsSuccess) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                boolean error = response.statusCode() >= 400 && !(notFoundIsSuccess && response.statusCode() == 404);
+                record(name, System.nanoTime() - start, error);
+                return error ? null : response.body();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                record(name, System.nanoTime() - start, true);
+                return null;
+            }
+        }
+
+        private CompletableFuture<?> sendAsync(String name, HttpRequest request) {
+            long start = System.nanoTime();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        record(name, System.nanoTime() - start, failure != null || response.statusCode() >= 400);
+                        return null;
+                    });
+        }
+
+        private void record(String name, long nanos, boolean error) {
+            if (recording) {
+                stats.computeIfAbsent(name, key -> new LatencyStats()).record(nanos, error);
+            }
+        }
+    }
+}
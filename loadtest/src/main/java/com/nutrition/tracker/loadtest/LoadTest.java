@@ -0,0 +1,38 @@
+package com.nutrition.tracker.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Entry point of {@code loadtest.jar}.
+ * <pre>
+ * java -jar loadtest.jar stubs [--port=8089 ...]   stand-ins for the USDA, Open Food Facts and OpenAI APIs
+ * java -jar loadtest.jar run [--users=50 ...]      load against a running application, then a latency report
+ * </pre>
+ * Start the application with the {@code loadtest} profile so it calls the stubs instead of the real APIs.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "";
+        Args options = Args.parse(Arrays.copyOfRange(args, Math.min(1, args.length), args.length));
+        switch (command) {
+            case "stubs" -> StubServer.start(options);
+            case "run" -> new LoadDriver(options).run();
+            default -> {
+                System.err.println("Usage: java -jar loadtest.jar stubs|run [--option=value ...]");
+                System.err.println();
+                System.err.println("stubs: --port=8089 --threads=512 --usda-latency=120:600 --off-latency=80:400"
+                        + " --openai-latency=1500:6000 --usda-errors=0.01 --off-errors=0.01 --openai-errors=0.02"
+                        + " --off-not-found=0.2 --seed=1");
+                System.err.println("       latencies are median:p99 in milliseconds, error rates fractions of requests");
+                System.err.println("run:   --base-url=http://localhost:8080/api --users=50 --duration=120 --warmup=20"
+                        + " --ramp-up=10 --think-ms=1000 --keystroke-ms=150 --image-kb=300"
+                        + " --mix=search:40,barcode:20,image:5,dashboard:30,log:5 --seed=1");
+                System.exit(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.nutrition.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Stand-ins for the USDA, Open Food Facts and OpenAI APIs under {@code /usda}, {@code /openfoodfacts}
+ * and {@code /openai}, answering from fixture responses after a simulated network and processing delay.
+ * A configurable fraction of requests fails with 503, like an overloaded upstream, and Open Food Facts
+ * reports a fraction of barcodes as unknown.
+ */
+final class StubServer {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonNode usdaSearch = fixture("usda-search.json");
+    private final JsonNode usdaFood = fixture("usda-food.json");
+    private final JsonNode product = fixture("openfoodfacts-product.json");
+    private final JsonNode chatCompletion = fixture("openai-chat-completion.json");
+
+    private final Upstream usda;
+    private final Upstream openFoodFacts;
+    private final Upstream openAi;
+
+    private final double notFoundRate;
+
+    // The stub's own randomness is seeded per request thread from this, so runs are comparable
+    private final long seed;
+
+    private final ThreadLocal<Random> random;
+
+    private StubServer(Args args) {
+        usda = new Upstream("USDA", LatencyProfile.parse(args.string("usda-latency", "120:600")),
+                args.decimal("usda-errors", 0.01));
+        openFoodFacts = new Upstream("Open Food Facts", LatencyProfile.parse(args.string("off-latency", "80:400")),
+                args.decimal("off-errors", 0.01));
+        openAi = new Upstream("OpenAI", LatencyProfile.parse(args.string("openai-latency", "1500:6000")),
+                args.decimal("openai-errors", 0.02));
+        notFoundRate = args.decimal("off-not-found", 0.2);
+        seed = args.integer("seed", 1);
+        random = ThreadLocal.withInitial(() -> new Random(seed * 31 + Thread.currentThread().getId()));
+    }
+
+    static void start(Args args) throws IOException {
+        StubServer stubs = new StubServer(args);
+        int port = args.integer("port", 8089);
+        int threads = args.integer("threads", 512);
+        args.requireAllUsed();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        // Delays are simulated by sleeping, so every in-flight request holds a thread
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.createContext("/usda/", exchange -> stubs.handle(exchange, stubs.usda, stubs::usdaResponse));
+        server.createContext("/openfoodfacts/", exchange ->
+                stubs.handle(exchange, stubs.openFoodFacts, stubs::openFoodFactsResponse));
+        server.createContext("/openai/", exchange -> stubs.handle(exchange, stubs.openAi, stubs::openAiResponse));
+        server.start();
+
+        System.out.printf("Stub APIs listening on port %d with %d threads%n", port, threads);
+        for (Upstream upstream : new Upstream[] {stubs.usda, stubs.openFoodFacts, stubs.openAi}) {
+            System.out.printf("  %-16s %s, %.1f%% errors%n", upstream.name(), upstream.latency(),
+                    upstream.errorRate() * 100);
+        }
+        System.out.printf("  Open Food Facts reports %.0f%% of barcodes as not found%n", stubs.notFoundRate * 100);
+    }
+
+    private void handle(HttpExchange exchange, Upstream upstream, Function<HttpExchange, Response> responder)
+            throws IOException {
+        try (exchange) {
+            // Like a real server, read the whole request before answering
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            Random random = this.random.get();
+            Thread.sleep(upstream.latency().sampleMillis(random));
+
+            Response response = random.nextDouble() < upstream.errorRate()
+                    ? new Response(503, objectMapper.createObjectNode().put("error", "Service temporarily unavailable"))
+                    : responder.apply(exchange);
+            byte[] bytes = objectMapper.writeValueAsBytes(response.body());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * {@code /usda/foods/search?query=...} answers with the fixture's foods renamed after the query,
+     * so each query adds its own foods to the catalog; {@code /usda/food/{fdcId}} with one food.
+     */
+    private Response usdaResponse(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/usda/foods/search")) {
+            String query = queryParameters(exchange).getOrDefault("query", "");
+            ObjectNode response = usdaSearch.deepCopy();
+            ArrayNode foods = (ArrayNode) response.path("foods");
+            long baseId = (query.toLowerCase().hashCode() & 0x7fffffffL) * 100;
+            for (int i = 0; i < foods.size(); i++) {
+                ObjectNode food = (ObjectNode) foods.get(i);
+                food.put("fdcId", baseId + i);
+                food.put("description", query.toUpperCase() + ", " + food.path("description").asText());
+            }
+            response.with("foodSearchCriteria").put("query", query).put("generalSearchInput", query);
+            return new Response(200, response);
+        }
+        if (path.startsWith("/usda/food/")) {
+            ObjectNode food = usdaFood.deepCopy();
+            food.put("fdcId", path.substring("/usda/food/".length()));
+            return new Response(200, food);
+        }
+        return notFound();
+    }
+
+    /**
+     * {@code /openfoodfacts/product/{barcode}.json} answers with the fixture product under the scanned barcode.
+     */
+    private Response openFoodFactsResponse(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.startsWith("/openfoodfacts/product/") || !path.endsWith(".json")) {
+            return notFound();
+        }
+        String barcode = path.substring("/openfoodfacts/product/".length(), path.length() - ".json".length());
+        if (random.get().nextDouble() < notFoundRate) {
+            // Open Food Facts answers unknown barcodes with 200 and status 0
+            return new Response(200, objectMapper.createObjectNode()
+                    .put("code", barcode)
+                    .put("status", 0)
+                    .put("status_verbose", "product not found"));
+        }
+        ObjectNode response = product.deepCopy();
+        response.put("code", barcode);
+        ((ObjectNode) response.path("product"))
+                .put("code", barcode)
+                .put("_id", barcode)
+                .put("product_name", "Product " + barcode);
+        return new Response(200, response);
+    }
+
+    private Response openAiResponse(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            return notFound();
+        }
+        return new Response(200, chatCompletion);
+    }
+
+    private Response notFound() {
+        return new Response(404, objectMapper.createObjectNode().put("error", "Not found"));
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private JsonNode fixture(String name) {
+        try (InputStream in = StubServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("No fixture " + name);
+            }
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Upstream(String name, LatencyProfile latency, double errorRate) {
+    }
+
+    private record Response(int status, JsonNode body) {
+    }
+}
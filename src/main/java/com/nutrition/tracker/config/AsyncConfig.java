@@ -1,6 +1,8 @@
 package com.nutrition.tracker.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.util.concurrent.Executor;
@@ -8,6 +10,11 @@ import java.util.concurrent.Executor;
 @Configuration
 public class AsyncConfig implements AsyncConfigurer {
 
+    // Lazy: async configuration is set up early, before the meter registry should be
+    @Autowired
+    @Lazy
+    private ExecutorMetrics executorMetrics;
+
     @Override
     public Executor getAsyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -16,6 +23,7 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("async-");
         executor.initialize();
+        executorMetrics.monitor(executor, "async");
         return executor;
     }
 }
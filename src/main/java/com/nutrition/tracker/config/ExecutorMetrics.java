@@ -0,0 +1,41 @@
+package com.nutrition.tracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Publishes saturation of the thread pools that are not beans, which Spring Boot does not bind itself:
+ * the executor.* meters (active threads, queued tasks, remaining queue capacity) plus an
+ * {@code executor.rejected} count, all tagged with the pool name.
+ */
+@Component
+public class ExecutorMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Call once the executor is initialized.
+     */
+    public void monitor(ThreadPoolTaskExecutor executor, String name) {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        new ExecutorServiceMetrics(pool, name, List.of()).bindTo(meterRegistry);
+
+        Counter rejected = Counter.builder("executor.rejected")
+                .tag("name", name)
+                .description("Tasks refused because the pool and its queue were full")
+                .register(meterRegistry);
+        RejectedExecutionHandler handler = pool.getRejectedExecutionHandler();
+        pool.setRejectedExecutionHandler((task, p) -> {
+            rejected.increment();
+            handler.rejectedExecution(task, p);
+        });
+    }
+}
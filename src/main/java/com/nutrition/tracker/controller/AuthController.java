@@ -4,10 +4,12 @@ import com.nutrition.tracker.dto.AuthRequest;
 import com.nutrition.tracker.dto.AuthResponse;
 import com.nutrition.tracker.dto.RegisterRequest;
 import com.nutrition.tracker.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -16,15 +18,23 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    // Completed off the request thread once the password is hashed. The remote address is the client's
+    // own when the request came through a trusted proxy (server.tomcat.remoteip.internal-proxies)
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request,
+                                                                    HttpServletRequest httpRequest) {
+        return authService.register(request, httpRequest.getRemoteAddr()).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-        AuthResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody AuthRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        return authService.login(request, httpRequest.getRemoteAddr()).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        authService.logout();
+        return ResponseEntity.noContent().build();
     }
 }
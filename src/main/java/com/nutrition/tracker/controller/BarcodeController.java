@@ -125,7 +125,7 @@ public class BarcodeController {
      * @param barcode Barcode string to validate
      * @return true if valid format
      */
-    private boolean isValidBarcodeFormat(String barcode) {
+    boolean isValidBarcodeFormat(String barcode) {
         if (barcode == null || barcode.trim().isEmpty()) {
             return false;
         }
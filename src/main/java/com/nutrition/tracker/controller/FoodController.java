@@ -1,7 +1,11 @@
 package com.nutrition.tracker.controller;
 
+import com.nutrition.tracker.dto.FoodRecommendations;
+import com.nutrition.tracker.dto.FoodShortcuts;
 import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.service.FoodRecommendationService;
 import com.nutrition.tracker.service.FoodService;
+import com.nutrition.tracker.service.FoodUsageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,12 +18,30 @@ public class FoodController {
     @Autowired
     private FoodService foodService;
 
+    @Autowired
+    private FoodRecommendationService foodRecommendationService;
+
+    @Autowired
+    private FoodUsageService foodUsageService;
+
     @GetMapping
     public ResponseEntity<List<Food>> getAllFoods() {
         List<Food> foods = foodService.getAllFoods();
         return ResponseEntity.ok(foods);
     }
 
+    @GetMapping("/recommendations")
+    public ResponseEntity<FoodRecommendations> getRecommendations(@RequestParam(defaultValue = "10") int limit) {
+        FoodRecommendations recommendations = foodRecommendationService.recommend(limit);
+        return ResponseEntity.ok(recommendations);
+    }
+
+    @GetMapping("/shortcuts")
+    public ResponseEntity<FoodShortcuts> getShortcuts(@RequestParam(defaultValue = "10") int limit) {
+        FoodShortcuts shortcuts = foodUsageService.getShortcuts(limit);
+        return ResponseEntity.ok(shortcuts);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Food> getFood(@PathVariable Long id) {
         Food food = foodService.getFoodById(id);
@@ -0,0 +1,286 @@
+package com.nutrition.tracker.controller;
+
+import com.nutrition.tracker.dto.ImageUploadResponse;
+import com.nutrition.tracker.service.FileStorageService;
+import com.nutrition.tracker.service.ThumbnailService;
+import com.nutrition.tracker.storage.StorageBackend;
+import com.nutrition.tracker.storage.StorageObjectNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Uploads meal photos and serves them and their thumbnails.
+ * Images are content-addressed, so a URL's bytes never change: responses carry a strong ETag
+ * derived from the hash and a year-long immutable Cache-Control, and revalidations are answered
+ * with 304 before any storage access.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String ORIGINAL = "original";
+
+    // Tomcat request attributes for sendfile, honoured by the NIO/NIO2/APR connectors
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @PostMapping
+    public ResponseEntity<ImageUploadResponse> uploadImage(@RequestParam("file") MultipartFile file) {
+        fileStorageService.validateImageFile(file);
+        String key = fileStorageService.storeFile(file);
+        String hash = key.substring(key.lastIndexOf('/') + 1);
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        urls.put(ORIGINAL, "/images/" + hash);
+        for (ThumbnailService.Variant variant : ThumbnailService.Variant.values()) {
+            String size = variant.name().toLowerCase();
+            urls.put(size, "/images/" + hash + "?size=" + size);
+        }
+
+        return ResponseEntity.ok(new ImageUploadResponse(hash, key, urls));
+    }
+
+    @GetMapping("/{hash}")
+    public void getImage(@PathVariable String hash,
+                         @RequestParam(defaultValue = ORIGINAL) String size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        ThumbnailService.Variant variant = parseVariant(size);
+        if (!HASH_PATTERN.matcher(hash).matches() || (variant == null && !ORIGINAL.equals(size))) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid image reference");
+            return;
+        }
+
+        String eTag = "\"" + hash + "-" + size + "\"";
+        if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            setCacheHeaders(response, eTag);
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        String originalKey = fileStorageService.toKey(hash);
+        String key;
+        String contentType;
+        long length;
+        try {
+            if (variant == null) {
+                key = originalKey;
+                contentType = fileStorageService.getContentType(originalKey);
+            } else {
+                ThumbnailService.Status status = thumbnailService.requestVariant(originalKey, variant);
+                if (status == ThumbnailService.Status.MISSING) {
+                    sendNotFound(response);
+                    return;
+                }
+                if (status == ThumbnailService.Status.PENDING) {
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+                    response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+                    response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Thumbnail is being generated");
+                    return;
+                }
+                key = variant.keyFor(originalKey);
+                contentType = MediaType.IMAGE_JPEG_VALUE;
+            }
+            length = storageBackend.size(key);
+        } catch (StorageObjectNotFoundException | RuntimeException e) {
+            sendNotFound(response);
+            return;
+        }
+
+        setCacheHeaders(response, eTag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length - 1;
+        long[] range = parseRange(request.getHeader(HttpHeaders.RANGE), length);
+        if (range != null) {
+            if (range.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            start = range[0];
+            end = range[1];
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        // Files stored before uploads were limited to raster types are downloaded, never rendered
+        if (!FileStorageService.IMAGE_TYPES.contains(contentType)) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+        }
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "default-src 'none'; sandbox");
+        response.setContentType(contentType);
+        response.setContentLengthLong(end - start + 1);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        writeBody(key, start, end, request, response);
+    }
+
+    /**
+     * Releases the current user's upload of the image. The bytes are removed once no upload refers to them.
+     */
+    @DeleteMapping("/{hash}")
+    public ResponseEntity<Void> deleteImage(@PathVariable String hash) {
+        if (!HASH_PATTERN.matcher(hash).matches()) {
+            throw new RuntimeException("Invalid image reference");
+        }
+        fileStorageService.deleteFile(fileStorageService.toKey(hash));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Writes {@code [start, end]} of the object. Local files go through Tomcat's sendfile when the
+     * connector offers it, so the kernel copies the file straight to the socket; otherwise they fall
+     * back to {@link FileChannel#transferTo}. Remote objects are streamed from the backend.
+     */
+    private void writeBody(String key, long start, long end, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        Path localPath = storageBackend.localPath(key);
+        if (localPath == null) {
+            try (InputStream inputStream = storageBackend.open(key, start, end)) {
+                inputStream.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, localPath.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        OutputStream outputStream = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(localPath, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = start;
+            long remaining = end - start + 1;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private ThumbnailService.Variant parseVariant(String size) {
+        for (ThumbnailService.Variant variant : ThumbnailService.Variant.values()) {
+            if (variant.name().equalsIgnoreCase(size)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a single byte range.
+     *
+     * @return null to serve the whole object (no header, an invalid range such as a last position
+     *         before the first, or a form we do not support such as multiple ranges), an empty array
+     *         if the range is unsatisfiable, else {start, end}
+     */
+    private long[] parseRange(String header, long length) {
+        if (header == null) {
+            return null;
+        }
+        Matcher matcher = RANGE_PATTERN.matcher(header.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix == 0 || length == 0) {
+                    return new long[0];
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+
+            long start = Long.parseLong(first);
+            if (!last.isEmpty() && Long.parseLong(last) < start) {
+                // Invalid, not unsatisfiable: RFC 9110 has the header ignored
+                return null;
+            }
+            if (start >= length) {
+                return new long[0];
+            }
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void setCacheHeaders(HttpServletResponse response, String eTag) {
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    }
+
+    private void sendNotFound(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.sendError(HttpStatus.NOT_FOUND.value(), "Image not found");
+    }
+}
@@ -12,11 +12,19 @@ import java.util.concurrent.CompletableFuture;
 @RequestMapping("/api/image")
 public class ImageRecognitionController {
 
+    // The multipart limit is sized for CSV imports; images are read into memory, so cap them here
+    private static final long MAX_IMAGE_SIZE = 10 * 1024 * 1024;
+
     @Autowired
     private OpenAIService openAIService;
 
     @PostMapping("/analyze")
     public CompletableFuture<ResponseEntity<String>> analyzeImage(@RequestParam("file") MultipartFile file) {
+        if (file.getSize() > MAX_IMAGE_SIZE) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body("File size exceeds maximum limit of 10MB"));
+        }
+
         try {
             byte[] imageBytes = file.getBytes();
             String base64Image = Base64.getEncoder().encodeToString(imageBytes);
@@ -1,13 +1,34 @@
 package com.nutrition.tracker.controller;
 
+import com.nutrition.tracker.dto.DailyNutritionSummary;
+import com.nutrition.tracker.dto.DayCopyRequest;
+import com.nutrition.tracker.dto.MealBatchRequest;
+import com.nutrition.tracker.dto.MealBatchResult;
+import com.nutrition.tracker.dto.MealCopyRequest;
+import com.nutrition.tracker.dto.MealFeedPage;
+import com.nutrition.tracker.dto.MealImportStatus;
 import com.nutrition.tracker.dto.MealRequest;
+import com.nutrition.tracker.dto.MealView;
+import com.nutrition.tracker.entity.DailyNutritionTotal;
 import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.service.MealEventStreamService;
+import com.nutrition.tracker.service.MealExportService;
+import com.nutrition.tracker.service.MealImportService;
 import com.nutrition.tracker.service.MealService;
+import com.nutrition.tracker.service.MealVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -18,27 +39,141 @@ public class MealController {
     @Autowired
     private MealService mealService;
 
+    @Autowired
+    private MealImportService mealImportService;
+
+    @Autowired
+    private MealVersionService mealVersionService;
+
+    @Autowired
+    private MealExportService mealExportService;
+
+    @Autowired
+    private MealEventStreamService mealEventStreamService;
+
     @PostMapping
     public ResponseEntity<Meal> createMeal(@Valid @RequestBody MealRequest request) {
         Meal meal = mealService.createMeal(request);
         return ResponseEntity.ok(meal);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<MealBatchResult>> applyBatch(@Valid @RequestBody MealBatchRequest request) {
+        List<MealBatchResult> results = mealService.applyBatch(request);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/{id}/copy")
+    public ResponseEntity<List<MealView>> copyMeal(@PathVariable Long id, @Valid @RequestBody MealCopyRequest request) {
+        List<MealView> meals = mealService.copyMeal(id, request.getStartDate(), request.getEndDate());
+        return ResponseEntity.ok(meals);
+    }
+
+    @PostMapping("/copy-day")
+    public ResponseEntity<List<MealView>> copyDay(@Valid @RequestBody DayCopyRequest request) {
+        List<MealView> meals = mealService.copyDay(request.getSourceDate(), request.getStartDate(), request.getEndDate());
+        return ResponseEntity.ok(meals);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<MealImportStatus> importMeals(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "yyyy-MM-dd") String dateFormat) {
+        MealImportStatus status = mealImportService.startImport(file, dateFormat);
+        return ResponseEntity.accepted().body(status);
+    }
+
+    @GetMapping("/import/{id}")
+    public ResponseEntity<MealImportStatus> getImportStatus(@PathVariable String id) {
+        MealImportStatus status = mealImportService.getStatus(id);
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Server-Sent Events: a "meal" event with the change and the day's new totals after every
+     * committed meal write or delete. Imports send one "meals-imported" event per committed chunk
+     * with the affected date range instead.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMealEvents() {
+        return mealEventStreamService.subscribe();
+    }
+
+    /**
+     * Whole history as a download, written while it is read; with gzip=true the file itself is gzipped.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMeals(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        MealExportService.Format exportFormat = MealExportService.Format.of(format);
+        StreamingResponseBody body = mealExportService.export(exportFormat, gzip);
+        String filename = "meals." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Tagged with the day's version: a matching If-None-Match gets 304 without loading anything.
+     * no-cache makes browsers revalidate on every navigation instead of reusing a stale copy.
+     */
     @GetMapping("/date/{date}")
     public ResponseEntity<List<Meal>> getMealsByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
+        String etag = mealVersionService.getDayETag(date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<Meal> meals = mealService.getMealsByDate(date);
-        return ResponseEntity.ok(meals);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(meals);
     }
 
     @GetMapping("/range")
-    public ResponseEntity<List<Meal>> getMealsByDateRange(
+    public ResponseEntity<List<MealView>> getMealsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<Meal> meals = mealService.getMealsByDateRange(startDate, endDate);
+        List<MealView> meals = mealService.getMealsByDateRange(startDate, endDate);
         return ResponseEntity.ok(meals);
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<MealFeedPage> getMealFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotals) {
+        MealFeedPage page = mealService.getMealFeed(cursor, size, includeTotals);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<DailyNutritionSummary> getDailySummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        DailyNutritionSummary summary = mealService.getDailySummary(date);
+        return ResponseEntity.ok(summary);
+    }
+
+    @GetMapping("/summary/range")
+    public ResponseEntity<List<DailyNutritionSummary>> getSummaryByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<DailyNutritionSummary> summaries = mealService.getSummaryByDateRange(startDate, endDate);
+        return ResponseEntity.ok(summaries);
+    }
+
+    @GetMapping("/totals")
+    public ResponseEntity<List<DailyNutritionTotal>> getDailyTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<DailyNutritionTotal> totals = mealService.getDailyTotals(startDate, endDate);
+        return ResponseEntity.ok(totals);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Meal> getMeal(@PathVariable Long id) {
         Meal meal = mealService.getMealById(id);
@@ -0,0 +1,49 @@
+package com.nutrition.tracker.controller;
+
+import com.nutrition.tracker.dto.MealCopyRequest;
+import com.nutrition.tracker.dto.MealTemplateRequest;
+import com.nutrition.tracker.dto.MealView;
+import com.nutrition.tracker.entity.MealTemplate;
+import com.nutrition.tracker.service.MealService;
+import com.nutrition.tracker.service.MealTemplateService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/meal-templates")
+public class MealTemplateController {
+
+    @Autowired
+    private MealTemplateService mealTemplateService;
+
+    @Autowired
+    private MealService mealService;
+
+    @PostMapping
+    public ResponseEntity<MealTemplate> createTemplate(@Valid @RequestBody MealTemplateRequest request) {
+        MealTemplate template = mealTemplateService.createTemplate(request);
+        return ResponseEntity.ok(template);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<MealTemplate>> getTemplates() {
+        List<MealTemplate> templates = mealTemplateService.getTemplates();
+        return ResponseEntity.ok(templates);
+    }
+
+    @PostMapping("/{id}/apply")
+    public ResponseEntity<List<MealView>> applyTemplate(@PathVariable Long id,
+                                                        @Valid @RequestBody MealCopyRequest request) {
+        List<MealView> meals = mealService.applyTemplate(id, request.getStartDate(), request.getEndDate());
+        return ResponseEntity.ok(meals);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable Long id) {
+        mealTemplateService.deleteTemplate(id);
+        return ResponseEntity.noContent().build();
+    }
+}
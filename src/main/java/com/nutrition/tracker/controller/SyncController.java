@@ -0,0 +1,21 @@
+package com.nutrition.tracker.controller;
+
+import com.nutrition.tracker.dto.SyncResponse;
+import com.nutrition.tracker.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<SyncResponse> sync(@RequestParam(required = false) String token) {
+        SyncResponse response = syncService.getChanges(token);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,64 @@
+package com.nutrition.tracker.controller;
+
+import com.nutrition.tracker.dto.AdminTrendReport;
+import com.nutrition.tracker.dto.Nutrient;
+import com.nutrition.tracker.dto.TrendPoint;
+import com.nutrition.tracker.dto.TrendStatistics;
+import com.nutrition.tracker.service.TrendSeries;
+import com.nutrition.tracker.service.TrendService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class TrendController {
+
+    @Autowired
+    private TrendService trendService;
+
+    @GetMapping("/trends/series")
+    public ResponseEntity<List<TrendPoint>> getSeries(
+            @RequestParam(defaultValue = "CALORIES") Nutrient nutrient,
+            @RequestParam(defaultValue = "DAY") TrendSeries.Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<TrendPoint> points = trendService.getSeries(nutrient, granularity, startDate, endDate);
+        return ResponseEntity.ok(points);
+    }
+
+    @GetMapping("/trends/moving-average")
+    public ResponseEntity<List<TrendPoint>> getMovingAverage(
+            @RequestParam(defaultValue = "CALORIES") Nutrient nutrient,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "7") int window) {
+        List<TrendPoint> points = trendService.getMovingAverage(nutrient, startDate, endDate, window);
+        return ResponseEntity.ok(points);
+    }
+
+    @GetMapping("/trends/statistics")
+    public ResponseEntity<TrendStatistics> getStatistics(
+            @RequestParam(defaultValue = "CALORIES") Nutrient nutrient,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "50,90") double[] percentiles,
+            @RequestParam(defaultValue = "0.1") double tolerance) {
+        TrendStatistics statistics = trendService.getStatistics(nutrient, startDate, endDate, percentiles, tolerance);
+        return ResponseEntity.ok(statistics);
+    }
+
+    @GetMapping("/admin/trends/report")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminTrendReport> getAdminReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0.1") double tolerance) {
+        AdminTrendReport report = trendService.getAdminReport(startDate, endDate, tolerance);
+        return ResponseEntity.ok(report);
+    }
+}
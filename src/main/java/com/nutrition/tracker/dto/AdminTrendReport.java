@@ -0,0 +1,21 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminTrendReport {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int users;
+    private int usersWithData;
+    private int usersWithGoal;
+    private Double averageDailyCalories;
+    private Double averageGoalAdherence;
+    // Users per adherence decile: index 0 is [0%, 10%), index 9 is [90%, 100%]
+    private int[] adherenceHistogram;
+}
@@ -0,0 +1,27 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.entity.Meal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNutritionSummary {
+    private LocalDate date;
+    private NutritionTotals totals = new NutritionTotals();
+    private Map<Meal.MealType, NutritionTotals> mealTypes = new EnumMap<>(Meal.MealType.class);
+
+    public DailyNutritionSummary(LocalDate date) {
+        this.date = date;
+    }
+
+    public void addMealType(Meal.MealType mealType, NutritionTotals mealTypeTotals) {
+        mealTypes.put(mealType, mealTypeTotals);
+        totals.add(mealTypeTotals);
+    }
+}
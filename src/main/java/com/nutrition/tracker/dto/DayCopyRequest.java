@@ -0,0 +1,20 @@
+package com.nutrition.tracker.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * Copies all meals of {@code sourceDate} onto each date from {@code startDate} to {@code endDate}.
+ */
+@Data
+public class DayCopyRequest {
+
+    @NotNull(message = "Source date is required")
+    private LocalDate sourceDate;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+}
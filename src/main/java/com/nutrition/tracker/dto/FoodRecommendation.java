@@ -0,0 +1,25 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A catalog food with its nutrients per serving and how well one serving fits the remaining budget.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodRecommendation {
+    private Long foodId;
+    private String name;
+    private String brand;
+    private Double servingSize;
+    private String servingUnit;
+    private double calories;
+    private double protein;
+    private double carbohydrates;
+    private double fat;
+    // Weighted squared gap to the remaining budget after one serving; lower fits better
+    private double score;
+}
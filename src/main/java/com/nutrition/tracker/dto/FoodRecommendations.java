@@ -0,0 +1,20 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * What is left of today's calorie goal and its macro split, and the foods that best fill it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodRecommendations {
+    private double remainingCalories;
+    private double remainingProtein;
+    private double remainingCarbohydrates;
+    private double remainingFat;
+    private List<FoodRecommendation> foods;
+}
@@ -0,0 +1,28 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.entity.Food;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Foods to offer before any search: the user's most recently used and most frequently used foods.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodShortcuts {
+    // Most recent first
+    private List<Food> recent;
+    // Most used first
+    private List<FrequentFood> frequent;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FrequentFood {
+        private Food food;
+        private long uses;
+    }
+}
@@ -0,0 +1,16 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadResponse {
+    private String hash;
+    private String key;
+    // Variant name (original, small, medium, large) -> URL relative to the API base
+    private Map<String, String> urls;
+}
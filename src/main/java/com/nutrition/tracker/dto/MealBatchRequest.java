@@ -0,0 +1,41 @@
+package com.nutrition.tracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class MealBatchRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 500, message = "At most 500 operations per batch")
+    @Valid
+    private List<Operation> operations;
+
+    public enum OperationType {
+        CREATE,
+        DELETE
+    }
+
+    @Data
+    public static class Operation {
+        @NotNull(message = "Operation type is required")
+        private OperationType type;
+
+        // Client-generated meal id. CREATE stores it on the meal; DELETE finds the meal by it unless mealId is set
+        @NotBlank(message = "Client ID is required")
+        @Size(max = 64, message = "Client ID must be at most 64 characters")
+        private String clientId;
+
+        // Server id of the meal to delete, for meals created before the client assigned ids
+        private Long mealId;
+
+        // Required for CREATE
+        @Valid
+        private MealRequest meal;
+    }
+}
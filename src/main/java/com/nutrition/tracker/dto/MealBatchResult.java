@@ -0,0 +1,30 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.entity.Meal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealBatchResult {
+
+    public enum Status {
+        CREATED,
+        DELETED,
+        // The meal with this client ID already exists, e.g. from an earlier attempt of the same batch
+        ALREADY_APPLIED,
+        // Nothing to delete; also what a retried delete sees
+        NOT_FOUND,
+        // The operation was invalid and skipped; the others were still applied
+        REJECTED
+    }
+
+    private String clientId;
+    private MealBatchRequest.OperationType type;
+    private Status status;
+    private Long mealId;
+    private Meal meal;
+    private String error;
+}
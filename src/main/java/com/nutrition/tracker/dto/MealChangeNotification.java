@@ -0,0 +1,23 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.event.MealChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Pushed to a user's open event streams after a meal change commits.
+ * {@code dayTotals} is read after the commit, so clients can replace their day totals with it
+ * instead of applying deltas that may arrive out of order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealChangeNotification {
+    private MealChangedEvent.ChangeType type;
+    private Long mealId;
+    private LocalDate mealDate;
+    private NutritionTotals delta;
+    private NutritionTotals dayTotals;
+}
@@ -0,0 +1,17 @@
+package com.nutrition.tracker.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * Target dates of a meal copy or template application. Without an end date only the start date is used.
+ */
+@Data
+public class MealCopyRequest {
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+}
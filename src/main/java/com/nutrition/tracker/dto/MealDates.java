@@ -0,0 +1,25 @@
+package com.nutrition.tracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The window of dates a meal may be logged on. Per-user trend series hold one array slot per day
+ * between a user's first and last meal, so a meal dated centuries away would make them huge.
+ */
+public final class MealDates {
+
+    public static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+
+    public static final String MESSAGE = "Meal date must be between 1900-01-01 and one year from today";
+
+    private MealDates() {
+    }
+
+    public static LocalDate latest() {
+        return LocalDate.now().plusYears(1);
+    }
+
+    public static boolean isAllowed(LocalDate date) {
+        return date != null && !date.isBefore(EARLIEST) && !date.isAfter(latest());
+    }
+}
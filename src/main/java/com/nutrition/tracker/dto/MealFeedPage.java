@@ -0,0 +1,15 @@
+package com.nutrition.tracker.dto;
+
+import lombok.Value;
+import java.util.List;
+
+/**
+ * One page of the meal history feed, newest first. {@code nextCursor} is null on the last page;
+ * {@code totals} sums the nutrients of this page's meals and is only filled in when requested.
+ */
+@Value
+public class MealFeedPage {
+    List<MealView> meals;
+    String nextCursor;
+    NutritionTotals totals;
+}
@@ -0,0 +1,19 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Pushed to a user's open event streams after a chunk of an import commits, in place of one
+ * {@link MealChangeNotification} per meal. Clients reload the totals of the date range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealImportNotification {
+    private int mealCount;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+}
@@ -0,0 +1,33 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealImportStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private State state;
+    private long totalBytes;
+    private long bytesRead;
+    private long linesRead;
+    private long mealsImported;
+    private long itemsImported;
+    private long rowsRejected;
+    // First few rejection reasons, each prefixed with its line number
+    private List<String> errors;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -1,6 +1,9 @@
 package com.nutrition.tracker.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.nutrition.tracker.entity.Meal;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import java.time.LocalDate;
@@ -17,8 +20,15 @@ public class MealRequest {
 
     private String notes;
 
+    @Valid
     private List<MealFoodRequest> foods;
 
+    @JsonIgnore
+    @AssertTrue(message = MealDates.MESSAGE)
+    public boolean isMealDateInRange() {
+        return mealDate == null || MealDates.isAllowed(mealDate);
+    }
+
     @Data
     public static class MealFoodRequest {
         @NotNull(message = "Food ID is required")
@@ -0,0 +1,20 @@
+package com.nutrition.tracker.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Saves an existing meal's type, notes and items as a named template.
+ */
+@Data
+public class MealTemplateRequest {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 255)
+    private String name;
+
+    @NotNull(message = "Meal ID is required")
+    private Long mealId;
+}
@@ -0,0 +1,29 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.entity.Meal;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * One row of the per-day, per-meal-type aggregate query. Built by a JPQL constructor expression,
+ * so no entities are hydrated.
+ */
+@Data
+public class MealTypeNutritionRow {
+    private final LocalDate mealDate;
+    private final Meal.MealType mealType;
+    private final NutritionTotals totals;
+
+    public MealTypeNutritionRow(LocalDate mealDate, Meal.MealType mealType,
+                                Double calories, Double protein, Double carbohydrates, Double fat,
+                                Double fiber, Double sugar, Double sodium) {
+        this.mealDate = mealDate;
+        this.mealType = mealType;
+        this.totals = new NutritionTotals(valueOf(calories), valueOf(protein), valueOf(carbohydrates),
+                valueOf(fat), valueOf(fiber), valueOf(sugar), valueOf(sodium));
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.entity.Meal;
+import lombok.Value;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable read model of a meal, serialized exactly like the {@link Meal} entity.
+ * Built from flat query rows rather than managed entities, so nothing is tracked by the
+ * persistence context and no lazy proxies reach the serializer.
+ */
+@Value
+public class MealView {
+    Long id;
+    Meal.MealType mealType;
+    LocalDate mealDate;
+    String notes;
+    String clientId;
+    List<MealFoodView> mealFoods;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    @Value
+    public static class MealFoodView {
+        Long id;
+        FoodView food;
+        Double quantity;
+        String quantityUnit;
+        Double servings;
+        Double calories;
+        Double protein;
+        Double carbohydrates;
+        Double fat;
+        Double fiber;
+        Double sugar;
+        Double sodium;
+    }
+
+    @Value
+    public static class FoodView {
+        Long id;
+        String name;
+        String description;
+        String barcode;
+        String fdcId;
+        String brand;
+        Double servingSize;
+        String servingUnit;
+        Double calories;
+        Double protein;
+        Double carbohydrates;
+        Double fat;
+        Double fiber;
+        Double sugar;
+        Double sodium;
+        Double cholesterol;
+        String imageUrl;
+        Food.FoodSource source;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+    }
+}
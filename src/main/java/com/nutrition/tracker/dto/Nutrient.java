@@ -0,0 +1,26 @@
+package com.nutrition.tracker.dto;
+
+/**
+ * Nutrients tracked in totals and trends. The ordinal is the row index into trend series arrays.
+ */
+public enum Nutrient {
+    CALORIES,
+    PROTEIN,
+    CARBOHYDRATES,
+    FAT,
+    FIBER,
+    SUGAR,
+    SODIUM;
+
+    public double valueOf(NutritionTotals totals) {
+        return switch (this) {
+            case CALORIES -> totals.getCalories();
+            case PROTEIN -> totals.getProtein();
+            case CARBOHYDRATES -> totals.getCarbohydrates();
+            case FAT -> totals.getFat();
+            case FIBER -> totals.getFiber();
+            case SUGAR -> totals.getSugar();
+            case SODIUM -> totals.getSodium();
+        };
+    }
+}
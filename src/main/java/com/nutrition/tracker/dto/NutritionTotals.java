@@ -0,0 +1,70 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.entity.Food;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summed nutrient values, scaled by servings the same way the dashboard does (nutrient * servings).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NutritionTotals {
+    private double calories;
+    private double protein;
+    private double carbohydrates;
+    private double fat;
+    private double fiber;
+    private double sugar;
+    private double sodium;
+
+    /**
+     * Nutrients contributed by one meal item.
+     */
+    public static NutritionTotals of(Food food, Double servings) {
+        double factor = servings != null ? servings : 1.0;
+        return new NutritionTotals(
+                valueOf(food.getCalories()) * factor,
+                valueOf(food.getProtein()) * factor,
+                valueOf(food.getCarbohydrates()) * factor,
+                valueOf(food.getFat()) * factor,
+                valueOf(food.getFiber()) * factor,
+                valueOf(food.getSugar()) * factor,
+                valueOf(food.getSodium()) * factor);
+    }
+
+    /**
+     * Nutrients contributed by one meal item read as a {@link MealView}.
+     */
+    public static NutritionTotals of(MealView.FoodView food, Double servings) {
+        double factor = servings != null ? servings : 1.0;
+        return new NutritionTotals(
+                valueOf(food.getCalories()) * factor,
+                valueOf(food.getProtein()) * factor,
+                valueOf(food.getCarbohydrates()) * factor,
+                valueOf(food.getFat()) * factor,
+                valueOf(food.getFiber()) * factor,
+                valueOf(food.getSugar()) * factor,
+                valueOf(food.getSodium()) * factor);
+    }
+
+    public NutritionTotals negate() {
+        return new NutritionTotals(-calories, -protein, -carbohydrates, -fat, -fiber, -sugar, -sodium);
+    }
+
+    public void add(NutritionTotals other) {
+        calories += other.calories;
+        protein += other.protein;
+        carbohydrates += other.carbohydrates;
+        fat += other.fat;
+        fiber += other.fiber;
+        sugar += other.sugar;
+        sodium += other.sodium;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.nutrition.tracker.dto;
+
+import com.nutrition.tracker.entity.Food;
+import lombok.Value;
+import java.util.List;
+
+/**
+ * Changes since the client's sync token. Send {@code token} with the next request; while
+ * {@code hasMore} is true there are further changes to fetch right away.
+ */
+@Value
+public class SyncResponse {
+    String token;
+    List<MealView> meals;
+    List<Long> deletedMealIds;
+    List<Food> foods;
+    boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendPoint {
+    // First day of the bucket (the day itself, the week's Monday or the 1st of the month)
+    private LocalDate date;
+    private double total;
+    // Per logged day; for moving averages, the average over the trailing window
+    private double average;
+    private int loggedDays;
+}
@@ -0,0 +1,23 @@
+package com.nutrition.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendStatistics {
+    private Nutrient nutrient;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int loggedDays;
+    private Double mean;
+    // Requested percentile (e.g. "p90") -> value over logged days
+    private Map<String, Double> percentiles;
+    private Integer dailyCalorieGoal;
+    // Share of logged days within the goal tolerance; null without a goal or logged days
+    private Double goalAdherence;
+}
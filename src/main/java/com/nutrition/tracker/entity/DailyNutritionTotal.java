@@ -0,0 +1,64 @@
+package com.nutrition.tracker.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Running nutrient totals for one user and day.
+ * Maintained by deltas in the same transaction as meal writes, and rebuilt from meals by
+ * {@link com.nutrition.tracker.service.DailyNutritionTotalService} to repair any drift.
+ */
+@Entity
+@Table(name = "daily_nutrition_totals")
+@IdClass(DailyNutritionTotal.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNutritionTotal {
+
+    @Id
+    @Column(name = "user_id")
+    @JsonIgnore
+    private Long userId;
+
+    @Id
+    @Column(name = "total_date")
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Double calories;
+
+    @Column(nullable = false)
+    private Double protein;
+
+    @Column(nullable = false)
+    private Double carbohydrates;
+
+    @Column(nullable = false)
+    private Double fat;
+
+    @Column(nullable = false)
+    private Double fiber;
+
+    @Column(nullable = false)
+    private Double sugar;
+
+    @Column(nullable = false)
+    private Double sodium;
+
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate date;
+    }
+}
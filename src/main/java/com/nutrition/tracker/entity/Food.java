@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "foods")
+@Table(name = "foods", indexes = @Index(name = "idx_foods_name", columnList = "name"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,7 +11,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "meals")
+@Table(name = "meals",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "client_id"}),
+        indexes = @Index(name = "idx_meals_user_date_id", columnList = "user_id, meal_date, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,6 +37,19 @@ public class Meal {
 
     private String notes;
 
+    // Id assigned by an offline client; makes replayed creates idempotent per user
+    @Column(name = "client_id", length = 64)
+    private String clientId;
+
+    // Meal or template this meal was copied from; links copied rows to their items during a copy
+    @Column(name = "source_meal_id")
+    @JsonIgnore
+    private Long sourceMealId;
+
+    @Column(name = "source_template_id")
+    @JsonIgnore
+    private Long sourceTemplateId;
+
     @OneToMany(mappedBy = "meal", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MealFood> mealFoods = new ArrayList<>();
 
@@ -32,4 +32,20 @@ public class MealFood {
     private String quantityUnit;
 
     private Double servings;
+
+    // Food nutrients scaled by servings, captured when the item is written so that later food
+    // corrections do not rewrite history. Null only on rows the snapshot backfill has not reached.
+    private Double calories;
+
+    private Double protein;
+
+    private Double carbohydrates;
+
+    private Double fat;
+
+    private Double fiber;
+
+    private Double sugar;
+
+    private Double sodium;
 }
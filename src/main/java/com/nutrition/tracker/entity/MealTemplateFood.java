@@ -0,0 +1,35 @@
+package com.nutrition.tracker.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "meal_template_foods")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealTemplateFood {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id", nullable = false)
+    @JsonIgnore
+    private MealTemplate template;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_id", nullable = false)
+    private Food food;
+
+    @Column(nullable = false)
+    private Double quantity;
+
+    private String quantityUnit;
+
+    private Double servings;
+}
@@ -0,0 +1,38 @@
+package com.nutrition.tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Reference-counted record of a content-addressed upload.
+ * The SHA-256 of the file content is the primary key, so identical uploads share one row and one file on disk.
+ */
+@Entity
+@Table(name = "stored_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private String contentType;
+
+    private Long size;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
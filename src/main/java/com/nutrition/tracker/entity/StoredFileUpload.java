@@ -0,0 +1,42 @@
+package com.nutrition.tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One user's upload of a stored file. Each row accounts for one of the file's references,
+ * so a user can only release references they created.
+ */
+@Entity
+@Table(name = "stored_file_uploads", indexes = {
+        @Index(name = "idx_stored_file_uploads_user_hash", columnList = "user_id, hash")
+})
+@Data
+@NoArgsConstructor
+public class StoredFileUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public StoredFileUpload(Long userId, String hash) {
+        this.userId = userId;
+        this.hash = hash;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,52 @@
+package com.nutrition.tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a change log read by delta sync clients.
+ * Each stream, a user's meals or the shared food catalog, numbers its changes with its own
+ * {@link SyncVersion}; a deleted entity leaves a tombstone entry.
+ */
+@Entity
+@Table(name = "sync_changes",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"stream_id", "seq"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChange {
+
+    // Stream of the food catalog; user streams use the user id
+    public static final long CATALOG_STREAM = 0L;
+
+    public enum EntityType {
+        MEAL,
+        FOOD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stream_id", nullable = false)
+    private Long streamId;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Boolean deleted;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
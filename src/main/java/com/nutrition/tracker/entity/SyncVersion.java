@@ -0,0 +1,26 @@
+package com.nutrition.tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latest change sequence number of one sync stream.
+ * Incremented inside the transaction that records the change, so the row lock orders a stream's
+ * commits by sequence number: a client never sees seq n+1 committed while n is still pending.
+ */
+@Entity
+@Table(name = "sync_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncVersion {
+
+    @Id
+    @Column(name = "stream_id")
+    private Long streamId;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,15 @@
+package com.nutrition.tracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by {@link com.nutrition.tracker.service.FileStorageService} when an upload is stored.
+ * Listeners that do follow-up work should bind to the transaction commit.
+ */
+@Data
+@AllArgsConstructor
+public class FileStoredEvent {
+    private String key;
+    private String contentType;
+}
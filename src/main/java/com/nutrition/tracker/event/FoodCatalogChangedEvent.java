@@ -0,0 +1,13 @@
+package com.nutrition.tracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by {@link com.nutrition.tracker.service.FoodService} whenever a food is saved.
+ */
+@Data
+@AllArgsConstructor
+public class FoodCatalogChangedEvent {
+    private Long foodId;
+}
@@ -0,0 +1,33 @@
+package com.nutrition.tracker.event;
+
+import com.nutrition.tracker.dto.NutritionTotals;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by {@link com.nutrition.tracker.service.MealService} for every meal written or removed.
+ * Listeners keeping in-memory state should bind to the transaction commit so rolled back
+ * changes are never observed.
+ */
+@Data
+@AllArgsConstructor
+public class MealChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        DELETED
+    }
+
+    private ChangeType type;
+    private Long userId;
+    private String username;
+    private Long mealId;
+    private LocalDate mealDate;
+    // Signed nutrient change for the day: positive for creates, negative for deletes
+    private NutritionTotals delta;
+    private List<Long> foodIds;
+    // Written by a bulk import, which also publishes one MealsImportedEvent per chunk
+    private boolean imported;
+}
@@ -0,0 +1,19 @@
+package com.nutrition.tracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * Published by {@link com.nutrition.tracker.service.MealService} once per imported chunk, in addition
+ * to the per-meal {@link MealChangedEvent}s, so event streams can send one summary instead of one
+ * update per meal.
+ */
+@Data
+@AllArgsConstructor
+public class MealsImportedEvent {
+    private Long userId;
+    private int mealCount;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+}
@@ -0,0 +1,19 @@
+package com.nutrition.tracker.exception;
+
+/**
+ * Thrown when a request is refused to protect the server, e.g. during login bursts.
+ * Answered with 429 and a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,79 @@
+package com.nutrition.tracker.repository;
+
+import com.nutrition.tracker.entity.DailyNutritionTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyNutritionTotalRepository extends JpaRepository<DailyNutritionTotal, DailyNutritionTotal.Key> {
+
+    List<DailyNutritionTotal> findByUserIdAndDateBetweenOrderByDate(Long userId, LocalDate startDate, LocalDate endDate);
+
+    List<DailyNutritionTotal> findByUserIdOrderByDate(Long userId);
+
+    /**
+     * The users' daily calories in the range, as {@code [Long userId, LocalDate date, Double calories]}
+     * rows ordered by user and date.
+     */
+    @Query("SELECT t.userId, t.date, t.calories FROM DailyNutritionTotal t " +
+           "WHERE t.userId IN :userIds AND t.date BETWEEN :startDate AND :endDate ORDER BY t.userId, t.date")
+    List<Object[]> findCaloriesByUserIdInAndDateBetween(@Param("userIds") List<Long> userIds,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+
+    /**
+     * Users with meals but no totals rows at all, i.e. whose history predates the table.
+     */
+    @Query(value = "SELECT DISTINCT m.user_id FROM meals m WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM daily_nutrition_totals t WHERE t.user_id = m.user_id)", nativeQuery = true)
+    List<Long> findUserIdsWithoutTotals();
+
+    /**
+     * Adds a delta to the day's totals, creating the row on first use. Negative deltas subtract.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_nutrition_totals " +
+                   "(user_id, total_date, calories, protein, carbohydrates, fat, fiber, sugar, sodium, updated_at) " +
+                   "VALUES (:userId, :date, :calories, :protein, :carbohydrates, :fat, :fiber, :sugar, :sodium, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE calories = calories + :calories, protein = protein + :protein, " +
+                   "carbohydrates = carbohydrates + :carbohydrates, fat = fat + :fat, fiber = fiber + :fiber, " +
+                   "sugar = sugar + :sugar, sodium = sodium + :sodium, updated_at = NOW()", nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("date") LocalDate date,
+                   @Param("calories") double calories, @Param("protein") double protein,
+                   @Param("carbohydrates") double carbohydrates, @Param("fat") double fat,
+                   @Param("fiber") double fiber, @Param("sugar") double sugar, @Param("sodium") double sodium);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_nutrition_totals " +
+                   "WHERE user_id = :userId AND total_date BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int deleteRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+                    @Param("endDate") LocalDate endDate);
+
+    /**
+     * Recomputes the user's totals for the range from the items' nutrient snapshots in one
+     * INSERT ... SELECT. Items without a snapshot fall back to the food's current values times
+     * servings, as in {@code NutritionTotals.of}.
+     * Call after {@link #deleteRange} in the same transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_nutrition_totals " +
+                   "(user_id, total_date, calories, protein, carbohydrates, fat, fiber, sugar, sodium, updated_at) " +
+                   "SELECT m.user_id, m.meal_date, " +
+                   "SUM(COALESCE(mf.calories, f.calories * COALESCE(mf.servings, 1), 0)), " +
+                   "SUM(COALESCE(mf.protein, f.protein * COALESCE(mf.servings, 1), 0)), " +
+                   "SUM(COALESCE(mf.carbohydrates, f.carbohydrates * COALESCE(mf.servings, 1), 0)), " +
+                   "SUM(COALESCE(mf.fat, f.fat * COALESCE(mf.servings, 1), 0)), " +
+                   "SUM(COALESCE(mf.fiber, f.fiber * COALESCE(mf.servings, 1), 0)), " +
+                   "SUM(COALESCE(mf.sugar, f.sugar * COALESCE(mf.servings, 1), 0)), " +
+                   "SUM(COALESCE(mf.sodium, f.sodium * COALESCE(mf.servings, 1), 0)), NOW() " +
+                   "FROM meals m JOIN meal_foods mf ON mf.meal_id = m.id JOIN foods f ON f.id = mf.food_id " +
+                   "WHERE m.user_id = :userId AND m.meal_date BETWEEN :startDate AND :endDate " +
+                   "GROUP BY m.user_id, m.meal_date", nativeQuery = true)
+    int rebuildRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate);
+}
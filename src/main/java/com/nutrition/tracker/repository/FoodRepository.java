@@ -2,7 +2,9 @@ package com.nutrition.tracker.repository;
 
 import com.nutrition.tracker.entity.Food;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +18,19 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
     List<Food> findByNameContainingIgnoreCase(String name);
 
     List<Food> findBySource(Food.FoodSource source);
+
+    /**
+     * Foods whose name is one of {@code names}, oldest first. Matching is case-insensitive through
+     * the column's collation (MySQL's default utf8mb4 collation is), so the lookup can use the index
+     * on {@code foods.name}, which a {@code LOWER(name)} comparison could not.
+     */
+    List<Food> findByNameInOrderById(Collection<String> names);
+
+    /**
+     * The whole catalog as scalar rows for {@link com.nutrition.tracker.service.FoodMatrix}: id, name,
+     * brand, serving size, serving unit, calories, protein, carbohydrates, fat.
+     */
+    @Query("SELECT f.id, f.name, f.brand, f.servingSize, f.servingUnit, " +
+           "f.calories, f.protein, f.carbohydrates, f.fat FROM Food f ORDER BY f.id")
+    List<Object[]> findCatalogRows();
 }
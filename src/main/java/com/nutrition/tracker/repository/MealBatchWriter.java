@@ -0,0 +1,114 @@
+package com.nutrition.tracker.repository;
+
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.entity.MealFood;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Inserts meals and meal items with one JDBC batch per table.
+ * Meal and MealFood ids are IDENTITY columns, which stops Hibernate from batching inserts; going
+ * through JDBC directly, and with {@code rewriteBatchedStatements=true} on the MySQL URL, each batch
+ * is sent as a single multi-row INSERT regardless of its size.
+ * Rows are written on the connection of the current transaction and never enter the persistence
+ * context, so the entities passed in stay unmanaged.
+ */
+@Repository
+public class MealBatchWriter {
+
+    private static final String INSERT_MEAL_SQL =
+            "INSERT INTO meals (user_id, meal_type, meal_date, notes, client_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MEAL_FOOD_SQL =
+            "INSERT INTO meal_foods (meal_id, food_id, quantity, quantity_unit, servings, " +
+            "calories, protein, carbohydrates, fat, fiber, sugar, sodium) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the meals, whose users must be persisted, and sets their ids and timestamps.
+     */
+    public void insertMeals(List<Meal> meals) {
+        LocalDateTime now = LocalDateTime.now();
+        executeBatch(INSERT_MEAL_SQL, meals, (statement, meal) -> {
+            meal.setCreatedAt(now);
+            meal.setUpdatedAt(now);
+            statement.setLong(1, meal.getUser().getId());
+            statement.setString(2, meal.getMealType().name());
+            statement.setDate(3, Date.valueOf(meal.getMealDate()));
+            statement.setString(4, meal.getNotes());
+            statement.setString(5, meal.getClientId());
+            statement.setTimestamp(6, Timestamp.valueOf(now));
+            statement.setTimestamp(7, Timestamp.valueOf(now));
+        }, Meal::setId);
+    }
+
+    /**
+     * Inserts the items, which must reference inserted meals and persisted foods and carry their
+     * nutrient snapshot, and sets their ids.
+     */
+    public void insertMealFoods(List<MealFood> mealFoods) {
+        executeBatch(INSERT_MEAL_FOOD_SQL, mealFoods, (statement, mealFood) -> {
+            statement.setLong(1, mealFood.getMeal().getId());
+            statement.setLong(2, mealFood.getFood().getId());
+            statement.setDouble(3, mealFood.getQuantity());
+            statement.setString(4, mealFood.getQuantityUnit());
+            if (mealFood.getServings() != null) {
+                statement.setDouble(5, mealFood.getServings());
+            } else {
+                statement.setNull(5, Types.DOUBLE);
+            }
+            statement.setDouble(6, mealFood.getCalories());
+            statement.setDouble(7, mealFood.getProtein());
+            statement.setDouble(8, mealFood.getCarbohydrates());
+            statement.setDouble(9, mealFood.getFat());
+            statement.setDouble(10, mealFood.getFiber());
+            statement.setDouble(11, mealFood.getSugar());
+            statement.setDouble(12, mealFood.getSodium());
+        }, MealFood::setId);
+    }
+
+    private <T> void executeBatch(String sql, List<T> rows, RowBinder<T> binder, BiConsumer<T, Long> idSetter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (T row : rows) {
+                    binder.bind(statement, row);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                // Keys come back in insertion order, also for a rewritten multi-row INSERT
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; i < rows.size() && keys.next(); i++) {
+                        idSetter.accept(rows.get(i), keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+}
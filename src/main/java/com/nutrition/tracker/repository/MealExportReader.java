@@ -0,0 +1,86 @@
+package com.nutrition.tracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Reads a user's whole meal history, one meal item per row, as a forward-only stream.
+ * With a fetch size of {@link Integer#MIN_VALUE} MySQL Connector/J hands rows over as they arrive
+ * instead of buffering the result, and nothing enters a persistence context, so memory stays
+ * constant however long the history is. Rows come oldest meal first; meals without items yield one
+ * row with null item columns.
+ */
+@Repository
+public class MealExportReader {
+
+    private static final String EXPORT_SQL =
+            "SELECT m.id, m.meal_date, m.meal_type, m.notes, f.id, f.name, f.brand, " +
+            "mf.quantity, mf.quantity_unit, mf.servings, " +
+            "COALESCE(mf.calories, f.calories * COALESCE(mf.servings, 1)), " +
+            "COALESCE(mf.protein, f.protein * COALESCE(mf.servings, 1)), " +
+            "COALESCE(mf.carbohydrates, f.carbohydrates * COALESCE(mf.servings, 1)), " +
+            "COALESCE(mf.fat, f.fat * COALESCE(mf.servings, 1)), " +
+            "COALESCE(mf.fiber, f.fiber * COALESCE(mf.servings, 1)), " +
+            "COALESCE(mf.sugar, f.sugar * COALESCE(mf.servings, 1)), " +
+            "COALESCE(mf.sodium, f.sodium * COALESCE(mf.servings, 1)) " +
+            "FROM meals m " +
+            "LEFT JOIN meal_foods mf ON mf.meal_id = m.id " +
+            "LEFT JOIN foods f ON f.id = mf.food_id " +
+            "WHERE m.user_id = ? " +
+            "ORDER BY m.meal_date, m.id, mf.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Passes every row to {@code consumer} while the result is still being read. The consumer must
+     * not use the database: the connection is busy until the last row has been read.
+     */
+    public void forEachRow(Long userId, Consumer<ExportRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, userId);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(map(resultSet)));
+    }
+
+    private static ExportRow map(ResultSet rs) throws SQLException {
+        return new ExportRow(
+                rs.getLong(1),
+                rs.getObject(2, LocalDate.class),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getObject(5, Long.class),
+                rs.getString(6),
+                rs.getString(7),
+                rs.getObject(8, Double.class),
+                rs.getString(9),
+                rs.getObject(10, Double.class),
+                rs.getObject(11, Double.class),
+                rs.getObject(12, Double.class),
+                rs.getObject(13, Double.class),
+                rs.getObject(14, Double.class),
+                rs.getObject(15, Double.class),
+                rs.getObject(16, Double.class),
+                rs.getObject(17, Double.class));
+    }
+
+    /**
+     * One meal item with the nutrients it contributed; item fields are null for an empty meal.
+     */
+    public record ExportRow(long mealId, LocalDate mealDate, String mealType, String notes,
+                            Long foodId, String foodName, String brand,
+                            Double quantity, String quantityUnit, Double servings,
+                            Double calories, Double protein, Double carbohydrates, Double fat,
+                            Double fiber, Double sugar, Double sodium) {
+    }
+}
@@ -2,7 +2,11 @@ package com.nutrition.tracker.repository;
 
 import com.nutrition.tracker.entity.Meal;
 import com.nutrition.tracker.entity.MealFood;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -12,4 +16,37 @@ public interface MealFoodRepository extends JpaRepository<MealFood, Long> {
     List<MealFood> findByMeal(Meal meal);
 
     void deleteByMeal(Meal meal);
+
+    /**
+     * Food ids of the user's latest items, newest first, repeating foods used more than once.
+     */
+    @Query("SELECT mf.food.id FROM MealFood mf JOIN mf.meal m WHERE m.user.id = :userId " +
+           "ORDER BY m.mealDate DESC, m.id DESC, mf.id DESC")
+    List<Long> findRecentFoodIds(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Rows of food id and number of items using it for the user, most used first.
+     */
+    @Query("SELECT mf.food.id, COUNT(mf) FROM MealFood mf JOIN mf.meal m WHERE m.user.id = :userId " +
+           "GROUP BY mf.food.id ORDER BY COUNT(mf) DESC, mf.food.id")
+    List<Object[]> countFoodUses(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM meal_foods", nativeQuery = true)
+    long findMaxId();
+
+    /**
+     * Fills the nutrient snapshot of items in the id range {@code (afterId, toId]} that have none,
+     * from their food's current values.
+     */
+    @Modifying
+    @Query(value = "UPDATE meal_foods mf JOIN foods f ON f.id = mf.food_id SET " +
+                   "mf.calories = COALESCE(f.calories, 0) * COALESCE(mf.servings, 1), " +
+                   "mf.protein = COALESCE(f.protein, 0) * COALESCE(mf.servings, 1), " +
+                   "mf.carbohydrates = COALESCE(f.carbohydrates, 0) * COALESCE(mf.servings, 1), " +
+                   "mf.fat = COALESCE(f.fat, 0) * COALESCE(mf.servings, 1), " +
+                   "mf.fiber = COALESCE(f.fiber, 0) * COALESCE(mf.servings, 1), " +
+                   "mf.sugar = COALESCE(f.sugar, 0) * COALESCE(mf.servings, 1), " +
+                   "mf.sodium = COALESCE(f.sodium, 0) * COALESCE(mf.servings, 1) " +
+                   "WHERE mf.id > :afterId AND mf.id <= :toId AND mf.calories IS NULL", nativeQuery = true)
+    int backfillSnapshots(@Param("afterId") long afterId, @Param("toId") long toId);
 }
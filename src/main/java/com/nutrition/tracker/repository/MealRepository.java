@@ -1,13 +1,18 @@
 package com.nutrition.tracker.repository;
 
+import com.nutrition.tracker.dto.MealTypeNutritionRow;
 import com.nutrition.tracker.entity.Meal;
 import com.nutrition.tracker.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MealRepository extends JpaRepository<Meal, Long> {
@@ -18,6 +23,25 @@ public interface MealRepository extends JpaRepository<Meal, Long> {
            "WHERE m.user = :user AND m.mealDate = :mealDate")
     List<Meal> findByUserAndMealDateWithFoods(@Param("user") User user, @Param("mealDate") LocalDate mealDate);
 
+    @Query("SELECT DISTINCT m FROM Meal m " +
+           "LEFT JOIN FETCH m.mealFoods mf " +
+           "LEFT JOIN FETCH mf.food " +
+           "WHERE m.id = :id")
+    Optional<Meal> findByIdWithFoods(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT m FROM Meal m " +
+           "LEFT JOIN FETCH m.mealFoods mf " +
+           "LEFT JOIN FETCH mf.food " +
+           "WHERE m.user = :user AND m.id IN :ids")
+    List<Meal> findByUserAndIdInWithFoods(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT m FROM Meal m " +
+           "LEFT JOIN FETCH m.mealFoods mf " +
+           "LEFT JOIN FETCH mf.food " +
+           "WHERE m.user = :user AND m.clientId IN :clientIds")
+    List<Meal> findByUserAndClientIdInWithFoods(@Param("user") User user,
+                                                @Param("clientIds") Collection<String> clientIds);
+
     @Query("SELECT DISTINCT m FROM Meal m " +
            "LEFT JOIN FETCH m.mealFoods mf " +
            "LEFT JOIN FETCH mf.food " +
@@ -26,11 +50,158 @@ public interface MealRepository extends JpaRepository<Meal, Long> {
                                                       @Param("startDate") LocalDate startDate,
                                                       @Param("endDate") LocalDate endDate);
 
+    /**
+     * One flat row per meal item (or per meal without items), for building
+     * {@link com.nutrition.tracker.dto.MealView}s. Columns: meal id, type, date, notes, client id,
+     * created, updated; item id, quantity, unit, servings; every food column in entity order; then
+     * the item's nutrient snapshot (calories, protein, carbohydrates, fat, fiber, sugar, sodium).
+     */
+    String FLAT_ROW_SELECT = "SELECT m.id, m.mealType, m.mealDate, m.notes, m.clientId, m.createdAt, m.updatedAt, " +
+           "mf.id, mf.quantity, mf.quantityUnit, mf.servings, " +
+           "f.id, f.name, f.description, f.barcode, f.fdcId, f.brand, f.servingSize, f.servingUnit, " +
+           "f.calories, f.protein, f.carbohydrates, f.fat, f.fiber, f.sugar, f.sodium, f.cholesterol, " +
+           "f.imageUrl, f.source, f.createdAt, f.updatedAt, " +
+           "mf.calories, mf.protein, mf.carbohydrates, mf.fat, mf.fiber, mf.sugar, mf.sodium " +
+           "FROM Meal m LEFT JOIN m.mealFoods mf LEFT JOIN mf.food f ";
+
+    @Query(FLAT_ROW_SELECT +
+           "WHERE m.user = :user AND m.mealDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY m.mealDate, m.id, mf.id")
+    List<Object[]> findFlatRowsByUserAndMealDateBetween(@Param("user") User user,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    @Query(FLAT_ROW_SELECT +
+           "WHERE m.id IN :ids " +
+           "ORDER BY m.mealDate DESC, m.id DESC, mf.id")
+    List<Object[]> findFlatRowsByIdInNewestFirst(@Param("ids") Collection<Long> ids);
+
+    /**
+     * First page of the history feed, newest first. Walks idx_meals_user_date_id backwards.
+     */
+    @Query("SELECT m.id FROM Meal m WHERE m.user = :user " +
+           "ORDER BY m.mealDate DESC, m.id DESC")
+    List<Long> findFeedIds(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Feed page after the keyset cursor {@code (mealDate, id)}: seeks straight to the position in
+     * idx_meals_user_date_id instead of skipping an offset, so every page costs the same.
+     */
+    @Query("SELECT m.id FROM Meal m WHERE m.user = :user " +
+           "AND (m.mealDate < :mealDate OR (m.mealDate = :mealDate AND m.id < :id)) " +
+           "ORDER BY m.mealDate DESC, m.id DESC")
+    List<Long> findFeedIdsBefore(@Param("user") User user,
+                                 @Param("mealDate") LocalDate mealDate,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    /**
+     * Sums the items' nutrient snapshots. Items without a snapshot fall back to the food's current
+     * values times servings, as in {@code NutritionTotals.of}.
+     */
+    @Query("SELECT new com.nutrition.tracker.dto.MealTypeNutritionRow(m.mealDate, m.mealType, " +
+           "SUM(COALESCE(mf.calories, f.calories * COALESCE(mf.servings, 1.0), 0.0)), " +
+           "SUM(COALESCE(mf.protein, f.protein * COALESCE(mf.servings, 1.0), 0.0)), " +
+           "SUM(COALESCE(mf.carbohydrates, f.carbohydrates * COALESCE(mf.servings, 1.0), 0.0)), " +
+           "SUM(COALESCE(mf.fat, f.fat * COALESCE(mf.servings, 1.0), 0.0)), " +
+           "SUM(COALESCE(mf.fiber, f.fiber * COALESCE(mf.servings, 1.0), 0.0)), " +
+           "SUM(COALESCE(mf.sugar, f.sugar * COALESCE(mf.servings, 1.0), 0.0)), " +
+           "SUM(COALESCE(mf.sodium, f.sodium * COALESCE(mf.servings, 1.0), 0.0))) " +
+           "FROM MealFood mf JOIN mf.meal m JOIN mf.food f " +
+           "WHERE m.user = :user AND m.mealDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY m.mealDate, m.mealType " +
+           "ORDER BY m.mealDate")
+    List<MealTypeNutritionRow> sumNutritionByDateAndMealType(@Param("user") User user,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Every date from :startDate to :endDate inclusive, for copying onto a range in one statement.
+     * Ranges must stay below MySQL's cte_max_recursion_depth (1000 by default).
+     */
+    String COPY_DATES = "WITH RECURSIVE copy_dates (copy_date) AS (" +
+           "SELECT CAST(:startDate AS DATE) UNION ALL " +
+           "SELECT CAST(copy_date AS DATE) + INTERVAL '1' DAY FROM copy_dates WHERE copy_date < :endDate) ";
+
+    /**
+     * Highest meal id of the user, read with a locking read so it reflects every committed copy.
+     * Meals copied afterwards in the same transaction are exactly those with a larger id.
+     */
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM meals WHERE user_id = :userId FOR SHARE", nativeQuery = true)
+    long findMaxIdForShare(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO meals (user_id, meal_type, meal_date, notes, source_meal_id, created_at, updated_at) " +
+                   COPY_DATES +
+                   "SELECT m.user_id, m.meal_type, d.copy_date, m.notes, m.id, NOW(), NOW() " +
+                   "FROM meals m CROSS JOIN copy_dates d " +
+                   "WHERE m.id = :mealId AND m.user_id = :userId " +
+                   "ORDER BY d.copy_date", nativeQuery = true)
+    int copyMealToDates(@Param("userId") Long userId, @Param("mealId") Long mealId,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO meals (user_id, meal_type, meal_date, notes, source_meal_id, created_at, updated_at) " +
+                   COPY_DATES +
+                   "SELECT m.user_id, m.meal_type, d.copy_date, m.notes, m.id, NOW(), NOW() " +
+                   "FROM meals m CROSS JOIN copy_dates d " +
+                   "WHERE m.user_id = :userId AND m.meal_date = :sourceDate " +
+                   "ORDER BY d.copy_date, m.id", nativeQuery = true)
+    int copyDayToDates(@Param("userId") Long userId, @Param("sourceDate") LocalDate sourceDate,
+                       @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO meals (user_id, meal_type, meal_date, notes, source_template_id, created_at, updated_at) " +
+                   COPY_DATES +
+                   "SELECT t.user_id, t.meal_type, d.copy_date, t.notes, t.id, NOW(), NOW() " +
+                   "FROM meal_templates t CROSS JOIN copy_dates d " +
+                   "WHERE t.id = :templateId AND t.user_id = :userId " +
+                   "ORDER BY d.copy_date", nativeQuery = true)
+    int insertTemplateMeals(@Param("userId") Long userId, @Param("templateId") Long templateId,
+                            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Copies the items, with their nutrient snapshots, of every source meal onto the meals copied
+     * from it after {@code afterId}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO meal_foods (meal_id, food_id, quantity, quantity_unit, servings, " +
+                   "calories, protein, carbohydrates, fat, fiber, sugar, sodium) " +
+                   "SELECT nm.id, mf.food_id, mf.quantity, mf.quantity_unit, mf.servings, " +
+                   "mf.calories, mf.protein, mf.carbohydrates, mf.fat, mf.fiber, mf.sugar, mf.sodium " +
+                   "FROM meals nm JOIN meal_foods mf ON mf.meal_id = nm.source_meal_id " +
+                   "WHERE nm.user_id = :userId AND nm.id > :afterId " +
+                   "ORDER BY nm.id, mf.id", nativeQuery = true)
+    int copyItemsOfCopiedMeals(@Param("userId") Long userId, @Param("afterId") long afterId);
+
+    /**
+     * Adds the template's items to the meals created from it after {@code afterId}, snapshotting
+     * the foods' current nutrients.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO meal_foods (meal_id, food_id, quantity, quantity_unit, servings, " +
+                   "calories, protein, carbohydrates, fat, fiber, sugar, sodium) " +
+                   "SELECT nm.id, tf.food_id, tf.quantity, tf.quantity_unit, tf.servings, " +
+                   "COALESCE(f.calories, 0) * COALESCE(tf.servings, 1), " +
+                   "COALESCE(f.protein, 0) * COALESCE(tf.servings, 1), " +
+                   "COALESCE(f.carbohydrates, 0) * COALESCE(tf.servings, 1), " +
+                   "COALESCE(f.fat, 0) * COALESCE(tf.servings, 1), " +
+                   "COALESCE(f.fiber, 0) * COALESCE(tf.servings, 1), " +
+                   "COALESCE(f.sugar, 0) * COALESCE(tf.servings, 1), " +
+                   "COALESCE(f.sodium, 0) * COALESCE(tf.servings, 1) " +
+                   "FROM meals nm JOIN meal_template_foods tf ON tf.template_id = nm.source_template_id " +
+                   "JOIN foods f ON f.id = tf.food_id " +
+                   "WHERE nm.user_id = :userId AND nm.id > :afterId " +
+                   "ORDER BY nm.id, tf.id", nativeQuery = true)
+    int insertItemsOfTemplateMeals(@Param("userId") Long userId, @Param("afterId") long afterId);
+
+    @Query("SELECT m.id FROM Meal m WHERE m.user.id = :userId AND m.id > :afterId " +
+           "AND (m.sourceMealId IS NOT NULL OR m.sourceTemplateId IS NOT NULL) ORDER BY m.id")
+    List<Long> findCopiedIdsAfter(@Param("userId") Long userId, @Param("afterId") long afterId);
+
     List<Meal> findByUserAndMealDate(User user, LocalDate mealDate);
 
     List<Meal> findByUserAndMealDateBetween(User user, LocalDate startDate, LocalDate endDate);
 
     List<Meal> findByUserAndMealType(User user, Meal.MealType mealType);
-
-    List<Meal> findByUserOrderByMealDateDesc(User user);
 }
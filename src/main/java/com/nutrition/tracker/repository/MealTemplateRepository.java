@@ -0,0 +1,37 @@
+package com.nutrition.tracker.repository;
+
+import com.nutrition.tracker.entity.MealTemplate;
+import com.nutrition.tracker.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MealTemplateRepository extends JpaRepository<MealTemplate, Long> {
+
+    @Query("SELECT DISTINCT t FROM MealTemplate t " +
+           "LEFT JOIN FETCH t.items i " +
+           "LEFT JOIN FETCH i.food " +
+           "WHERE t.user = :user ORDER BY t.name")
+    List<MealTemplate> findByUserWithItems(@Param("user") User user);
+
+    @Query("SELECT DISTINCT t FROM MealTemplate t " +
+           "LEFT JOIN FETCH t.items i " +
+           "LEFT JOIN FETCH i.food " +
+           "WHERE t.id = :id")
+    Optional<MealTemplate> findByIdWithItems(@Param("id") Long id);
+
+    /**
+     * Copies a meal's items into the template in one INSERT ... SELECT. Clears the persistence
+     * context so the template is re-read with its new items.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO meal_template_foods (template_id, food_id, quantity, quantity_unit, servings) " +
+                   "SELECT :templateId, mf.food_id, mf.quantity, mf.quantity_unit, mf.servings " +
+                   "FROM meal_foods mf WHERE mf.meal_id = :mealId ORDER BY mf.id", nativeQuery = true)
+    int copyItemsFromMeal(@Param("templateId") Long templateId, @Param("mealId") Long mealId);
+}
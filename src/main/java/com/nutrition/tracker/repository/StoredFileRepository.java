@@ -0,0 +1,31 @@
+package com.nutrition.tracker.repository;
+
+import com.nutrition.tracker.entity.StoredFile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * Inserts a new reference or bumps the count of an existing one in a single atomic statement.
+     * The row lock taken here serializes concurrent stores and deletes of the same content.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_files (hash, content_type, size, ref_count, created_at) " +
+                   "VALUES (:hash, :contentType, :size, 1, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int upsertReference(@Param("hash") String hash,
+                        @Param("contentType") String contentType,
+                        @Param("size") long size);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StoredFile s WHERE s.hash = :hash")
+    Optional<StoredFile> findByHashForUpdate(@Param("hash") String hash);
+}
@@ -0,0 +1,12 @@
+package com.nutrition.tracker.repository;
+
+import com.nutrition.tracker.entity.StoredFileUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface StoredFileUploadRepository extends JpaRepository<StoredFileUpload, Long> {
+
+    Optional<StoredFileUpload> findFirstByUserIdAndHash(Long userId, String hash);
+}
@@ -0,0 +1,29 @@
+package com.nutrition.tracker.repository;
+
+import com.nutrition.tracker.entity.SyncChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Long> {
+
+    /**
+     * Advances the stream's version by {@code count}, creating it on first use. Locks the version row
+     * until the transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sync_versions (stream_id, version) VALUES (:streamId, :count) " +
+                   "ON DUPLICATE KEY UPDATE version = version + :count", nativeQuery = true)
+    int incrementVersion(@Param("streamId") Long streamId, @Param("count") int count);
+
+    @Query(value = "SELECT version FROM sync_versions WHERE stream_id = :streamId", nativeQuery = true)
+    Optional<Long> findVersion(@Param("streamId") Long streamId);
+
+    List<SyncChange> findByStreamIdAndSeqGreaterThanOrderBySeq(Long streamId, Long seq, Pageable pageable);
+}
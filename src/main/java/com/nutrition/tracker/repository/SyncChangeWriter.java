@@ -0,0 +1,44 @@
+package com.nutrition.tracker.repository;
+
+import com.nutrition.tracker.entity.SyncChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserts change log entries with one JDBC batch, sent as a single multi-row INSERT thanks to
+ * {@code rewriteBatchedStatements=true}. Like {@link MealBatchWriter}, it writes on the current
+ * transaction's connection and leaves the entities unmanaged.
+ */
+@Repository
+public class SyncChangeWriter {
+
+    private static final String INSERT_CHANGE_SQL =
+            "INSERT INTO sync_changes (stream_id, seq, entity_type, entity_id, deleted, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the changes, which must carry their stream and sequence number.
+     */
+    public void insertChanges(List<SyncChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getStreamId());
+            statement.setLong(2, change.getSeq());
+            statement.setString(3, change.getEntityType().name());
+            statement.setLong(4, change.getEntityId());
+            statement.setBoolean(5, change.getDeleted());
+            statement.setTimestamp(6, now);
+        });
+    }
+}
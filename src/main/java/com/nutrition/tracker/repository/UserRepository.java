@@ -1,8 +1,13 @@
 package com.nutrition.tracker.repository;
 
 import com.nutrition.tracker.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +20,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Locks the user's row until the transaction ends, serializing that user's bulk meal copies.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    /**
+     * Each user's id and daily calorie goal, as {@code [Long, Integer]} rows.
+     */
+    @Query("SELECT u.id, u.dailyCalorieGoal FROM User u ORDER BY u.id")
+    List<Object[]> findAllCalorieGoals();
 }
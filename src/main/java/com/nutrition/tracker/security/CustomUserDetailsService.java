@@ -3,29 +3,45 @@ package com.nutrition.tracker.security;
 import com.nutrition.tracker.entity.User;
 import com.nutrition.tracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
     @Autowired
     private UserRepository userRepository;
 
+    // Accounts granted ROLE_ADMIN, e.g. for cross-user reports
+    @Value("${admin.usernames:}")
+    private Set<String> adminUsernames;
+
+    /**
+     * Used when logging in; authenticated requests build their principal from the token instead.
+     */
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), getAuthorities(user.getUsername()));
+    }
+
+    /**
+     * Roles come from configuration rather than the token, so a change applies to issued tokens too.
+     */
+    public List<GrantedAuthority> getAuthorities(String username) {
+        return adminUsernames.contains(username) ? ADMIN_AUTHORITIES : List.of();
     }
 }
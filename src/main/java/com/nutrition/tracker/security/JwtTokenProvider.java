@@ -2,59 +2,75 @@ package com.nutrition.tracker.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
+/**
+ * Issues and verifies JWTs. Tokens carry the user id and a unique token id besides the username,
+ * so requests are authenticated from the token alone and single tokens can be revoked.
+ * The key and parser are built once; parsing verifies the signature and reads the claims in one pass.
+ */
 @Component
 public class JwtTokenProvider {
 
+    private static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
+    /**
+     * Issues a token for a principal loaded by {@link CustomUserDetailsService}.
+     */
     public String generateToken(Authentication authentication) {
-        String username = authentication.getName();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
-                .subject(username)
+                .id(UUID.randomUUID().toString())
+                .subject(principal.getUsername())
+                .claim(USER_ID_CLAIM, principal.getId())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String authToken) {
+    /**
+     * Claims of a valid token, or null if the token is malformed, forged or expired. Tokens issued
+     * before user ids were added have a null user id and token id.
+     */
+    public TokenClaims parse(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return new TokenClaims(claims.get(USER_ID_CLAIM, Long.class), claims.getSubject(), claims.getId(),
+                    claims.getExpiration().getTime());
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
+
+    public record TokenClaims(Long userId, String username, String tokenId, long expiresAtMillis) {
+    }
 }
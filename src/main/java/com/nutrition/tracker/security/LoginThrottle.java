@@ -0,0 +1,108 @@
+package com.nutrition.tracker.security;
+
+import com.nutrition.tracker.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-window limits on login and register attempts per client address and on failed logins per username.
+ * Attempts are refused before any hashing, so one client or one targeted account cannot take
+ * the whole hashing pool. Only failures count against a username, so a user who signs in correctly
+ * is never locked out by their own attempts. Counters are per instance.
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${auth.throttle.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${auth.throttle.max-attempts-per-ip:30}")
+    private int maxAttemptsPerIp;
+
+    @Value("${auth.throttle.max-attempts-per-username:10}")
+    private int maxAttemptsPerUsername;
+
+    // "ip:" or "user:" key -> attempts in the current window
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Counts an attempt from the address, or throws {@link TooManyRequestsException} if the address
+     * has reached its limit or the username has too many recent failures.
+     */
+    public void acquire(String clientIp, String username) {
+        long now = System.currentTimeMillis();
+        long retryAfter = Math.max(count("ip:" + clientIp, maxAttemptsPerIp, now),
+                peek(userKey(username), maxAttemptsPerUsername, now));
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many sign-in attempts, please try again later", retryAfter);
+        }
+    }
+
+    /**
+     * Counts a failed login against the username.
+     */
+    public void recordFailure(String username) {
+        long now = System.currentTimeMillis();
+        current(userKey(username), now).attempts.incrementAndGet();
+    }
+
+    /**
+     * Clears the username's failures after a successful login.
+     */
+    public void recordSuccess(String username) {
+        windows.remove(userKey(username));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> window.endsAt <= now);
+    }
+
+    /**
+     * Counts an attempt; seconds until the key's window ends if that goes over the limit, otherwise 0.
+     */
+    private long count(String key, int maxAttempts, long now) {
+        Window window = current(key, now);
+        return window.attempts.incrementAndGet() <= maxAttempts ? 0 : retryAfter(window, now);
+    }
+
+    /**
+     * Like {@link #count} for one more attempt, without counting it.
+     */
+    private long peek(String key, int maxAttempts, long now) {
+        Window window = windows.get(key);
+        if (window == null || window.endsAt <= now || window.attempts.get() < maxAttempts) {
+            return 0;
+        }
+        return retryAfter(window, now);
+    }
+
+    private static long retryAfter(Window window, long now) {
+        return Math.max(1, (window.endsAt - now + 999) / 1000);
+    }
+
+    private Window current(String key, long now) {
+        return windows.compute(key, (k, current) ->
+                current == null || current.endsAt <= now ? new Window(now + windowSeconds * 1000) : current);
+    }
+
+    private static String userKey(String username) {
+        return "user:" + username.toLowerCase();
+    }
+
+    private static final class Window {
+
+        private final long endsAt;
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private Window(long endsAt) {
+            this.endsAt = endsAt;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nutrition.tracker.security;
+
+import com.nutrition.tracker.config.ExecutorMetrics;
+import com.nutrition.tracker.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a small bounded pool instead of request threads.
+ * A login burst then queues on this pool, at most {@code auth.hashing.queue-capacity} deep, and is
+ * refused with 429 beyond that, while Tomcat threads stay free for the rest of the API.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ExecutorMetrics executorMetrics;
+
+    // 0 = half the CPU cores, leaving the rest to ordinary requests
+    @Value("${auth.hashing.pool.size:0}")
+    private int poolSize;
+
+    @Value("${auth.hashing.queue-capacity:50}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor executor;
+
+    // Compared against for unknown usernames, so they take as long as a wrong password
+    private String dummyHash;
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        executorMetrics.monitor(executor, "password-hash");
+
+        // Doubles as a measurement of the configured cost on this host
+        long start = System.nanoTime();
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Password hash takes {} ms; {} hashing threads handle about {} logins per second",
+                millis, threads, millis > 0 ? threads * 1000 / millis : "unbounded");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against a stored hash. A null hash, for a user that does not exist,
+     * is checked against a dummy hash and never matches.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword != null ? encodedPassword : dummyHash)
+                && encodedPassword != null);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (TaskRejectedException e) {
+            throw new TooManyRequestsException("Too many sign-in attempts right now, please try again shortly", 1);
+        }
+    }
+}
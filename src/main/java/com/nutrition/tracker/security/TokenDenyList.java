@@ -0,0 +1,34 @@
+package com.nutrition.tracker.security;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of revoked tokens that have not expired yet, e.g. after a logout.
+ * Entries are dropped once the token expires, since the signature check rejects it from then on,
+ * so the list only ever holds revocations of the last token lifetime. The list is per instance.
+ */
+@Component
+public class TokenDenyList {
+
+    // Token id -> expiry in epoch millis
+    private final Map<String, Long> denied = new ConcurrentHashMap<>();
+
+    public void deny(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            denied.put(tokenId, expiresAtMillis);
+        }
+    }
+
+    public boolean isDenied(String tokenId) {
+        return denied.containsKey(tokenId);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        denied.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+}
@@ -6,14 +6,24 @@ import com.nutrition.tracker.dto.RegisterRequest;
 import com.nutrition.tracker.entity.User;
 import com.nutrition.tracker.repository.UserRepository;
 import com.nutrition.tracker.security.JwtTokenProvider;
+import com.nutrition.tracker.security.TokenDenyList;
+import com.nutrition.tracker.security.CustomUserDetailsService;
+import com.nutrition.tracker.security.LoginThrottle;
+import com.nutrition.tracker.security.PasswordHasher;
+import com.nutrition.tracker.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Registration, login and logout. Password hashing runs on {@link PasswordHasher}'s pool, so the
+ * returned futures complete there and request threads are released while a hash is computed.
+ */
 @Service
 public class AuthService {
 
@@ -21,15 +31,26 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
 
     @Autowired
     private JwtTokenProvider tokenProvider;
 
-    public AuthResponse register(RegisterRequest request) {
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    /**
+     * Hashes the password once; the new user is not authenticated again, since the password is known to match.
+     */
+    public CompletableFuture<AuthResponse> register(RegisterRequest request, String clientIp) {
+        loginThrottle.acquire(clientIp, request.getUsername());
+
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
@@ -38,35 +59,58 @@ public class AuthService {
             throw new RuntimeException("Email already exists");
         }
 
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setFullName(request.getFullName());
-
-        User savedUser = userRepository.save(user);
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-
-        String token = tokenProvider.generateToken(authentication);
-
-        return new AuthResponse(token, savedUser.getId(), savedUser.getUsername(), savedUser.getEmail());
+        return passwordHasher.encode(request.getPassword()).thenApply(encodedPassword -> {
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPassword(encodedPassword);
+            user.setFullName(request.getFullName());
+
+            User savedUser;
+            try {
+                savedUser = userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                // Registered concurrently while the password was hashed
+                throw new RuntimeException("Username or email already exists");
+            }
+            return response(savedUser);
+        });
     }
 
-    public AuthResponse login(AuthRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        String token = tokenProvider.generateToken(authentication);
+    /**
+     * Only a failed password counts against the username; a successful login clears its failures.
+     */
+    public CompletableFuture<AuthResponse> login(AuthRequest request, String clientIp) {
+        loginThrottle.acquire(clientIp, request.getUsername());
+
+        User user = userRepository.findByUsername(request.getUsername()).orElse(null);
+        return passwordHasher.matches(request.getPassword(), user != null ? user.getPassword() : null)
+                .thenApply(matches -> {
+                    if (!matches) {
+                        loginThrottle.recordFailure(request.getUsername());
+                        throw new BadCredentialsException("Bad credentials");
+                    }
+                    loginThrottle.recordSuccess(request.getUsername());
+                    return response(user);
+                });
+    }
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * Revokes the token the request was authenticated with. Without a valid token there is nothing to do.
+     */
+    public void logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof JwtTokenProvider.TokenClaims claims
+                && claims.tokenId() != null) {
+            tokenDenyList.deny(claims.tokenId(), claims.expiresAtMillis());
+        }
+    }
 
+    private AuthResponse response(User user) {
+        UserPrincipal principal = new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(),
+                userDetailsService.getAuthorities(user.getUsername()));
+        String token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
         return new AuthResponse(token, user.getId(), user.getUsername(), user.getEmail());
     }
 }
@@ -0,0 +1,69 @@
+package com.nutrition.tracker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells a cache whether a value it loaded outside its lock may have missed a change.
+ * Every load gets its own token, and an invalidation marks all tokens in flight for the key, so
+ * overlapping loads of the same key cannot clear each other's invalidations.
+ * Call {@link #invalidate} and {@link Load#finish} under the cache's own lock, so a change either
+ * reaches the cached value or marks the load that is about to be cached.
+ */
+class CacheLoadGuard<K> {
+
+    private final Map<K, List<Load>> inFlight = new ConcurrentHashMap<>();
+
+    Load begin(K key) {
+        Load load = new Load(key);
+        inFlight.compute(key, (k, loads) -> {
+            List<Load> keyLoads = loads != null ? loads : new ArrayList<>(1);
+            keyLoads.add(load);
+            return keyLoads;
+        });
+        return load;
+    }
+
+    /**
+     * Marks every load of the key that is in flight as stale.
+     */
+    void invalidate(K key) {
+        inFlight.computeIfPresent(key, (k, loads) -> {
+            loads.forEach(load -> load.stale = true);
+            return loads;
+        });
+    }
+
+    int inFlightKeys() {
+        return inFlight.size();
+    }
+
+    final class Load {
+
+        private final K key;
+
+        // Written and read inside the map's per-key compute, which orders it
+        private boolean stale;
+
+        private Load(K key) {
+            this.key = key;
+        }
+
+        /**
+         * Ends the load, also when it failed.
+         *
+         * @return true if nothing invalidated the key since {@link #begin}, so the value may be cached
+         */
+        boolean finish() {
+            boolean[] fresh = new boolean[1];
+            inFlight.computeIfPresent(key, (k, loads) -> {
+                loads.remove(this);
+                fresh[0] = !stale;
+                return loads.isEmpty() ? null : loads;
+            });
+            return fresh[0];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.nutrition.tracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and eviction counts of one of the in-memory LRU caches, published as the standard
+ * cache.gets, cache.evictions and cache.size meters tagged with the cache name.
+ * Counting is a striped add, so it is cheap enough for every lookup.
+ */
+class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void eviction() {
+        evictions.increment();
+    }
+
+    /**
+     * Publishes the counts and the size of {@code cache}; only reads its size, without locking.
+     */
+    void bindTo(MeterRegistry registry, String cacheName, Map<?, ?> cache) {
+        new CacheMeterBinder<Map<?, ?>>(cache, cacheName, List.of()) {
+            @Override
+            protected Long size() {
+                return (long) cache.size();
+            }
+
+            @Override
+            protected long hitCount() {
+                return hits.sum();
+            }
+
+            @Override
+            protected Long missCount() {
+                return misses.sum();
+            }
+
+            @Override
+            protected Long evictionCount() {
+                return evictions.sum();
+            }
+
+            @Override
+            protected long putCount() {
+                // Every miss loads and caches the entry
+                return misses.sum();
+            }
+
+            @Override
+            protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            }
+        }.bindTo(registry);
+    }
+}
@@ -0,0 +1,99 @@
+package com.nutrition.tracker.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, double-quoted fields with {@code ""} escapes and
+ * embedded line breaks. Reads one record at a time and caps the record length, so a stray quote
+ * cannot make it buffer the rest of a large file.
+ */
+final class CsvReader implements Closeable {
+
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    CsvReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next non-blank record, or null at the end of input.
+     */
+    List<String> readRecord() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+        } while (line.isBlank());
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int recordLength = line.length();
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                // Quoted field continues on the next line
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field at line " + lineNumber);
+                }
+                lineNumber++;
+                recordLength += line.length() + 1;
+                if (recordLength > MAX_RECORD_LENGTH) {
+                    throw new IOException("Record too long at line " + lineNumber);
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+    }
+
+    /**
+     * Line number of the last line read, counting from 1.
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,127 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.entity.DailyNutritionTotal;
+import com.nutrition.tracker.repository.DailyNutritionTotalRepository;
+import com.nutrition.tracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the daily_nutrition_totals table.
+ * Meal writes apply deltas inside their own transaction; the repair job rebuilds each user's rows
+ * from meals so that rounding or out-of-band edits cannot drift forever. Users whose history predates
+ * the table are built once at startup, before a delete could subtract from a row that never held the meal.
+ */
+@Service
+public class DailyNutritionTotalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyNutritionTotalService.class);
+
+    // Full range of the MySQL DATE type
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private DailyNutritionTotalRepository dailyNutritionTotalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TrendService trendService;
+
+    /**
+     * Adds the delta to the day's row. Must run inside the transaction that changes the meals.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(Long userId, LocalDate date, NutritionTotals delta) {
+        dailyNutritionTotalRepository.applyDelta(userId, date,
+                delta.getCalories(), delta.getProtein(), delta.getCarbohydrates(), delta.getFat(),
+                delta.getFiber(), delta.getSugar(), delta.getSodium());
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyNutritionTotal> getTotals(Long userId, LocalDate startDate, LocalDate endDate) {
+        return dailyNutritionTotalRepository.findByUserIdAndDateBetweenOrderByDate(userId, startDate, endDate);
+    }
+
+    /**
+     * Replaces the user's rows in the range with values recomputed from meals.
+     */
+    @Transactional
+    public void rebuild(Long userId, LocalDate startDate, LocalDate endDate) {
+        dailyNutritionTotalRepository.deleteRange(userId, startDate, endDate);
+        dailyNutritionTotalRepository.rebuildRange(userId, startDate, endDate);
+    }
+
+    @Transactional
+    public void rebuild(Long userId) {
+        rebuild(userId, MIN_DATE, MAX_DATE);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+
+    /**
+     * Builds the rows of every user who has meals but none yet. The users are listed first, so a
+     * delta applied to one of them in the meantime is overwritten by the rebuild rather than
+     * making the user look done.
+     */
+    public int backfill() {
+        List<Long> userIds = dailyNutritionTotalRepository.findUserIdsWithoutTotals();
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        int rebuilt = rebuildAll(userIds);
+        logger.info("Backfilled daily nutrition totals for {} of {} users", rebuilt, userIds.size());
+        return rebuilt;
+    }
+
+    /**
+     * Rebuilds every user's totals, one user per transaction to keep lock times short. Each user's
+     * cached trend series is dropped once their rows are committed, so trends pick up the repair.
+     */
+    @Scheduled(cron = "${nutrition.totals.repair-cron:0 30 3 * * *}")
+    public void repairAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        int rebuilt = rebuildAll(userIds);
+        logger.info("Rebuilt daily nutrition totals for {} users ({} failed)", rebuilt, userIds.size() - rebuilt);
+    }
+
+    private int rebuildAll(List<Long> userIds) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int rebuilt = 0;
+        for (Long userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    dailyNutritionTotalRepository.deleteRange(userId, MIN_DATE, MAX_DATE);
+                    dailyNutritionTotalRepository.rebuildRange(userId, MIN_DATE, MAX_DATE);
+                });
+                trendService.evict(userId);
+                rebuilt++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebuild daily totals for user {}: {}", userId, e.getMessage());
+            }
+        }
+        return rebuilt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.nutrition.tracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Times calls to external food and image APIs as {@code external.api.calls}, tagged by api, operation
+ * and outcome. Unlike the HTTP client metrics this covers parsing and tells "not found" apart from success.
+ */
+@Component
+public class ExternalApiMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void record(Timer.Sample sample, String api, String operation, String outcome) {
+        sample.stop(meterRegistry.timer("external.api.calls", "api", api, "operation", operation, "outcome", outcome));
+    }
+
+    public void recordFailure(Timer.Sample sample, String api, String operation, Exception e) {
+        String outcome;
+        if (e instanceof HttpClientErrorException) {
+            outcome = "client_error";
+        } else if (e instanceof HttpServerErrorException) {
+            outcome = "server_error";
+        } else if (e instanceof ResourceAccessException) {
+            outcome = "network_error";
+        } else {
+            outcome = "error";
+        }
+        record(sample, api, operation, outcome);
+    }
+}
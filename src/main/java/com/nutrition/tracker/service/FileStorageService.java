@@ -1,53 +1,191 @@
 package com.nutrition.tracker.service;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.nutrition.tracker.entity.StoredFile;
+import com.nutrition.tracker.entity.StoredFileUpload;
+import com.nutrition.tracker.event.FileStoredEvent;
+import com.nutrition.tracker.repository.StoredFileRepository;
+import com.nutrition.tracker.repository.StoredFileUploadRepository;
+import com.nutrition.tracker.storage.StorageBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+/**
+ * Content-addressed upload storage.
+ * Files are named by the SHA-256 of their content and sharded into two levels of
+ * hash-prefix directories (ab/cd/abcd...), so duplicate uploads share one file and
+ * no single directory grows without bound. Deletes are reference counted: every upload is one
+ * reference, recorded against the uploading user, and the bytes go once the last one is released.
+ * The bytes themselves live in whichever {@link StorageBackend} is configured by {@code storage.backend}.
+ */
 @Service
 public class FileStorageService {
 
-    @Value("${upload.dir}")
-    private String uploadDir;
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
+    // Raster formats only: SVG and other scriptable types would run in the API origin when served
+    public static final Set<String> IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/webp");
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}");
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private StoredFileUploadRepository storedFileUploadRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Stores the upload and returns its storage key.
+     * The content is hashed while it is streamed to the storage backend, so the upload is read exactly once.
+     */
+    @Transactional
     public String storeFile(MultipartFile file) {
+        StorageBackend.StagedObject staged = null;
         try {
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+                staged = storageBackend.stage(inputStream, file.getSize());
             }
+            String hash = HexFormat.of().formatHex(digest.digest());
 
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            // Take the row lock before touching the shard so a concurrent delete of the same content cannot interleave
+            String contentType = normalizeContentType(file.getContentType());
+            storedFileRepository.upsertReference(hash, contentType, staged.size());
+            storedFileUploadRepository.save(new StoredFileUpload(userService.getCurrentUserId(), hash));
+
+            String key = toKey(hash);
+            storageBackend.commit(staged, key);
+            staged = null;
+
+            eventPublisher.publishEvent(new FileStoredEvent(key, contentType));
+            return key;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            if (staged != null) {
+                storageBackend.discard(staged);
             }
+        }
+    }
+
+    /**
+     * Releases one of the current user's references to the stored content. Once nothing refers to it,
+     * the file and its thumbnails are removed after the transaction commits, so a rollback never
+     * leaves a row pointing at missing bytes.
+     */
+    @Transactional
+    public void deleteFile(String key) {
+        String hash = hashFromKey(key);
+        StoredFileUpload upload = storedFileUploadRepository.findFirstByUserIdAndHash(userService.getCurrentUserId(), hash)
+                .orElseThrow(() -> new RuntimeException("File not found"));
+        StoredFile storedFile = storedFileRepository.findByHashForUpdate(hash)
+                .orElseThrow(() -> new RuntimeException("File not found"));
+        storedFileUploadRepository.delete(upload);
+
+        if (storedFile.getRefCount() > 1) {
+            storedFile.setRefCount(storedFile.getRefCount() - 1);
+            storedFileRepository.save(storedFile);
+            return;
+        }
 
-            String filename = UUID.randomUUID().toString() + fileExtension;
-            Path filePath = uploadPath.resolve(filename);
+        storedFileRepository.delete(storedFile);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteContent(key);
+                }
+            });
+        } else {
+            deleteContent(key);
+        }
+    }
 
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Removes the bytes unless the same content was uploaded again since the row was deleted.
+     * The locking read on the missing row blocks a concurrent re-upload's insert until the bytes are gone.
+     */
+    private void deleteContent(String key) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (storedFileRepository.findByHashForUpdate(hashFromKey(key)).isPresent()) {
+                    return;
+                }
+                try {
+                    storageBackend.delete(key);
+                    thumbnailService.deleteThumbnails(key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // The row is already gone, so the worst case is an orphaned object in the backend
+            logger.warn("Failed to delete stored file {}: {}", key, e.getMessage());
+        }
+    }
 
-            return filename;
+    public InputStream loadFile(String key) {
+        // Validates the key shape so callers cannot reach outside the content-addressed namespace
+        hashFromKey(key);
+        try {
+            return storageBackend.open(key);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file", e);
+            throw new RuntimeException("File not found", e);
         }
     }
 
+    public String getContentType(String key) {
+        return storedFileRepository.findById(hashFromKey(key))
+                .map(StoredFile::getContentType)
+                .orElseThrow(() -> new RuntimeException("File not found"));
+    }
+
+    public String toKey(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
     public void validateImageFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new RuntimeException("File is empty");
         }
 
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new RuntimeException("File must be an image");
+        if (!IMAGE_TYPES.contains(normalizeContentType(file.getContentType()))) {
+            throw new RuntimeException("File must be a JPEG, PNG, GIF or WebP image");
         }
 
         long maxSize = 10 * 1024 * 1024;
@@ -55,4 +193,23 @@ public class FileStorageService {
             throw new RuntimeException("File size exceeds maximum limit of 10MB");
         }
     }
+
+    private static String normalizeContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int parameters = contentType.indexOf(';');
+        return (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String hashFromKey(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new RuntimeException("Invalid file key");
+        }
+        String hash = key.substring(6);
+        if (!key.startsWith(hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/")) {
+            throw new RuntimeException("Invalid file key");
+        }
+        return hash;
+    }
 }
@@ -0,0 +1,210 @@
+package com.nutrition.tracker.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable snapshot of the food catalog for scoring. Nutrients per serving are packed into one
+ * column-major {@code float[]}: column {@code c} of row {@code i} is at {@code c * size + i}, so each
+ * scan pass reads one contiguous column. The scoring loops are branch-free over primitive arrays,
+ * which lets the JIT compile them to SIMD instructions.
+ */
+public final class FoodMatrix {
+
+    public static final int CALORIES = 0;
+    public static final int PROTEIN = 1;
+    public static final int CARBOHYDRATES = 2;
+    public static final int FAT = 3;
+    public static final int COLUMNS = 4;
+
+    // Rows per fork/join leaf task
+    private static final int LEAF_ROWS = 16384;
+
+    // Overshooting the remaining budget costs this much more than falling short by the same amount
+    private static final float OVERSHOOT_PENALTY = 3.0f;
+
+    private final long[] ids;
+    private final String[] names;
+    private final String[] brands;
+    private final float[] servingSizes;
+    private final String[] servingUnits;
+    private final float[] values;
+
+    private FoodMatrix(int size) {
+        ids = new long[size];
+        names = new String[size];
+        brands = new String[size];
+        servingSizes = new float[size];
+        servingUnits = new String[size];
+        values = new float[COLUMNS * size];
+    }
+
+    /**
+     * Builds the matrix from catalog rows: id, name, brand, serving size, serving unit, calories,
+     * protein, carbohydrates, fat. Missing nutrients count as zero.
+     */
+    public static FoodMatrix of(List<Object[]> rows) {
+        int size = rows.size();
+        FoodMatrix matrix = new FoodMatrix(size);
+        for (int i = 0; i < size; i++) {
+            Object[] row = rows.get(i);
+            matrix.ids[i] = (Long) row[0];
+            matrix.names[i] = (String) row[1];
+            matrix.brands[i] = (String) row[2];
+            matrix.servingSizes[i] = row[3] != null ? ((Double) row[3]).floatValue() : Float.NaN;
+            matrix.servingUnits[i] = (String) row[4];
+            for (int column = 0; column < COLUMNS; column++) {
+                Double value = (Double) row[5 + column];
+                matrix.values[column * size + i] = value != null ? value.floatValue() : 0f;
+            }
+        }
+        return matrix;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    public String brand(int row) {
+        return brands[row];
+    }
+
+    /**
+     * Serving size, or null when the food has none.
+     */
+    public Double servingSize(int row) {
+        return Float.isNaN(servingSizes[row]) ? null : (double) servingSizes[row];
+    }
+
+    public String servingUnit(int row) {
+        return servingUnits[row];
+    }
+
+    public float value(int column, int row) {
+        return values[column * ids.length + row];
+    }
+
+    /**
+     * Rows of the {@code limit} best-fitting foods, best first, with their scores (lower is better).
+     * A food's score is the weighted squared gap between one serving and the remaining budget,
+     * each nutrient relative to its daily target; overshooting is penalized harder than falling short.
+     *
+     * @param remaining remaining amount per column, never negative
+     * @param targets   daily target per column, positive
+     * @param weights   weight per column
+     */
+    public Ranking rank(float[] remaining, float[] targets, float[] weights, int limit) {
+        int size = ids.length;
+        float[] scores = new float[size];
+        if (size == 0 || limit <= 0) {
+            return new Ranking(new int[0], new float[0]);
+        }
+        int[] best = ForkJoinPool.commonPool().invoke(
+                new RankTask(scores, remaining, targets, weights, Math.min(limit, size), 0, size));
+        float[] bestScores = new float[best.length];
+        for (int i = 0; i < best.length; i++) {
+            bestScores[i] = scores[best[i]];
+        }
+        return new Ranking(best, bestScores);
+    }
+
+    /**
+     * Scores rows {@code [from, to)} column by column into {@code scores}.
+     */
+    private void score(float[] scores, float[] remaining, float[] targets, float[] weights, int from, int to) {
+        int size = ids.length;
+        for (int column = 0; column < COLUMNS; column++) {
+            float left = remaining[column];
+            float scale = 1.0f / targets[column];
+            float weight = weights[column];
+            int offset = column * size;
+            for (int i = from; i < to; i++) {
+                float gap = (left - values[offset + i]) * scale;
+                float over = Math.min(gap, 0f);
+                scores[i] += weight * (gap * gap + OVERSHOOT_PENALTY * over * over);
+            }
+        }
+    }
+
+    /**
+     * Best {@code limit} rows of {@code [from, to)}, ordered by score and then row.
+     */
+    private static int[] select(float[] scores, int limit, int from, int to) {
+        int[] best = new int[limit];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            float score = scores[i];
+            if (count == limit && score >= scores[best[count - 1]]) {
+                continue;
+            }
+            int position = count < limit ? count++ : count - 1;
+            while (position > 0 && scores[best[position - 1]] > score) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = i;
+        }
+        return count == limit ? best : Arrays.copyOf(best, count);
+    }
+
+    private static int[] merge(float[] scores, int[] left, int[] right, int limit) {
+        int[] merged = new int[Math.min(limit, left.length + right.length)];
+        int l = 0;
+        int r = 0;
+        for (int i = 0; i < merged.length; i++) {
+            // Left rows precede right rows, so ties keep row order
+            if (r == right.length || (l < left.length && scores[left[l]] <= scores[right[r]])) {
+                merged[i] = left[l++];
+            } else {
+                merged[i] = right[r++];
+            }
+        }
+        return merged;
+    }
+
+    public record Ranking(int[] rows, float[] scores) {
+    }
+
+    private final class RankTask extends RecursiveTask<int[]> {
+        private final float[] scores;
+        private final float[] remaining;
+        private final float[] targets;
+        private final float[] weights;
+        private final int limit;
+        private final int from;
+        private final int to;
+
+        RankTask(float[] scores, float[] remaining, float[] targets, float[] weights, int limit, int from, int to) {
+            this.scores = scores;
+            this.remaining = remaining;
+            this.targets = targets;
+            this.weights = weights;
+            this.limit = limit;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= LEAF_ROWS) {
+                score(scores, remaining, targets, weights, from, to);
+                return select(scores, limit, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            RankTask left = new RankTask(scores, remaining, targets, weights, limit, from, middle);
+            left.fork();
+            int[] right = new RankTask(scores, remaining, targets, weights, limit, middle, to).compute();
+            return merge(scores, left.join(), right, limit);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.FoodRecommendation;
+import com.nutrition.tracker.dto.FoodRecommendations;
+import com.nutrition.tracker.entity.DailyNutritionTotal;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.event.FoodCatalogChangedEvent;
+import com.nutrition.tracker.repository.FoodRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recommends catalog foods that fill what is left of the user's daily calorie goal.
+ * The catalog is scored from an in-memory {@link FoodMatrix}, so ranking never touches the database;
+ * only the user and today's totals row are read per request. Saved foods mark the matrix stale and
+ * it is rebuilt on the next refresh tick rather than once per save.
+ */
+@Service
+public class FoodRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodRecommendationService.class);
+
+    public static final int MAX_LIMIT = 50;
+
+    // Share of the calorie goal per macro and its energy density (kcal per gram)
+    private static final double PROTEIN_SHARE = 0.20;
+    private static final double CARBOHYDRATES_SHARE = 0.50;
+    private static final double FAT_SHARE = 0.30;
+    private static final double KCAL_PER_GRAM_PROTEIN = 4.0;
+    private static final double KCAL_PER_GRAM_CARBOHYDRATES = 4.0;
+    private static final double KCAL_PER_GRAM_FAT = 9.0;
+
+    // Calories count as much as all three macros together
+    private static final float[] WEIGHTS = {3f, 1f, 1f, 1f};
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DailyNutritionTotalService dailyNutritionTotalService;
+
+    private volatile FoodMatrix matrix;
+
+    private volatile boolean stale = true;
+
+    public FoodRecommendations recommend(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        User user = userService.getCurrentUser();
+        if (user.getDailyCalorieGoal() == null || user.getDailyCalorieGoal() <= 0) {
+            throw new RuntimeException("Set a daily calorie goal to get recommendations");
+        }
+
+        double goal = user.getDailyCalorieGoal();
+        float[] targets = {
+                (float) goal,
+                (float) (goal * PROTEIN_SHARE / KCAL_PER_GRAM_PROTEIN),
+                (float) (goal * CARBOHYDRATES_SHARE / KCAL_PER_GRAM_CARBOHYDRATES),
+                (float) (goal * FAT_SHARE / KCAL_PER_GRAM_FAT)
+        };
+
+        LocalDate today = LocalDate.now();
+        float[] eaten = new float[FoodMatrix.COLUMNS];
+        for (DailyNutritionTotal total : dailyNutritionTotalService.getTotals(user.getId(), today, today)) {
+            eaten[FoodMatrix.CALORIES] += total.getCalories().floatValue();
+            eaten[FoodMatrix.PROTEIN] += total.getProtein().floatValue();
+            eaten[FoodMatrix.CARBOHYDRATES] += total.getCarbohydrates().floatValue();
+            eaten[FoodMatrix.FAT] += total.getFat().floatValue();
+        }
+        float[] remaining = new float[FoodMatrix.COLUMNS];
+        for (int column = 0; column < FoodMatrix.COLUMNS; column++) {
+            remaining[column] = Math.max(targets[column] - eaten[column], 0f);
+        }
+
+        FoodMatrix current = getMatrix();
+        FoodMatrix.Ranking ranking = current.rank(remaining, targets, WEIGHTS, limit);
+        List<FoodRecommendation> foods = new ArrayList<>(ranking.rows().length);
+        for (int i = 0; i < ranking.rows().length; i++) {
+            int row = ranking.rows()[i];
+            foods.add(new FoodRecommendation(current.id(row), current.name(row), current.brand(row),
+                    current.servingSize(row), current.servingUnit(row),
+                    current.value(FoodMatrix.CALORIES, row), current.value(FoodMatrix.PROTEIN, row),
+                    current.value(FoodMatrix.CARBOHYDRATES, row), current.value(FoodMatrix.FAT, row),
+                    ranking.scores()[i]));
+        }
+
+        return new FoodRecommendations(remaining[FoodMatrix.CALORIES], remaining[FoodMatrix.PROTEIN],
+                remaining[FoodMatrix.CARBOHYDRATES], remaining[FoodMatrix.FAT], foods);
+    }
+
+    @EventListener
+    public void onFoodCatalogChanged(FoodCatalogChangedEvent event) {
+        stale = true;
+    }
+
+    /**
+     * Rebuilds the matrix if foods were saved since the last build. Also performs the initial load.
+     */
+    @Scheduled(fixedDelayString = "${food-recommendations.refresh-interval-ms:60000}")
+    public void refreshIfStale() {
+        if (stale) {
+            reload();
+        }
+    }
+
+    private FoodMatrix getMatrix() {
+        FoodMatrix current = matrix;
+        if (current == null) {
+            // First request before the scheduled load
+            synchronized (this) {
+                current = matrix;
+                if (current == null) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized FoodMatrix reload() {
+        // Cleared before reading, so a save during the load marks the new matrix stale again
+        stale = false;
+        long start = System.nanoTime();
+        FoodMatrix loaded = FoodMatrix.of(foodRepository.findCatalogRows());
+        matrix = loaded;
+        logger.info("Loaded {} foods into the recommendation matrix in {} ms",
+                loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+}
@@ -1,8 +1,10 @@
 package com.nutrition.tracker.service;
 
 import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.event.FoodCatalogChangedEvent;
 import com.nutrition.tracker.repository.FoodRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,8 +19,13 @@ public class FoodService {
     @Autowired
     private USDAService usdaService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Food createFood(Food food) {
-        return foodRepository.save(food);
+        Food saved = foodRepository.save(food);
+        eventPublisher.publishEvent(new FoodCatalogChangedEvent(saved.getId()));
+        return saved;
     }
 
     public Food getFoodById(Long id) {
@@ -43,7 +50,8 @@ public class FoodService {
             // Save USDA results to database for future queries
             for (Food food : usdaResults) {
                 try {
-                    foodRepository.save(food);
+                    Food saved = foodRepository.save(food);
+                    eventPublisher.publishEvent(new FoodCatalogChangedEvent(saved.getId()));
                 } catch (Exception e) {
                     // Ignore duplicate save errors
                 }
@@ -0,0 +1,114 @@
+package com.nutrition.tracker.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's recently and frequently used foods, in bounded memory.
+ * Recents are an LRU set of food ids. Frequent foods are tracked with the Space-Saving algorithm:
+ * at most {@code frequentCapacity} counters, and an untracked food takes over the smallest counter
+ * and its count. Counts may be overestimated, but any food used more often than
+ * total uses / capacity is guaranteed to be tracked. All methods are thread-safe.
+ */
+public final class FoodUsage {
+
+    private final int recentCapacity;
+    private final int frequentCapacity;
+
+    // Oldest first; re-adding moves an id to the end
+    private final LinkedHashSet<Long> recent = new LinkedHashSet<>();
+
+    // Food id -> uses
+    private final Map<Long, Long> counters = new HashMap<>();
+
+    public FoodUsage(int recentCapacity, int frequentCapacity) {
+        this.recentCapacity = recentCapacity;
+        this.frequentCapacity = frequentCapacity;
+    }
+
+    public synchronized void recordUse(Long foodId) {
+        touch(foodId);
+        count(foodId, 1);
+    }
+
+    /**
+     * Marks the food as the most recent one without counting a use.
+     */
+    public synchronized void touch(Long foodId) {
+        recent.remove(foodId);
+        recent.add(foodId);
+        if (recent.size() > recentCapacity) {
+            Iterator<Long> oldest = recent.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Undoes one use of a deleted meal item. Recents are left alone: the food was still used lately.
+     */
+    public synchronized void recordRemoval(Long foodId) {
+        counters.computeIfPresent(foodId, (id, uses) -> Math.max(uses - 1, 0));
+    }
+
+    /**
+     * Seeds an exact count, e.g. from a database aggregate on a cold start.
+     */
+    public synchronized void recordUses(Long foodId, long uses) {
+        count(foodId, uses);
+    }
+
+    /**
+     * Most recently used first.
+     */
+    public synchronized List<Long> recent(int limit) {
+        List<Long> ids = new ArrayList<>(recent);
+        List<Long> newestFirst = new ArrayList<>(Math.min(limit, ids.size()));
+        for (int i = ids.size() - 1; i >= 0 && newestFirst.size() < limit; i--) {
+            newestFirst.add(ids.get(i));
+        }
+        return newestFirst;
+    }
+
+    /**
+     * Most used first, ties by food id; foods whose count dropped to zero are left out.
+     */
+    public synchronized List<Frequent> frequent(int limit) {
+        List<Frequent> frequent = new ArrayList<>(counters.size());
+        for (Map.Entry<Long, Long> entry : counters.entrySet()) {
+            if (entry.getValue() > 0) {
+                frequent.add(new Frequent(entry.getKey(), entry.getValue()));
+            }
+        }
+        frequent.sort((a, b) -> a.uses() != b.uses()
+                ? Long.compare(b.uses(), a.uses())
+                : Long.compare(a.foodId(), b.foodId()));
+        return frequent.size() > limit ? new ArrayList<>(frequent.subList(0, limit)) : frequent;
+    }
+
+    private void count(Long foodId, long uses) {
+        if (counters.containsKey(foodId) || counters.size() < frequentCapacity) {
+            counters.merge(foodId, uses, Long::sum);
+            return;
+        }
+
+        // Replace the smallest counter; the newcomer may have been used up to that many times before
+        Long smallest = null;
+        long smallestCount = Long.MAX_VALUE;
+        for (Map.Entry<Long, Long> entry : counters.entrySet()) {
+            if (entry.getValue() < smallestCount) {
+                smallest = entry.getKey();
+                smallestCount = entry.getValue();
+            }
+        }
+        counters.remove(smallest);
+        counters.put(foodId, smallestCount + uses);
+    }
+
+    public record Frequent(long foodId, long uses) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.FoodShortcuts;
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.repository.FoodRepository;
+import com.nutrition.tracker.repository.MealFoodRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user recent and frequent foods for quick selection without a search.
+ * Each active user's {@link FoodUsage} is loaded once from meal_foods with two bounded queries and
+ * then kept current from committed meal changes. Users are cached in a bounded LRU map.
+ */
+@Service
+public class FoodUsageService {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int RECENT_CAPACITY = MAX_LIMIT;
+    // Extra counters beyond what is shown make the reported top foods more accurate
+    private static final int FREQUENT_CAPACITY = 64;
+    // Latest items read on a cold start to find the recent foods; repeats are common
+    private static final int RECENT_ITEMS_SCANNED = 200;
+
+    @Autowired
+    private MealFoodRepository mealFoodRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${food-usage.cache.max-users:10000}")
+    private int maxCachedUsers;
+
+    private final Map<Long, FoodUsage> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, FoodUsage> eldest) {
+            if (size() > maxCachedUsers) {
+                cacheStats.eviction();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Usage loads in flight, so a change committed during a load keeps its result out of the cache
+    private final CacheLoadGuard<Long> loads = new CacheLoadGuard<>();
+
+    private final CacheStats cacheStats = new CacheStats();
+
+    @PostConstruct
+    public void registerMetrics() {
+        cacheStats.bindTo(meterRegistry, "food-usage", cache);
+    }
+
+    @Transactional(readOnly = true)
+    public FoodShortcuts getShortcuts(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        FoodUsage usage = getUsage(userService.getCurrentUserId());
+        List<Long> recentIds = usage.recent(limit);
+        List<FoodUsage.Frequent> frequentUses = usage.frequent(limit);
+
+        Set<Long> ids = new HashSet<>(recentIds);
+        for (FoodUsage.Frequent frequent : frequentUses) {
+            ids.add(frequent.foodId());
+        }
+        Map<Long, Food> foods = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Food food : foodRepository.findAllById(ids)) {
+                foods.put(food.getId(), food);
+            }
+        }
+
+        List<Food> recent = new ArrayList<>(recentIds.size());
+        for (Long id : recentIds) {
+            if (foods.containsKey(id)) {
+                recent.add(foods.get(id));
+            }
+        }
+        List<FoodShortcuts.FrequentFood> frequent = new ArrayList<>(frequentUses.size());
+        for (FoodUsage.Frequent uses : frequentUses) {
+            if (foods.containsKey(uses.foodId())) {
+                frequent.add(new FoodShortcuts.FrequentFood(foods.get(uses.foodId()), uses.uses()));
+            }
+        }
+        return new FoodShortcuts(recent, frequent);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        FoodUsage usage;
+        synchronized (cache) {
+            usage = cache.get(event.getUserId());
+            if (usage == null) {
+                // Not cached: the next load reads committed items, but a load already in flight may not
+                loads.invalidate(event.getUserId());
+                return;
+            }
+        }
+
+        for (Long foodId : event.getFoodIds()) {
+            if (event.getType() == MealChangedEvent.ChangeType.CREATED) {
+                usage.recordUse(foodId);
+            } else {
+                usage.recordRemoval(foodId);
+            }
+        }
+    }
+
+    FoodUsage getUsage(Long userId) {
+        synchronized (cache) {
+            FoodUsage usage = cache.get(userId);
+            if (usage != null) {
+                cacheStats.hit();
+                return usage;
+            }
+        }
+
+        cacheStats.miss();
+        CacheLoadGuard<Long>.Load guard = loads.begin(userId);
+        FoodUsage usage;
+        try {
+            usage = load(userId);
+        } catch (RuntimeException e) {
+            guard.finish();
+            throw e;
+        }
+        synchronized (cache) {
+            if (guard.finish()) {
+                cache.putIfAbsent(userId, usage);
+                return cache.get(userId);
+            }
+        }
+        // A change committed while loading; serve this copy but do not cache something possibly stale
+        return usage;
+    }
+
+    private FoodUsage load(Long userId) {
+        FoodUsage usage = new FoodUsage(RECENT_CAPACITY, FREQUENT_CAPACITY);
+        for (Object[] row : mealFoodRepository.countFoodUses(userId, PageRequest.of(0, FREQUENT_CAPACITY))) {
+            usage.recordUses((Long) row[0], (Long) row[1]);
+        }
+
+        // Replayed oldest first so the newest use ends up most recent
+        List<Long> latest = mealFoodRepository.findRecentFoodIds(userId, PageRequest.of(0, RECENT_ITEMS_SCANNED));
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            usage.touch(latest.get(i));
+        }
+        return usage;
+    }
+}
@@ -0,0 +1,305 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.config.ExecutorMetrics;
+import com.nutrition.tracker.dto.MealChangeNotification;
+import com.nutrition.tracker.dto.MealImportNotification;
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.entity.DailyNutritionTotal;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.event.MealsImportedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Event streams of a user's committed meal changes, so devices need not poll.
+ * Streams are async servlet responses: an idle stream holds a socket and an {@link SseEmitter},
+ * not a thread. Events are sent from a small internal pool after the commit, so a slow client never
+ * delays the request that changed the meal, and a heartbeat comment keeps proxies from closing
+ * idle streams and detects clients that went away.
+ * Each stream has its own queue, drained by one pool task at a time, so a client that stops reading
+ * blocks only its own sends. The heartbeat closes streams whose send has been stuck longer than
+ * {@code meals.events.send-timeout-ms} or whose queue is full; the client reconnects.
+ * Imports are not pushed meal by meal: each committed chunk sends one {@code meals-imported} summary.
+ * <p>
+ * Streams live in the memory of the node that accepted them and only see changes committed on that
+ * node. With several instances behind a load balancer, route each user to one node (sticky
+ * sessions keyed on the user), or a device may miss changes made through another node.
+ */
+@Service
+public class MealEventStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealEventStreamService.class);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DailyNutritionTotalService dailyNutritionTotalService;
+
+    @Autowired
+    private ExecutorMetrics executorMetrics;
+
+    @Value("${meals.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${meals.events.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    @Value("${meals.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${meals.events.max-pending-per-stream:100}")
+    private int maxPendingPerStream;
+
+    @Value("${meals.events.pool.size:2}")
+    private int poolSize;
+
+    @Value("${meals.events.pool.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor executor;
+
+    // User id -> open streams, oldest first
+    private final Map<Long, List<Stream>> streams = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("meal-events-");
+        executor.initialize();
+        executorMetrics.monitor(executor, "meal-events");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        streams.values().forEach(userStreams -> userStreams.forEach(Stream::finish));
+    }
+
+    /**
+     * Opens a stream for the current user. Past the per-user limit the oldest stream is closed;
+     * EventSource clients reconnect on their own when a stream ends or times out.
+     */
+    public SseEmitter subscribe() {
+        Long userId = userService.getCurrentUserId();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Stream stream = new Stream(userId, emitter);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(error -> remove(stream));
+
+        List<Stream> evicted = new ArrayList<>();
+        streams.compute(userId, (id, current) -> {
+            List<Stream> userStreams = current != null ? current : new CopyOnWriteArrayList<>();
+            userStreams.add(stream);
+            while (userStreams.size() > maxStreamsPerUser) {
+                evicted.add(userStreams.remove(0));
+            }
+            return userStreams;
+        });
+        evicted.forEach(this::close);
+
+        try {
+            // Commits the response headers so the client sees the stream open right away
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            remove(stream);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        List<Stream> userStreams = streams.get(event.getUserId());
+        if (userStreams == null || userStreams.isEmpty() || event.isImported()) {
+            return;
+        }
+        try {
+            executor.execute(() -> push(event));
+        } catch (TaskRejectedException e) {
+            logger.warn("Meal event pool saturated, dropping update of meal {}", event.getMealId());
+        }
+    }
+
+    /**
+     * Needs no read of its own, so it is queued right away rather than through a pool task.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealsImported(MealsImportedEvent event) {
+        List<Stream> userStreams = streams.get(event.getUserId());
+        if (userStreams == null || userStreams.isEmpty()) {
+            return;
+        }
+        MealImportNotification notification = new MealImportNotification(event.getMealCount(),
+                event.getFromDate(), event.getToDate());
+        for (Stream stream : userStreams) {
+            enqueue(stream, SseEmitter.event()
+                    .name("meals-imported")
+                    .data(notification, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Only queues a ping per stream, so the sweep never waits on a client; closes stuck streams first.
+     */
+    @Scheduled(fixedDelayString = "${meals.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        streams.values().forEach(userStreams -> {
+            for (Stream stream : userStreams) {
+                long sendingSince = stream.sendingSince;
+                if (sendingSince != 0 && now - sendingSince > sendTimeoutMs * 1_000_000L) {
+                    logger.info("Closing meal event stream of user {}: send blocked for over {} ms",
+                            stream.userId, sendTimeoutMs);
+                    close(stream);
+                } else {
+                    enqueue(stream, SseEmitter.event().comment("ping"));
+                }
+            }
+        });
+    }
+
+    int getStreamCount(Long userId) {
+        List<Stream> userStreams = streams.get(userId);
+        return userStreams != null ? userStreams.size() : 0;
+    }
+
+    private void push(MealChangedEvent event) {
+        List<Stream> userStreams = streams.get(event.getUserId());
+        if (userStreams == null || userStreams.isEmpty()) {
+            return;
+        }
+
+        // One read per change, shared by all of the user's streams
+        NutritionTotals dayTotals = new NutritionTotals();
+        for (DailyNutritionTotal total : dailyNutritionTotalService.getTotals(
+                event.getUserId(), event.getMealDate(), event.getMealDate())) {
+            dayTotals = new NutritionTotals(total.getCalories(), total.getProtein(), total.getCarbohydrates(),
+                    total.getFat(), total.getFiber(), total.getSugar(), total.getSodium());
+        }
+        MealChangeNotification notification = new MealChangeNotification(event.getType(), event.getMealId(),
+                event.getMealDate(), event.getDelta(), dayTotals);
+
+        for (Stream stream : userStreams) {
+            enqueue(stream, SseEmitter.event()
+                    .name("meal")
+                    .data(notification, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Queues the event and starts a drain task unless one is already running for the stream.
+     */
+    private void enqueue(Stream stream, SseEmitter.SseEventBuilder event) {
+        if (stream.closed) {
+            return;
+        }
+        if (stream.queued.get() >= maxPendingPerStream) {
+            logger.info("Closing meal event stream of user {}: {} events pending", stream.userId, maxPendingPerStream);
+            close(stream);
+            return;
+        }
+
+        stream.pending.add(event);
+        if (stream.queued.getAndIncrement() == 0) {
+            try {
+                executor.execute(() -> drain(stream));
+            } catch (TaskRejectedException e) {
+                logger.warn("Meal event pool saturated, closing a stream of user {}", stream.userId);
+                close(stream);
+                stream.finish();
+            }
+        }
+    }
+
+    private void drain(Stream stream) {
+        do {
+            SseEmitter.SseEventBuilder event = stream.pending.poll();
+            if (stream.closed) {
+                continue;
+            }
+            stream.sendingSince = System.nanoTime();
+            try {
+                stream.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already completed
+                remove(stream);
+                stream.closed = true;
+            } finally {
+                stream.sendingSince = 0;
+            }
+        } while (stream.queued.decrementAndGet() > 0);
+
+        if (stream.closed) {
+            stream.finish();
+        }
+    }
+
+    /**
+     * Stops sending to the stream. An idle stream is completed right away; otherwise its drain task
+     * completes it once the current send returns, since completing waits for that send.
+     */
+    private void close(Stream stream) {
+        stream.closed = true;
+        remove(stream);
+        if (stream.queued.get() == 0) {
+            stream.finish();
+        }
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.userId, (id, userStreams) -> {
+            userStreams.remove(stream);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private static final class Stream {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        // Events queued or being sent; the task that raises it from zero drains the queue
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        // System.nanoTime() when the current send started, 0 while idle
+        private volatile long sendingSince;
+        private volatile boolean closed;
+
+        private Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
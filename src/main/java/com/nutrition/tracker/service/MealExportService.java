@@ -0,0 +1,217 @@
+package com.nutrition.tracker.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.tracker.exception.TooManyRequestsException;
+import com.nutrition.tracker.repository.MealExportReader;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full meal history exports, one row per meal item, in CSV or newline-delimited JSON.
+ * Rows are written to the response while they are read from a streaming JDBC cursor, so an export
+ * uses constant memory and the first bytes go out before the query has finished. The CSV header
+ * starts with the columns {@link MealImportService} reads, so an export can be imported again.
+ * Each running export holds an async request thread and a database connection until it is done,
+ * so only {@code meals.export.max-concurrent} run at once and further requests get 429.
+ */
+@Service
+public class MealExportService {
+
+    private static final String CSV_HEADER = "date,meal_type,food,quantity,unit,servings,notes," +
+            "meal_id,food_id,brand,calories,protein,carbohydrates,fat,fiber,sugar,sodium";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    @Autowired
+    private MealExportReader mealExportReader;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${meals.export.max-concurrent:3}")
+    private int maxConcurrentExports;
+
+    private Semaphore exportSlots;
+
+    @PostConstruct
+    public void init() {
+        exportSlots = new Semaphore(maxConcurrentExports);
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Unsupported export format '" + value + "'; use csv or ndjson");
+        }
+    }
+
+    /**
+     * Resolves the current user and takes an export slot now, on the request thread, so a refusal is
+     * still a plain 429. Returns a body that streams their history when the response is written and
+     * frees the slot when it is done.
+     */
+    public StreamingResponseBody export(Format format, boolean gzip) {
+        Long userId = userService.getCurrentUserId();
+        if (!exportSlots.tryAcquire()) {
+            throw new TooManyRequestsException("Too many exports in progress, please try again shortly",
+                    RETRY_AFTER_SECONDS);
+        }
+        return out -> {
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+                if (format == Format.CSV) {
+                    writeCsv(userId, target);
+                } else {
+                    writeNdjson(userId, target);
+                }
+                if (target instanceof GZIPOutputStream compressed) {
+                    compressed.finish();
+                }
+            } finally {
+                exportSlots.release();
+            }
+        };
+    }
+
+    void writeCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        StringBuilder line = new StringBuilder(256);
+        forEachRow(userId, row -> {
+            line.setLength(0);
+            appendField(line, row.mealDate().toString()).append(',');
+            appendField(line, row.mealType()).append(',');
+            appendField(line, row.foodName()).append(',');
+            appendNumber(line, row.quantity()).append(',');
+            appendField(line, row.quantityUnit()).append(',');
+            appendNumber(line, row.servings()).append(',');
+            appendField(line, row.notes()).append(',');
+            line.append(row.mealId()).append(',');
+            line.append(row.foodId() != null ? row.foodId().toString() : "").append(',');
+            appendField(line, row.brand()).append(',');
+            appendNumber(line, row.calories()).append(',');
+            appendNumber(line, row.protein()).append(',');
+            appendNumber(line, row.carbohydrates()).append(',');
+            appendNumber(line, row.fat()).append(',');
+            appendNumber(line, row.fiber()).append(',');
+            appendNumber(line, row.sugar()).append(',');
+            appendNumber(line, row.sodium()).append("\r\n");
+            writer.append(line);
+        });
+        writer.flush();
+    }
+
+    void writeNdjson(Long userId, OutputStream out) throws IOException {
+        // Closing the generator would close the response stream; it is only flushed
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        forEachRow(userId, row -> {
+            json.writeStartObject();
+            json.writeNumberField("mealId", row.mealId());
+            json.writeStringField("date", row.mealDate().toString());
+            json.writeStringField("mealType", row.mealType());
+            json.writeStringField("notes", row.notes());
+            writeNumberField(json, "foodId", row.foodId());
+            json.writeStringField("food", row.foodName());
+            json.writeStringField("brand", row.brand());
+            writeNumberField(json, "quantity", row.quantity());
+            json.writeStringField("unit", row.quantityUnit());
+            writeNumberField(json, "servings", row.servings());
+            writeNumberField(json, "calories", row.calories());
+            writeNumberField(json, "protein", row.protein());
+            writeNumberField(json, "carbohydrates", row.carbohydrates());
+            writeNumberField(json, "fat", row.fat());
+            writeNumberField(json, "fiber", row.fiber());
+            writeNumberField(json, "sugar", row.sugar());
+            writeNumberField(json, "sodium", row.sodium());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        });
+        json.flush();
+    }
+
+    private void forEachRow(Long userId, RowWriter writer) throws IOException {
+        try {
+            mealExportReader.forEachRow(userId, row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    // Usually the client went away; ends the export
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static StringBuilder appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static StringBuilder appendNumber(StringBuilder line, Double value) {
+        return value != null ? line.append(value.doubleValue()) : line;
+    }
+
+    private static void writeNumberField(JsonGenerator json, String name, Number value) throws IOException {
+        if (value == null) {
+            json.writeNullField(name);
+        } else if (value instanceof Long id) {
+            json.writeNumberField(name, id);
+        } else {
+            json.writeNumberField(name, value.doubleValue());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(MealExportReader.ExportRow row) throws IOException;
+    }
+}
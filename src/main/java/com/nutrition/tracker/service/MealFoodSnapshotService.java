@@ -0,0 +1,59 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.repository.MealFoodRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Backfills the nutrient snapshot of meal items written before items carried one.
+ * New items always get their snapshot at write time, so this only has work to do once, after
+ * the columns are added; later runs find nothing to fill and finish after one range scan.
+ */
+@Service
+public class MealFoodSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealFoodSnapshotService.class);
+
+    @Autowired
+    private MealFoodRepository mealFoodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${meal-foods.snapshot-backfill.chunk-size:5000}")
+    private int chunkSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+
+    /**
+     * Fills missing snapshots in primary key ranges of {@code chunk-size} ids, one transaction per
+     * range so that row locks are held briefly and progress survives a failure.
+     */
+    public int backfill() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long maxId = mealFoodRepository.findMaxId();
+        int filled = 0;
+        for (long afterId = 0; afterId < maxId; afterId += chunkSize) {
+            long toId = Math.min(afterId + chunkSize, maxId);
+            long from = afterId;
+            Integer updated = transactionTemplate.execute(status -> mealFoodRepository.backfillSnapshots(from, toId));
+            filled += updated != null ? updated : 0;
+        }
+        if (filled > 0) {
+            logger.info("Backfilled nutrient snapshots of {} meal items", filled);
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,504 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.config.ExecutorMetrics;
+import com.nutrition.tracker.dto.MealDates;
+import com.nutrition.tracker.dto.MealImportStatus;
+import com.nutrition.tracker.dto.MealRequest;
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.repository.FoodRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Imports meal history from CSV exports of other trackers.
+ * The upload is spooled to a temp file and processed in the background: the file is read one
+ * record at a time, food names are resolved against the catalog through a bounded cache, and meals
+ * are written in chunks of about {@code meal-import.chunk-size} food rows, each chunk its own transaction
+ * with batched inserts. Memory use depends on the chunk size, not on the file size.
+ *
+ * <p>Expected header (case-insensitive, any order): {@code date, meal_type, food, quantity} and
+ * optionally {@code unit, servings, notes}. Consecutive rows with the same date and meal type form
+ * one meal of at most {@code meal-import.max-items-per-meal} foods; longer runs are split into several
+ * meals. Rows that cannot be imported are counted and reported; chunks already written stay.
+ */
+@Service
+public class MealImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final int MAX_CACHED_FOOD_NAMES = 10_000;
+    private static final int NAME_QUERY_BATCH = 1000;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExecutorMetrics executorMetrics;
+
+    @Value("${meal-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${meal-import.max-items-per-meal:100}")
+    private int maxItemsPerMeal;
+
+    @Value("${meal-import.pool.size:2}")
+    private int poolSize;
+
+    @Value("${meal-import.pool.queue-capacity:10}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("meal-import-");
+        executor.initialize();
+        executorMetrics.monitor(executor, "meal-import");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public MealImportStatus startImport(MultipartFile file, String dateFormat) {
+        if (file.isEmpty()) {
+            throw new RuntimeException("File is empty");
+        }
+        DateTimeFormatter dateFormatter;
+        try {
+            dateFormatter = DateTimeFormatter.ofPattern(dateFormat);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid date format: " + dateFormat);
+        }
+
+        User user = userService.getCurrentUser();
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("meal-import-", ".csv");
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store import file: " + e.getMessage());
+        }
+
+        purgeFinishedJobs();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), user.getId(), file.getSize());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> runImport(job, user, tempFile, dateFormatter));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            deleteQuietly(tempFile);
+            throw new RuntimeException("Too many imports in progress, please try again later");
+        }
+        return job.toStatus();
+    }
+
+    public MealImportStatus getStatus(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null || !job.userId.equals(userService.getCurrentUserId())) {
+            throw new RuntimeException("Import not found");
+        }
+        return job.toStatus();
+    }
+
+    void runImport(ImportJob job, User user, Path file, DateTimeFormatter dateFormatter) {
+        job.start();
+        try (InputStream inputStream = new CountingInputStream(Files.newInputStream(file), job);
+             CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)))) {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new RuntimeException("File is empty");
+            }
+            Columns columns = Columns.of(header);
+            ChunkWriter writer = new ChunkWriter(job, user);
+
+            ImportedMeal current = null;
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                long line = csv.getLineNumber();
+                job.linesRead = line;
+
+                ImportedRow row;
+                try {
+                    row = columns.parse(record, dateFormatter, line);
+                } catch (RuntimeException e) {
+                    job.reject(line, e.getMessage());
+                    continue;
+                }
+
+                if (current == null || !current.date.equals(row.date()) || current.mealType != row.mealType()
+                        || current.rows.size() >= maxItemsPerMeal) {
+                    if (current != null) {
+                        writer.add(current);
+                    }
+                    current = new ImportedMeal(row.date(), row.mealType());
+                }
+                current.add(row);
+            }
+            if (current != null) {
+                writer.add(current);
+            }
+            writer.flush();
+            job.finish(MealImportStatus.State.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Meal import {} failed: {}", job.id, e.getMessage());
+            job.addError("Import aborted at line " + job.linesRead + ": " + e.getMessage());
+            job.finish(MealImportStatus.State.FAILED);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Collects meals until a chunk holds {@code chunkSize} food rows, then resolves their food names and
+     * writes them in one transaction. A chunk can exceed the size by less than one meal.
+     */
+    private final class ChunkWriter {
+
+        private final ImportJob job;
+        private final User user;
+        private final List<ImportedMeal> chunk = new ArrayList<>();
+        private int chunkRows;
+
+        // Lower-cased food name -> catalog food, or empty if the catalog has none
+        private final Map<String, Optional<Food>> foodCache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<Food>> eldest) {
+                return size() > MAX_CACHED_FOOD_NAMES;
+            }
+        };
+
+        private ChunkWriter(ImportJob job, User user) {
+            this.job = job;
+            this.user = user;
+        }
+
+        private void add(ImportedMeal meal) {
+            chunk.add(meal);
+            chunkRows += meal.rows.size();
+            if (chunkRows >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<String, Food> foods = resolveFoods();
+
+            List<MealRequest> requests = new ArrayList<>(chunk.size());
+            Map<Long, Food> foodsById = new HashMap<>();
+            long items = 0;
+            for (ImportedMeal meal : chunk) {
+                MealRequest request = new MealRequest();
+                request.setMealDate(meal.date);
+                request.setMealType(meal.mealType);
+                request.setNotes(meal.notes);
+                request.setFoods(new ArrayList<>());
+
+                for (ImportedRow row : meal.rows) {
+                    Food food = foods.get(row.foodName().toLowerCase(Locale.ROOT));
+                    if (food == null) {
+                        job.reject(row.line(), "Unknown food '" + row.foodName() + "'");
+                        continue;
+                    }
+                    MealRequest.MealFoodRequest item = new MealRequest.MealFoodRequest();
+                    item.setFoodId(food.getId());
+                    item.setQuantity(row.quantity());
+                    item.setQuantityUnit(row.unit());
+                    item.setServings(row.servings());
+                    request.getFoods().add(item);
+                    foodsById.put(food.getId(), food);
+                }
+
+                if (!request.getFoods().isEmpty()) {
+                    requests.add(request);
+                    items += request.getFoods().size();
+                }
+            }
+
+            if (!requests.isEmpty()) {
+                mealService.importMeals(user, requests, foodsById);
+            }
+            job.mealsImported += requests.size();
+            job.itemsImported += items;
+            chunk.clear();
+            chunkRows = 0;
+        }
+
+        /**
+         * Returns the chunk's foods by lower-cased name, querying the catalog only for names the
+         * cache has not seen. When several foods share a name the oldest wins.
+         */
+        private Map<String, Food> resolveFoods() {
+            Map<String, Food> resolved = new HashMap<>();
+            Set<String> missing = new HashSet<>();
+            for (ImportedMeal meal : chunk) {
+                for (ImportedRow row : meal.rows) {
+                    String name = row.foodName().toLowerCase(Locale.ROOT);
+                    Optional<Food> cached = foodCache.get(name);
+                    if (cached != null) {
+                        cached.ifPresent(food -> resolved.put(name, food));
+                    } else {
+                        missing.add(name);
+                    }
+                }
+            }
+
+            List<String> names = new ArrayList<>(missing);
+            for (int from = 0; from < names.size(); from += NAME_QUERY_BATCH) {
+                List<String> batch = names.subList(from, Math.min(names.size(), from + NAME_QUERY_BATCH));
+                for (Food food : foodRepository.findByNameInOrderById(batch)) {
+                    resolved.putIfAbsent(food.getName().toLowerCase(Locale.ROOT), food);
+                }
+            }
+            for (String name : missing) {
+                foodCache.put(name, Optional.ofNullable(resolved.get(name)));
+            }
+            return resolved;
+        }
+    }
+
+    /**
+     * Header positions of the known columns.
+     */
+    private record Columns(int date, int mealType, int food, int quantity, int unit, int servings, int notes) {
+
+        static Columns of(List<String> header) {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_'), i);
+            }
+            for (String required : List.of("date", "meal_type", "food", "quantity")) {
+                if (!positions.containsKey(required)) {
+                    throw new RuntimeException("Missing required column '" + required + "'");
+                }
+            }
+            return new Columns(positions.get("date"), positions.get("meal_type"), positions.get("food"),
+                    positions.get("quantity"), positions.getOrDefault("unit", -1),
+                    positions.getOrDefault("servings", -1), positions.getOrDefault("notes", -1));
+        }
+
+        ImportedRow parse(List<String> record, DateTimeFormatter dateFormatter, long line) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(field(record, date()), dateFormatter);
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Invalid date '" + field(record, date()) + "'");
+            }
+            if (!MealDates.isAllowed(date)) {
+                throw new RuntimeException(MealDates.MESSAGE);
+            }
+
+            Meal.MealType type;
+            try {
+                type = Meal.MealType.valueOf(field(record, mealType()).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Invalid meal type '" + field(record, mealType()) + "'");
+            }
+
+            String foodName = field(record, food());
+            if (foodName.isEmpty()) {
+                throw new RuntimeException("Food is required");
+            }
+
+            String servingsValue = field(record, servings());
+            return new ImportedRow(line, date, type, foodName, number(field(record, quantity()), "quantity"),
+                    emptyToNull(field(record, unit())),
+                    servingsValue.isEmpty() ? null : number(servingsValue, "servings"),
+                    emptyToNull(field(record, notes())));
+        }
+
+        private static String field(List<String> record, int index) {
+            return index >= 0 && index < record.size() ? record.get(index).trim() : "";
+        }
+
+        private static Double number(String value, String column) {
+            try {
+                double number = Double.parseDouble(value);
+                if (!Double.isFinite(number) || number < 0) {
+                    throw new NumberFormatException();
+                }
+                return number;
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid " + column + " '" + value + "'");
+            }
+        }
+
+        private static String emptyToNull(String value) {
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    private record ImportedRow(long line, LocalDate date, Meal.MealType mealType, String foodName,
+                               Double quantity, String unit, Double servings, String notes) {
+    }
+
+    private static final class ImportedMeal {
+
+        private final LocalDate date;
+        private final Meal.MealType mealType;
+        private final List<ImportedRow> rows = new ArrayList<>();
+        private String notes;
+
+        private ImportedMeal(LocalDate date, Meal.MealType mealType) {
+            this.date = date;
+            this.mealType = mealType;
+        }
+
+        private void add(ImportedRow row) {
+            rows.add(row);
+            if (notes == null) {
+                notes = row.notes();
+            }
+        }
+    }
+
+    /**
+     * Progress of one import. Written only by the worker thread, read by status requests.
+     */
+    static final class ImportJob {
+
+        private final String id;
+        private final Long userId;
+        private final long totalBytes;
+        private volatile MealImportStatus.State state = MealImportStatus.State.QUEUED;
+        private volatile long bytesRead;
+        private volatile long linesRead;
+        private volatile long mealsImported;
+        private volatile long itemsImported;
+        private volatile long rowsRejected;
+        private final List<String> errors = new ArrayList<>();
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, Long userId, long totalBytes) {
+            this.id = id;
+            this.userId = userId;
+            this.totalBytes = totalBytes;
+        }
+
+        private void start() {
+            startedAt = LocalDateTime.now();
+            state = MealImportStatus.State.RUNNING;
+        }
+
+        private void finish(MealImportStatus.State finalState) {
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        private void reject(long line, String reason) {
+            rowsRejected++;
+            addError("Line " + line + ": " + reason);
+        }
+
+        private void addError(String error) {
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        MealImportStatus toStatus() {
+            List<String> reportedErrors;
+            synchronized (errors) {
+                reportedErrors = new ArrayList<>(errors);
+            }
+            return new MealImportStatus(id, state, totalBytes, bytesRead, linesRead, mealsImported, itemsImported,
+                    rowsRejected, reportedErrors, startedAt, finishedAt);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final ImportJob job;
+
+        private CountingInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                job.bytesRead += read;
+            }
+            return read;
+        }
+    }
+}
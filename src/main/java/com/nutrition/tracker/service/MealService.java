@@ -1,21 +1,56 @@
 package com.nutrition.tracker.service;
 
+import com.nutrition.tracker.dto.DailyNutritionSummary;
+import com.nutrition.tracker.dto.MealBatchRequest;
+import com.nutrition.tracker.dto.MealBatchResult;
+import com.nutrition.tracker.dto.MealDates;
+import com.nutrition.tracker.dto.MealFeedPage;
 import com.nutrition.tracker.dto.MealRequest;
+import com.nutrition.tracker.dto.MealTypeNutritionRow;
+import com.nutrition.tracker.dto.MealView;
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.entity.DailyNutritionTotal;
 import com.nutrition.tracker.entity.Food;
 import com.nutrition.tracker.entity.Meal;
 import com.nutrition.tracker.entity.MealFood;
 import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.event.MealsImportedEvent;
 import com.nutrition.tracker.repository.FoodRepository;
+import com.nutrition.tracker.repository.MealBatchWriter;
 import com.nutrition.tracker.repository.MealRepository;
+import com.nutrition.tracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MealService {
 
+    // Longest range a meal, day or template can be copied onto in one request
+    public static final int MAX_COPY_DAYS = 366;
+
+    // Longest range of daily summaries per request; one summary is built for every day
+    public static final int MAX_SUMMARY_DAYS = 366;
+
     @Autowired
     private MealRepository mealRepository;
 
@@ -25,20 +60,326 @@ public class MealService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DailyNutritionTotalService dailyNutritionTotalService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MealBatchWriter mealBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${meals.feed.default-page-size:20}")
+    private int defaultFeedPageSize;
+
+    @Value("${meals.feed.max-page-size:100}")
+    private int maxFeedPageSize;
+
     @Transactional
     public Meal createMeal(MealRequest request) {
+        if (!MealDates.isAllowed(request.getMealDate())) {
+            throw new RuntimeException(MealDates.MESSAGE);
+        }
+        User user = userService.getCurrentUser();
+        Map<Long, Food> foods = findFoods(List.of(request));
+        if (!hasAllFoods(request, foods)) {
+            throw new RuntimeException("Food not found");
+        }
+
+        PendingMeal pending = buildMeal(user, request, null, foods);
+        mealBatchWriter.insertMeals(List.of(pending.meal()));
+        mealBatchWriter.insertMealFoods(pending.meal().getMealFoods());
+
+        dailyNutritionTotalService.applyDelta(user.getId(), request.getMealDate(), pending.totals());
+        publishMealChanged(MealChangedEvent.ChangeType.CREATED, user, pending.meal(), pending.totals());
+        return pending.meal();
+    }
+
+    /**
+     * Applies queued creates and deletes from an offline client in one transaction.
+     * Creates are idempotent by client ID: replaying an operation whose meal already exists
+     * reports {@code ALREADY_APPLIED}. Invalid operations are rejected individually and the rest
+     * are still applied. Existing meals and foods are read with one query each, and all new meals
+     * and items are written with one batched statement per table.
+     */
+    @Transactional
+    public List<MealBatchResult> applyBatch(MealBatchRequest request) {
+        User user = userService.getCurrentUser();
+        List<MealBatchRequest.Operation> operations = request.getOperations();
+
+        Set<String> clientIds = new HashSet<>();
+        Set<Long> mealIds = new HashSet<>();
+        List<MealRequest> creates = new ArrayList<>();
+        for (MealBatchRequest.Operation operation : operations) {
+            if (operation.getType() == MealBatchRequest.OperationType.DELETE && operation.getMealId() != null) {
+                mealIds.add(operation.getMealId());
+            } else {
+                clientIds.add(operation.getClientId());
+            }
+            if (operation.getType() == MealBatchRequest.OperationType.CREATE && operation.getMeal() != null) {
+                creates.add(operation.getMeal());
+            }
+        }
+
+        // Client ID -> meal it currently names: stored meals first, then meals created by this batch
+        Map<String, Meal> mealsByClientId = new HashMap<>();
+        Map<Long, Meal> mealsById = new HashMap<>();
+        if (!clientIds.isEmpty()) {
+            for (Meal meal : mealRepository.findByUserAndClientIdInWithFoods(user, clientIds)) {
+                mealsByClientId.put(meal.getClientId(), meal);
+            }
+        }
+        if (!mealIds.isEmpty()) {
+            for (Meal meal : mealRepository.findByUserAndIdInWithFoods(user, mealIds)) {
+                mealsById.put(meal.getId(), meal);
+            }
+        }
+        Map<Long, Food> foods = findFoods(creates);
+
+        List<MealBatchResult> results = new ArrayList<>(operations.size());
+        Map<String, PendingMeal> pendingByClientId = new HashMap<>();
+        List<PendingMeal> pendingMeals = new ArrayList<>();
+        List<Meal> deletedMeals = new ArrayList<>();
+
+        for (MealBatchRequest.Operation operation : operations) {
+            String clientId = operation.getClientId();
+            MealBatchResult result = new MealBatchResult();
+            result.setClientId(clientId);
+            result.setType(operation.getType());
+            results.add(result);
+
+            if (operation.getType() == MealBatchRequest.OperationType.CREATE) {
+                Meal existing = mealsByClientId.get(clientId);
+                if (existing != null) {
+                    result.setStatus(MealBatchResult.Status.ALREADY_APPLIED);
+                    result.setMeal(existing);
+                } else if (operation.getMeal() == null) {
+                    reject(result, "Meal is required");
+                } else if (!MealDates.isAllowed(operation.getMeal().getMealDate())) {
+                    reject(result, MealDates.MESSAGE);
+                } else if (!hasAllFoods(operation.getMeal(), foods)) {
+                    reject(result, "Food not found");
+                } else {
+                    PendingMeal pending = buildMeal(user, operation.getMeal(), clientId, foods);
+                    pendingMeals.add(pending);
+                    pendingByClientId.put(clientId, pending);
+                    mealsByClientId.put(clientId, pending.meal());
+                    result.setStatus(MealBatchResult.Status.CREATED);
+                    result.setMeal(pending.meal());
+                }
+                continue;
+            }
+
+            Meal target = operation.getMealId() != null
+                    ? mealsById.remove(operation.getMealId())
+                    : mealsByClientId.get(clientId);
+            if (target == null) {
+                result.setStatus(MealBatchResult.Status.NOT_FOUND);
+                continue;
+            }
+
+            mealsByClientId.remove(target.getClientId());
+            PendingMeal pending = pendingByClientId.get(target.getClientId());
+            if (pending != null && pending.meal() == target) {
+                // Created earlier in this batch: simply never write it
+                pendingByClientId.remove(target.getClientId());
+                pendingMeals.removeIf(candidate -> candidate == pending);
+            } else {
+                mealsById.remove(target.getId());
+                deletedMeals.add(target);
+            }
+            result.setStatus(MealBatchResult.Status.DELETED);
+            result.setMealId(target.getId());
+        }
+
+        // Deletes go first so a client ID freed by this batch can be reused by a create in it
+        Map<LocalDate, NutritionTotals> deltas = new HashMap<>();
+        if (!deletedMeals.isEmpty()) {
+            mealRepository.deleteAll(deletedMeals);
+            mealRepository.flush();
+        }
+
+        for (Meal meal : deletedMeals) {
+            NutritionTotals delta = totalsOf(meal).negate();
+            deltas.computeIfAbsent(meal.getMealDate(), date -> new NutritionTotals()).add(delta);
+            publishMealChanged(MealChangedEvent.ChangeType.DELETED, user, meal, delta);
+        }
+        insertMeals(user, pendingMeals, deltas, false);
+        deltas.forEach((date, delta) -> dailyNutritionTotalService.applyDelta(user.getId(), date, delta));
+
+        for (MealBatchResult result : results) {
+            if (result.getMeal() != null) {
+                result.setMealId(result.getMeal().getId());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Writes meals for the given user in one transaction with batched inserts. The caller must have
+     * checked that every referenced food is present in {@code foods}. Used by bulk import, which
+     * runs outside any request and therefore passes the user explicitly. Besides the per-meal events,
+     * publishes one {@link MealsImportedEvent} for the whole call.
+     */
+    @Transactional
+    public void importMeals(User user, List<MealRequest> requests, Map<Long, Food> foods) {
+        List<PendingMeal> pendingMeals = new ArrayList<>(requests.size());
+        for (MealRequest request : requests) {
+            pendingMeals.add(buildMeal(user, request, null, foods));
+        }
+
+        Map<LocalDate, NutritionTotals> deltas = new HashMap<>();
+        insertMeals(user, pendingMeals, deltas, true);
+        deltas.forEach((date, delta) -> dailyNutritionTotalService.applyDelta(user.getId(), date, delta));
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new MealsImportedEvent(user.getId(), pendingMeals.size(),
+                    Collections.min(deltas.keySet()), Collections.max(deltas.keySet())));
+        }
+    }
+
+    /**
+     * Copies one meal with its items onto every date from {@code startDate} to {@code endDate}.
+     */
+    @Transactional
+    public List<MealView> copyMeal(Long mealId, LocalDate startDate, LocalDate endDate) {
+        CopyTarget target = startCopy(startDate, endDate);
+        if (mealRepository.copyMealToDates(target.user().getId(), mealId, startDate, target.endDate()) == 0) {
+            throw new RuntimeException("Meal not found");
+        }
+        mealRepository.copyItemsOfCopiedMeals(target.user().getId(), target.afterId());
+        return finishCopy(target);
+    }
+
+    /**
+     * Copies every meal of {@code sourceDate} with its items onto each date of the range.
+     */
+    @Transactional
+    public List<MealView> copyDay(LocalDate sourceDate, LocalDate startDate, LocalDate endDate) {
+        CopyTarget target = startCopy(startDate, endDate);
+        if (mealRepository.copyDayToDates(target.user().getId(), sourceDate, startDate, target.endDate()) == 0) {
+            return List.of();
+        }
+        mealRepository.copyItemsOfCopiedMeals(target.user().getId(), target.afterId());
+        return finishCopy(target);
+    }
+
+    /**
+     * Creates one meal from the template on each date of the range. Nutrient snapshots are taken
+     * from the foods' current values.
+     */
+    @Transactional
+    public List<MealView> applyTemplate(Long templateId, LocalDate startDate, LocalDate endDate) {
+        CopyTarget target = startCopy(startDate, endDate);
+        if (mealRepository.insertTemplateMeals(target.user().getId(), templateId, startDate, target.endDate()) == 0) {
+            throw new RuntimeException("Template not found");
+        }
+        mealRepository.insertItemsOfTemplateMeals(target.user().getId(), target.afterId());
+        return finishCopy(target);
+    }
+
+    /**
+     * Validates the range, serializes the user's copies and notes the id after which this copy's
+     * meals will be. Copies then run as a few INSERT ... SELECT statements, whatever their size.
+     */
+    private CopyTarget startCopy(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : startDate;
+        if (end.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, end) + 1 > MAX_COPY_DAYS) {
+            throw new RuntimeException("Cannot copy onto more than " + MAX_COPY_DAYS + " days at once");
+        }
+        if (!MealDates.isAllowed(startDate) || !MealDates.isAllowed(end)) {
+            throw new RuntimeException(MealDates.MESSAGE);
+        }
+
         User user = userService.getCurrentUser();
+        userRepository.findByIdForUpdate(user.getId());
+        long afterId = mealRepository.findMaxIdForShare(user.getId());
+        return new CopyTarget(user, startDate, end, afterId);
+    }
+
+    /**
+     * Rebuilds the range's daily totals, publishes each new meal and returns them newest first.
+     */
+    private List<MealView> finishCopy(CopyTarget target) {
+        User user = target.user();
+        List<Long> ids = mealRepository.findCopiedIdsAfter(user.getId(), target.afterId());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        dailyNutritionTotalService.rebuild(user.getId(), target.startDate(), target.endDate());
+
+        List<MealView> meals = toMealViews(mealRepository.findFlatRowsByIdInNewestFirst(ids));
+        for (MealView meal : meals) {
+            NutritionTotals delta = new NutritionTotals();
+            List<Long> foodIds = new ArrayList<>(meal.getMealFoods().size());
+            for (MealView.MealFoodView item : meal.getMealFoods()) {
+                delta.add(totalsOf(item));
+                foodIds.add(item.getFood().getId());
+            }
+            eventPublisher.publishEvent(new MealChangedEvent(MealChangedEvent.ChangeType.CREATED, user.getId(),
+                    user.getUsername(), meal.getId(), meal.getMealDate(), delta, foodIds, false));
+        }
+        return meals;
+    }
+
+    private record CopyTarget(User user, LocalDate startDate, LocalDate endDate, long afterId) {
+    }
+
+    /**
+     * Loads every food referenced by the requests with one query. Unknown ids are simply absent.
+     */
+    private Map<Long, Food> findFoods(List<MealRequest> requests) {
+        Set<Long> ids = new HashSet<>();
+        for (MealRequest request : requests) {
+            if (request.getFoods() != null) {
+                for (MealRequest.MealFoodRequest foodRequest : request.getFoods()) {
+                    ids.add(foodRequest.getFoodId());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Food> foods = new HashMap<>();
+        for (Food food : foodRepository.findAllById(ids)) {
+            foods.put(food.getId(), food);
+        }
+        return foods;
+    }
+
+    private boolean hasAllFoods(MealRequest request, Map<Long, Food> foods) {
+        if (request.getFoods() != null) {
+            for (MealRequest.MealFoodRequest foodRequest : request.getFoods()) {
+                if (!foods.containsKey(foodRequest.getFoodId())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 
+    /**
+     * Builds an unsaved meal with its items. Meals are written through {@link MealBatchWriter},
+     * one multi-row INSERT per table, because IDENTITY ids rule out Hibernate insert batching.
+     */
+    private PendingMeal buildMeal(User user, MealRequest request, String clientId, Map<Long, Food> foods) {
         Meal meal = new Meal();
         meal.setUser(user);
         meal.setMealType(request.getMealType());
         meal.setMealDate(request.getMealDate());
         meal.setNotes(request.getNotes());
+        meal.setClientId(clientId);
 
-        if (request.getFoods() != null && !request.getFoods().isEmpty()) {
+        NutritionTotals totals = new NutritionTotals();
+        if (request.getFoods() != null) {
             for (MealRequest.MealFoodRequest foodRequest : request.getFoods()) {
-                Food food = foodRepository.findById(foodRequest.getFoodId())
-                        .orElseThrow(() -> new RuntimeException("Food not found"));
+                Food food = foods.get(foodRequest.getFoodId());
 
                 MealFood mealFood = new MealFood();
                 mealFood.setMeal(meal);
@@ -47,11 +388,135 @@ public class MealService {
                 mealFood.setQuantityUnit(foodRequest.getQuantityUnit());
                 mealFood.setServings(foodRequest.getServings());
 
+                NutritionTotals nutrients = NutritionTotals.of(food, foodRequest.getServings());
+                mealFood.setCalories(nutrients.getCalories());
+                mealFood.setProtein(nutrients.getProtein());
+                mealFood.setCarbohydrates(nutrients.getCarbohydrates());
+                mealFood.setFat(nutrients.getFat());
+                mealFood.setFiber(nutrients.getFiber());
+                mealFood.setSugar(nutrients.getSugar());
+                mealFood.setSodium(nutrients.getSodium());
+
                 meal.getMealFoods().add(mealFood);
+                totals.add(nutrients);
+            }
+        }
+        return new PendingMeal(meal, totals);
+    }
+
+    /**
+     * Inserts the meals and their items with one batch per table, adds their totals to the per-date
+     * deltas and publishes their creation.
+     */
+    private void insertMeals(User user, List<PendingMeal> pendingMeals, Map<LocalDate, NutritionTotals> deltas,
+                             boolean imported) {
+        List<Meal> newMeals = new ArrayList<>(pendingMeals.size());
+        List<MealFood> newItems = new ArrayList<>();
+        for (PendingMeal pending : pendingMeals) {
+            newMeals.add(pending.meal());
+            newItems.addAll(pending.meal().getMealFoods());
+        }
+        mealBatchWriter.insertMeals(newMeals);
+        mealBatchWriter.insertMealFoods(newItems);
+
+        for (PendingMeal pending : pendingMeals) {
+            deltas.computeIfAbsent(pending.meal().getMealDate(), date -> new NutritionTotals()).add(pending.totals());
+            publishMealChanged(MealChangedEvent.ChangeType.CREATED, user, pending.meal(), pending.totals(), imported);
+        }
+    }
+
+    /**
+     * Folds flat rows, ordered by meal, into meal views. Each food becomes one shared view instance.
+     */
+    private List<MealView> toMealViews(List<Object[]> rows) {
+        List<MealView> meals = new ArrayList<>();
+        Map<Long, MealView.FoodView> foods = new HashMap<>();
+        Long currentId = null;
+        Object[] mealRow = null;
+        List<MealView.MealFoodView> items = null;
+
+        for (Object[] row : rows) {
+            Long mealId = (Long) row[0];
+            if (!mealId.equals(currentId)) {
+                if (mealRow != null) {
+                    meals.add(toMealView(mealRow, items));
+                }
+                currentId = mealId;
+                mealRow = row;
+                items = new ArrayList<>();
+            }
+            if (row[7] != null) {
+                MealView.FoodView food = foods.computeIfAbsent((Long) row[11], id -> toFoodView(row));
+                items.add(new MealView.MealFoodView((Long) row[7], food, (Double) row[8], (String) row[9],
+                        (Double) row[10], (Double) row[31], (Double) row[32], (Double) row[33],
+                        (Double) row[34], (Double) row[35], (Double) row[36], (Double) row[37]));
+            }
+        }
+        if (mealRow != null) {
+            meals.add(toMealView(mealRow, items));
+        }
+        return meals;
+    }
+
+    private static MealView toMealView(Object[] row, List<MealView.MealFoodView> items) {
+        return new MealView((Long) row[0], (Meal.MealType) row[1], (LocalDate) row[2], (String) row[3],
+                (String) row[4], List.copyOf(items), (LocalDateTime) row[5], (LocalDateTime) row[6]);
+    }
+
+    private static MealView.FoodView toFoodView(Object[] row) {
+        return new MealView.FoodView((Long) row[11], (String) row[12], (String) row[13], (String) row[14],
+                (String) row[15], (String) row[16], (Double) row[17], (String) row[18], (Double) row[19],
+                (Double) row[20], (Double) row[21], (Double) row[22], (Double) row[23], (Double) row[24],
+                (Double) row[25], (Double) row[26], (String) row[27], (Food.FoodSource) row[28],
+                (LocalDateTime) row[29], (LocalDateTime) row[30]);
+    }
+
+    /**
+     * Sum of the items' snapshots, so a delete subtracts exactly what was added even if a food
+     * has been corrected since. Items the backfill has not reached fall back to the food.
+     */
+    private NutritionTotals totalsOf(Meal meal) {
+        NutritionTotals totals = new NutritionTotals();
+        for (MealFood mealFood : meal.getMealFoods()) {
+            if (mealFood.getCalories() != null) {
+                totals.add(new NutritionTotals(mealFood.getCalories(), mealFood.getProtein(),
+                        mealFood.getCarbohydrates(), mealFood.getFat(), mealFood.getFiber(),
+                        mealFood.getSugar(), mealFood.getSodium()));
+            } else {
+                totals.add(NutritionTotals.of(mealFood.getFood(), mealFood.getServings()));
             }
         }
+        return totals;
+    }
+
+    private static NutritionTotals totalsOf(MealView.MealFoodView item) {
+        if (item.getCalories() == null) {
+            return NutritionTotals.of(item.getFood(), item.getServings());
+        }
+        return new NutritionTotals(item.getCalories(), item.getProtein(), item.getCarbohydrates(),
+                item.getFat(), item.getFiber(), item.getSugar(), item.getSodium());
+    }
+
+    private void publishMealChanged(MealChangedEvent.ChangeType type, User user, Meal meal, NutritionTotals delta) {
+        publishMealChanged(type, user, meal, delta, false);
+    }
+
+    private void publishMealChanged(MealChangedEvent.ChangeType type, User user, Meal meal, NutritionTotals delta,
+                                    boolean imported) {
+        List<Long> foodIds = new ArrayList<>(meal.getMealFoods().size());
+        for (MealFood mealFood : meal.getMealFoods()) {
+            foodIds.add(mealFood.getFood().getId());
+        }
+        eventPublisher.publishEvent(new MealChangedEvent(type, user.getId(), user.getUsername(),
+                meal.getId(), meal.getMealDate(), delta, foodIds, imported));
+    }
 
-        return mealRepository.save(meal);
+    private void reject(MealBatchResult result, String error) {
+        result.setStatus(MealBatchResult.Status.REJECTED);
+        result.setError(error);
+    }
+
+    private record PendingMeal(Meal meal, NutritionTotals totals) {
     }
 
     @Transactional(readOnly = true)
@@ -61,28 +526,161 @@ public class MealService {
         return mealRepository.findByUserAndMealDateWithFoods(user, date);
     }
 
+    /**
+     * Meals in the range as immutable views, read with one flat scalar query. No entities are
+     * loaded, so there is no row de-duplication of fetch joins and no dirty-checking state.
+     */
     @Transactional(readOnly = true)
-    public List<Meal> getMealsByDateRange(LocalDate startDate, LocalDate endDate) {
+    public List<MealView> getMealsByDateRange(LocalDate startDate, LocalDate endDate) {
         User user = userService.getCurrentUser();
-        // Use JOIN FETCH query to eagerly load mealFoods and food
-        return mealRepository.findByUserAndMealDateBetweenWithFoods(user, startDate, endDate);
+        return toMealViews(mealRepository.findFlatRowsByUserAndMealDateBetween(user, startDate, endDate));
+    }
+
+    /**
+     * The given meals as views, newest first. Callers pass ids they already know to be the user's.
+     */
+    @Transactional(readOnly = true)
+    public List<MealView> getMealViews(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return toMealViews(mealRepository.findFlatRowsByIdInNewestFirst(ids));
+    }
+
+    /**
+     * One page of the user's meal history, newest first, continuing after {@code cursor} (null for
+     * the first page). Pages are found by keyset over {@code (meal_date, id)}, so deep pages cost
+     * the same as the first. Sizes above the configured maximum are capped.
+     */
+    @Transactional(readOnly = true)
+    public MealFeedPage getMealFeed(String cursor, Integer size, boolean includeTotals) {
+        int pageSize = size != null ? size : defaultFeedPageSize;
+        if (pageSize < 1) {
+            throw new RuntimeException("Page size must be positive");
+        }
+        pageSize = Math.min(pageSize, maxFeedPageSize);
+
+        User user = userService.getCurrentUser();
+        // One extra id tells whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Long> ids;
+        if (cursor == null || cursor.isEmpty()) {
+            ids = mealRepository.findFeedIds(user, limit);
+        } else {
+            FeedCursor position = decodeCursor(cursor);
+            ids = mealRepository.findFeedIdsBefore(user, position.mealDate(), position.mealId(), limit);
+        }
+
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        List<MealView> meals = ids.isEmpty()
+                ? List.of()
+                : toMealViews(mealRepository.findFlatRowsByIdInNewestFirst(ids));
+
+        String nextCursor = null;
+        if (hasMore) {
+            MealView last = meals.get(meals.size() - 1);
+            nextCursor = encodeCursor(new FeedCursor(last.getMealDate(), last.getId()));
+        }
+
+        NutritionTotals totals = null;
+        if (includeTotals) {
+            totals = new NutritionTotals();
+            for (MealView meal : meals) {
+                for (MealView.MealFoodView item : meal.getMealFoods()) {
+                    totals.add(totalsOf(item));
+                }
+            }
+        }
+        return new MealFeedPage(meals, nextCursor, totals);
+    }
+
+    /**
+     * Cursors are opaque to clients: URL-safe base64 of {@code date:id} of the last meal returned.
+     */
+    private static String encodeCursor(FeedCursor cursor) {
+        String value = cursor.mealDate() + ":" + cursor.mealId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FeedCursor decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            return new FeedCursor(LocalDate.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private record FeedCursor(LocalDate mealDate, Long mealId) {
+    }
+
+    @Transactional(readOnly = true)
+    public DailyNutritionSummary getDailySummary(LocalDate date) {
+        return getSummaryByDateRange(date, date).get(0);
+    }
+
+    /**
+     * Totals per day and meal type, computed by one aggregate query.
+     * Every day in the range is present, with zero totals for days without meals.
+     */
+    @Transactional(readOnly = true)
+    public List<DailyNutritionSummary> getSummaryByDateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) + 1 > MAX_SUMMARY_DAYS) {
+            throw new RuntimeException("Cannot summarize more than " + MAX_SUMMARY_DAYS + " days at once");
+        }
+
+        User user = userService.getCurrentUser();
+        Map<LocalDate, DailyNutritionSummary> summaries = new LinkedHashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            summaries.put(date, new DailyNutritionSummary(date));
+        }
+
+        for (MealTypeNutritionRow row : mealRepository.sumNutritionByDateAndMealType(user, startDate, endDate)) {
+            summaries.get(row.getMealDate()).addMealType(row.getMealType(), row.getTotals());
+        }
+
+        return new ArrayList<>(summaries.values());
     }
 
+    @Transactional(readOnly = true)
     public Meal getMealById(Long id) {
-        Meal meal = mealRepository.findById(id)
+        Meal meal = mealRepository.findByIdWithFoods(id)
                 .orElseThrow(() -> new RuntimeException("Meal not found"));
 
-        User currentUser = userService.getCurrentUser();
-        if (!meal.getUser().getId().equals(currentUser.getId())) {
+        if (!meal.getUser().getId().equals(userService.getCurrentUserId())) {
             throw new RuntimeException("Unauthorized access to meal");
         }
 
         return meal;
     }
 
+    @Transactional(readOnly = true)
+    public List<DailyNutritionTotal> getDailyTotals(LocalDate startDate, LocalDate endDate) {
+        return dailyNutritionTotalService.getTotals(userService.getCurrentUserId(), startDate, endDate);
+    }
+
     @Transactional
     public void deleteMeal(Long id) {
-        Meal meal = getMealById(id);
+        // Fetch the items with their foods in one query; the delta and the cascade both need them
+        Meal meal = mealRepository.findByIdWithFoods(id)
+                .orElseThrow(() -> new RuntimeException("Meal not found"));
+
+        User currentUser = userService.getCurrentUser();
+        if (!meal.getUser().getId().equals(currentUser.getId())) {
+            throw new RuntimeException("Unauthorized access to meal");
+        }
+
+        NutritionTotals delta = totalsOf(meal).negate();
         mealRepository.delete(meal);
+        dailyNutritionTotalService.applyDelta(currentUser.getId(), meal.getMealDate(), delta);
+        publishMealChanged(MealChangedEvent.ChangeType.DELETED, currentUser, meal, delta);
     }
 }
@@ -0,0 +1,71 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.MealTemplateRequest;
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.entity.MealTemplate;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.repository.MealRepository;
+import com.nutrition.tracker.repository.MealTemplateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+/**
+ * Saved meals that can be applied to any dates; see {@link MealService#applyTemplate}.
+ */
+@Service
+public class MealTemplateService {
+
+    @Autowired
+    private MealTemplateRepository mealTemplateRepository;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Saves the meal's type, notes and items under the given name. Items are copied set-based.
+     */
+    @Transactional
+    public MealTemplate createTemplate(MealTemplateRequest request) {
+        User user = userService.getCurrentUser();
+        Meal meal = mealRepository.findById(request.getMealId())
+                .orElseThrow(() -> new RuntimeException("Meal not found"));
+        if (!meal.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("Unauthorized access to meal");
+        }
+
+        MealTemplate template = new MealTemplate();
+        template.setUser(user);
+        template.setName(request.getName());
+        template.setMealType(meal.getMealType());
+        template.setNotes(meal.getNotes());
+        template = mealTemplateRepository.save(template);
+
+        mealTemplateRepository.copyItemsFromMeal(template.getId(), meal.getId());
+        return mealTemplateRepository.findByIdWithItems(template.getId())
+                .orElseThrow(() -> new RuntimeException("Template not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<MealTemplate> getTemplates() {
+        User user = userService.getCurrentUser();
+        return mealTemplateRepository.findByUserWithItems(user);
+    }
+
+    @Transactional
+    public void deleteTemplate(Long id) {
+        MealTemplate template = mealTemplateRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Template not found"));
+
+        User currentUser = userService.getCurrentUser();
+        if (!template.getUser().getId().equals(currentUser.getId())) {
+            throw new RuntimeException("Unauthorized access to template");
+        }
+
+        mealTemplateRepository.delete(template);
+    }
+}
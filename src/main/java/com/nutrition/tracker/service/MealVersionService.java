@@ -0,0 +1,79 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.event.MealChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory version of each user's meals per day, used as the ETag of per-day meal responses.
+ * A day without an entry is at version 0. Versions are bumped after a meal change commits. Tags
+ * also carry a generation id that changes on restart and whenever the map is reset at its size
+ * limit, so an old tag never matches. Keys use the username, so checking a tag needs no query.
+ * <p>
+ * Versions only see changes committed on this node. With several instances, each user must be
+ * routed to one node (sticky sessions keyed on the user, as the meal event streams also need);
+ * otherwise a node could answer 304 for a day that changed through another node.
+ */
+@Service
+public class MealVersionService {
+
+    // Distinguishes tags issued by this process from those of earlier runs
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong generations = new AtomicLong();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicReference<Generation> generation = new AtomicReference<>(newGeneration());
+
+    @Value("${meals.etag.max-entries:100000}")
+    private int maxEntries;
+
+    /**
+     * Strong ETag for the current user's meals on the given date. Callers must read it before
+     * loading the data, so a change committed in between can only make the tag older than the body.
+     */
+    public String getDayETag(LocalDate date) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Generation current = generation.get();
+        long version = current.versions().getOrDefault(new DayKey(username, date), 0L);
+        return "\"" + current.epoch() + "-" + version + "\"";
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        DayKey key = new DayKey(event.getUsername(), event.getMealDate());
+        long version = sequence.incrementAndGet();
+
+        Generation current = generation.get();
+        if (current.versions().size() >= maxEntries) {
+            // Starting a new generation invalidates every tag, which is always safe
+            generation.compareAndSet(current, newGeneration());
+            current = generation.get();
+        }
+        current.versions().put(key, version);
+        // Re-apply if a new generation was started concurrently, or this bump would be lost
+        while (generation.get() != current) {
+            current = generation.get();
+            current.versions().put(key, version);
+        }
+    }
+
+    private Generation newGeneration() {
+        return new Generation(bootId + "." + generations.incrementAndGet(), new ConcurrentHashMap<>());
+    }
+
+    private record DayKey(String username, LocalDate date) {
+    }
+
+    private record Generation(String epoch, Map<DayKey, Long> versions) {
+    }
+}
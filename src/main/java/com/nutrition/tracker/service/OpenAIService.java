@@ -2,6 +2,7 @@ package com.nutrition.tracker.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -25,6 +26,9 @@ public class OpenAIService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ExternalApiMetrics externalApiMetrics;
+
     @Value("${api.openai.key}")
     private String apiKey;
 
@@ -36,6 +40,7 @@ public class OpenAIService {
 
     @Async
     public CompletableFuture<String> analyzeImage(String base64Image) {
+        Timer.Sample sample = externalApiMetrics.start();
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -72,8 +77,10 @@ public class OpenAIService {
             }
             cleanedContent = cleanedContent.trim();
 
+            externalApiMetrics.record(sample, "openai", "analyze-image", "success");
             return CompletableFuture.completedFuture(cleanedContent);
         } catch (Exception e) {
+            externalApiMetrics.recordFailure(sample, "openai", "analyze-image", e);
             return CompletableFuture.failedFuture(e);
         }
     }
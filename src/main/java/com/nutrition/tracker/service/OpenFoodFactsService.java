@@ -3,6 +3,7 @@ package com.nutrition.tracker.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nutrition.tracker.entity.Food;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class OpenFoodFactsService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ExternalApiMetrics externalApiMetrics;
+
     @Value("${api.openfoodfacts.url}")
     private String apiUrl;
 
@@ -43,10 +47,12 @@ public class OpenFoodFactsService {
     public CompletableFuture<Food> getFoodByBarcode(String barcode) {
         logger.info("Fetching product information for barcode: {}", barcode);
 
+        Timer.Sample sample = externalApiMetrics.start();
         try {
             // Validate barcode format
             if (!isValidBarcode(barcode)) {
                 logger.warn("Invalid barcode format: {}", barcode);
+                externalApiMetrics.record(sample, "openfoodfacts", "barcode", "invalid");
                 return CompletableFuture.completedFuture(null);
             }
 
@@ -62,6 +68,7 @@ public class OpenFoodFactsService {
             int status = root.path("status").asInt();
             if (status != 1) {
                 logger.info("Product not found in Open Food Facts database: {}", barcode);
+                externalApiMetrics.record(sample, "openfoodfacts", "barcode", "not_found");
                 return CompletableFuture.completedFuture(null);
             }
 
@@ -70,20 +77,24 @@ public class OpenFoodFactsService {
             Food food = parseProductData(product, barcode);
 
             logger.info("Successfully retrieved product: {} ({})", food.getName(), barcode);
+            externalApiMetrics.record(sample, "openfoodfacts", "barcode", "success");
             return CompletableFuture.completedFuture(food);
 
         } catch (HttpClientErrorException e) {
+            externalApiMetrics.recordFailure(sample, "openfoodfacts", "barcode", e);
             logger.error("HTTP error while fetching barcode {}: {} - {}",
                         barcode, e.getStatusCode(), e.getMessage());
             return CompletableFuture.failedFuture(
                 new RuntimeException("Failed to fetch product data: " + e.getMessage()));
 
         } catch (ResourceAccessException e) {
+            externalApiMetrics.recordFailure(sample, "openfoodfacts", "barcode", e);
             logger.error("Network error while fetching barcode {}: {}", barcode, e.getMessage());
             return CompletableFuture.failedFuture(
                 new RuntimeException("Network error: Unable to reach Open Food Facts API"));
 
         } catch (Exception e) {
+            externalApiMetrics.recordFailure(sample, "openfoodfacts", "barcode", e);
             logger.error("Unexpected error while processing barcode {}: {}", barcode, e.getMessage(), e);
             return CompletableFuture.failedFuture(
                 new RuntimeException("Error processing product data: " + e.getMessage()));
@@ -97,7 +108,7 @@ public class OpenFoodFactsService {
      * @param barcode The product barcode
      * @return Food entity with parsed data
      */
-    private Food parseProductData(JsonNode product, String barcode) {
+    Food parseProductData(JsonNode product, String barcode) {
         Food food = new Food();
 
         // Basic information
@@ -140,7 +151,7 @@ public class OpenFoodFactsService {
      * @param food Food entity to populate
      * @param nutriments JsonNode containing nutritional data
      */
-    private void parseNutriments(Food food, JsonNode nutriments) {
+    void parseNutriments(Food food, JsonNode nutriments) {
         // Energy (try multiple fields)
         Double calories = nutriments.path("energy-kcal_100g").asDouble(0.0);
         if (calories == 0.0) {
@@ -191,7 +202,7 @@ public class OpenFoodFactsService {
      * @param barcode Barcode string to validate
      * @return true if valid format
      */
-    private boolean isValidBarcode(String barcode) {
+    boolean isValidBarcode(String barcode) {
         if (barcode == null || barcode.isEmpty()) {
             return false;
         }
@@ -0,0 +1,196 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.MealView;
+import com.nutrition.tracker.dto.SyncResponse;
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.entity.SyncChange;
+import com.nutrition.tracker.event.FoodCatalogChangedEvent;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.repository.FoodRepository;
+import com.nutrition.tracker.repository.SyncChangeRepository;
+import com.nutrition.tracker.repository.SyncChangeWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Delta sync of meals and foods from change logs.
+ * Every meal change is logged in the user's stream and every food change in the catalog stream,
+ * within the transaction that makes it. A sync token holds the last sequence number the client has
+ * seen of both streams, so a sync returns only what changed since then.
+ * Changes are collected per transaction and written just before it commits, with one version bump
+ * and one multi-row insert per write however many meals it touched.
+ */
+@Service
+public class SyncService {
+
+    @Autowired
+    private SyncChangeRepository syncChangeRepository;
+
+    @Autowired
+    private SyncChangeWriter syncChangeWriter;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${sync.max-changes:1000}")
+    private int maxChanges;
+
+    /**
+     * Logged in the meal write's own transaction so a rolled back write leaves no entry.
+     */
+    @EventListener
+    @Transactional
+    public void onMealChanged(MealChangedEvent event) {
+        record(event.getUserId(), SyncChange.EntityType.MEAL, event.getMealId(),
+                event.getType() == MealChangedEvent.ChangeType.DELETED);
+    }
+
+    @EventListener
+    @Transactional
+    public void onFoodCatalogChanged(FoodCatalogChangedEvent event) {
+        record(SyncChange.CATALOG_STREAM, SyncChange.EntityType.FOOD, event.getFoodId(), false);
+    }
+
+    /**
+     * Changes after {@code token}, at most {@code sync.max-changes} per stream. Without a token only
+     * the current token is returned: take it before loading data, so nothing changes unseen in between.
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse getChanges(String token) {
+        Long userId = userService.getCurrentUserId();
+        if (token == null || token.isBlank()) {
+            long mealSeq = syncChangeRepository.findVersion(userId).orElse(0L);
+            long foodSeq = syncChangeRepository.findVersion(SyncChange.CATALOG_STREAM).orElse(0L);
+            return new SyncResponse(mealSeq + "." + foodSeq, List.of(), List.of(), List.of(), false);
+        }
+
+        SyncToken since = SyncToken.parse(token);
+        List<SyncChange> mealChanges = syncChangeRepository.findByStreamIdAndSeqGreaterThanOrderBySeq(
+                userId, since.mealSeq(), PageRequest.of(0, maxChanges + 1));
+        List<SyncChange> foodChanges = syncChangeRepository.findByStreamIdAndSeqGreaterThanOrderBySeq(
+                SyncChange.CATALOG_STREAM, since.foodSeq(), PageRequest.of(0, maxChanges + 1));
+        boolean hasMore = mealChanges.size() > maxChanges || foodChanges.size() > maxChanges;
+        mealChanges = mealChanges.subList(0, Math.min(mealChanges.size(), maxChanges));
+        foodChanges = foodChanges.subList(0, Math.min(foodChanges.size(), maxChanges));
+
+        // Latest change per meal wins; meals are only ever created or deleted
+        Map<Long, Boolean> mealDeleted = new LinkedHashMap<>();
+        for (SyncChange change : mealChanges) {
+            mealDeleted.put(change.getEntityId(), change.getDeleted());
+        }
+        List<Long> createdIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        mealDeleted.forEach((id, deleted) -> (deleted ? deletedIds : createdIds).add(id));
+        List<MealView> meals = mealService.getMealViews(createdIds);
+
+        Set<Long> foodIds = new LinkedHashSet<>();
+        for (SyncChange change : foodChanges) {
+            foodIds.add(change.getEntityId());
+        }
+        List<Food> foods = foodIds.isEmpty() ? List.of() : foodRepository.findAllById(foodIds);
+
+        long mealSeq = mealChanges.isEmpty() ? since.mealSeq() : mealChanges.get(mealChanges.size() - 1).getSeq();
+        long foodSeq = foodChanges.isEmpty() ? since.foodSeq() : foodChanges.get(foodChanges.size() - 1).getSeq();
+        return new SyncResponse(mealSeq + "." + foodSeq, meals, deletedIds, foods, hasMore);
+    }
+
+    private void record(Long streamId, SyncChange.EntityType entityType, Long entityId, boolean deleted) {
+        SyncChange change = new SyncChange(null, streamId, null, entityType, entityId, deleted, null);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(change));
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    /**
+     * Numbers and inserts the changes. Streams are locked in id order, so concurrent writes that touch
+     * the same streams cannot deadlock on their version rows.
+     */
+    private void write(List<SyncChange> changes) {
+        Map<Long, List<SyncChange>> byStream = new TreeMap<>();
+        for (SyncChange change : changes) {
+            byStream.computeIfAbsent(change.getStreamId(), id -> new ArrayList<>()).add(change);
+        }
+
+        byStream.forEach((streamId, streamChanges) -> {
+            syncChangeRepository.incrementVersion(streamId, streamChanges.size());
+            long last = syncChangeRepository.findVersion(streamId)
+                    .orElseThrow(() -> new IllegalStateException("Sync version missing for stream " + streamId));
+            long seq = last - streamChanges.size();
+            for (SyncChange change : streamChanges) {
+                change.setSeq(++seq);
+            }
+        });
+        syncChangeWriter.insertChanges(changes);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<SyncChange> changes = new ArrayList<>();
+
+        // A transaction started inside this one collects its own changes and commits them itself
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(SyncService.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(SyncService.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SyncService.this);
+        }
+    }
+
+    private record SyncToken(long mealSeq, long foodSeq) {
+
+        static SyncToken parse(String token) {
+            int dot = token.indexOf('.');
+            try {
+                long mealSeq = Long.parseLong(token.substring(0, dot));
+                long foodSeq = Long.parseLong(token.substring(dot + 1));
+                if (mealSeq < 0 || foodSeq < 0) {
+                    throw new NumberFormatException();
+                }
+                return new SyncToken(mealSeq, foodSeq);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid sync token");
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.config.ExecutorMetrics;
+import com.nutrition.tracker.event.FileStoredEvent;
+import com.nutrition.tracker.storage.StorageBackend;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates resized JPEG variants of uploaded images.
+ * Variants are produced after the upload commits, on a bounded pool sized to the CPU count,
+ * and stored next to the original under {@code thumbnails/<variant>/<original key>}.
+ * A variant that was never generated (pool saturated, node restarted) is queued on the same pool
+ * when first requested; request threads never decode images.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+    private static final float JPEG_QUALITY = 0.82f;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private ExecutorMetrics executorMetrics;
+
+    @Value("${thumbnail.pool.size:0}")
+    private int poolSize;
+
+    @Value("${thumbnail.pool.queue-capacity:200}")
+    private int queueCapacity;
+
+    // A decoded pixel takes 4 bytes, so the default caps one decode at about 160MB of heap
+    @Value("${thumbnail.max-pixels:40000000}")
+    private long maxPixels;
+
+    private ThreadPoolTaskExecutor executor;
+
+    // Originals queued or being processed, so repeated requests for a missing variant queue it once
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public enum Status {
+        READY,
+        PENDING,
+        MISSING
+    }
+
+    public enum Variant {
+        SMALL(160),
+        MEDIUM(480),
+        LARGE(1024);
+
+        private final int maxDimension;
+
+        Variant(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        public String keyFor(String originalKey) {
+            return "thumbnails/" + name().toLowerCase() + "/" + originalKey;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.initialize();
+        executorMetrics.monitor(executor, "thumbnail");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFileStored(FileStoredEvent event) {
+        if (event.getContentType() == null || !event.getContentType().startsWith("image/")) {
+            return;
+        }
+
+        submit(event.getKey());
+    }
+
+    /**
+     * Decodes the original once and writes every variant that does not exist yet.
+     */
+    public void generateThumbnails(String key) {
+        try {
+            BufferedImage original = readImage(key);
+            if (original == null) {
+                return;
+            }
+            for (Variant variant : Variant.values()) {
+                if (!storageBackend.exists(variant.keyFor(key))) {
+                    writeVariant(key, variant, original);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to generate thumbnails for {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Reports whether the variant can be served, queueing its generation if it is missing.
+     *
+     * @return {@link Status#PENDING} while the variant is generated, {@link Status#MISSING} if the original is gone
+     */
+    public Status requestVariant(String key, Variant variant) throws IOException {
+        if (storageBackend.exists(variant.keyFor(key))) {
+            return Status.READY;
+        }
+        if (!storageBackend.exists(key)) {
+            return Status.MISSING;
+        }
+        submit(key);
+        return Status.PENDING;
+    }
+
+    public void deleteThumbnails(String key) throws IOException {
+        for (Variant variant : Variant.values()) {
+            storageBackend.delete(variant.keyFor(key));
+        }
+    }
+
+    private void submit(String key) {
+        if (!pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateThumbnails(key);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pending.remove(key);
+            logger.warn("Thumbnail pool saturated, deferring variants of {} to a later request", key);
+        }
+    }
+
+    /**
+     * Decodes the original, or returns null if no decoder handles it or its declared dimensions exceed
+     * {@code thumbnail.max-pixels}. The dimensions come from the header, before any pixel is allocated.
+     */
+    private BufferedImage readImage(String key) throws IOException {
+        try (InputStream inputStream = storageBackend.open(key);
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = imageInputStream != null
+                    ? ImageIO.getImageReaders(imageInputStream) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                logger.info("No image decoder for {}, skipping thumbnails", key);
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("Image {} has {} pixels, over the limit of {}, skipping thumbnails", key, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeVariant(String key, Variant variant, BufferedImage original) throws IOException {
+        byte[] jpeg = encodeJpeg(resize(original, variant.getMaxDimension()));
+        StorageBackend.StagedObject staged = storageBackend.stage(new ByteArrayInputStream(jpeg), jpeg.length);
+        try {
+            storageBackend.commit(staged, variant.keyFor(key));
+        } catch (IOException | RuntimeException e) {
+            storageBackend.discard(staged);
+            throw e;
+        }
+    }
+
+    /**
+     * Scales down in halving steps before the final bilinear pass, which keeps large reductions
+     * from aliasing without the cost of bicubic filtering over the full-size image.
+     */
+    static BufferedImage resize(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        while (true) {
+            int nextWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int nextHeight = Math.max(targetHeight, current.getHeight() / 2);
+            if (current.getWidth() / 2 < targetWidth || current.getHeight() / 2 < targetHeight) {
+                nextWidth = targetWidth;
+                nextHeight = targetHeight;
+            }
+
+            // Always draw at least once so the output is opaque RGB regardless of the source type
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+
+            if (nextWidth == targetWidth && nextHeight == targetHeight) {
+                return current;
+            }
+        }
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+}
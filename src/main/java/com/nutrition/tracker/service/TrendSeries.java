@@ -0,0 +1,327 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.Nutrient;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+
+/**
+ * One user's nutrient history held as primitive arrays, one row per {@link Nutrient}:
+ * daily values plus week (Monday-based) and month rollups that are kept in step on every update.
+ * Range queries only touch the arrays, so they cost microseconds even over years of history.
+ * All methods synchronize on the instance; updates and queries per user are short and rarely contended.
+ */
+public final class TrendSeries {
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    private static final int NUTRIENTS = Nutrient.values().length;
+    private static final int CALORIES = Nutrient.CALORIES.ordinal();
+    private static final int GROWTH_DAYS = 366;
+    // A day counts as logged above this many calories, so the rounding residue that deleting a day's
+    // meals can leave behind (e.g. 2.8e-14) does not keep it logged
+    private static final double LOGGED_MIN_CALORIES = 0.5;
+    // Hard cap on the days held, about 7 nutrients x 55k doubles; covers every allowed meal date
+    static final int MAX_SPAN_DAYS = 366 * 150;
+
+    // Always the first day of a month, so month buckets never straddle the origin
+    private LocalDate origin;
+    private long originEpochDay;
+    private long originMondayEpochDay;
+    private int originMonthIndex;
+
+    private double[][] daily;
+    private double[][] weekly;
+    private double[][] monthly;
+    // Number of days with any calories logged in each bucket, for per-day averages and adherence
+    private int[] weeklyLoggedDays;
+    private int[] monthlyLoggedDays;
+
+    /**
+     * Allocates arrays covering {@code [firstDate, lastDate]}; later updates outside that span grow them,
+     * up to {@link #MAX_SPAN_DAYS} days.
+     */
+    public TrendSeries(LocalDate firstDate, LocalDate lastDate) {
+        LocalDate origin = firstDate.withDayOfMonth(1);
+        if (lastDate.toEpochDay() - origin.toEpochDay() >= MAX_SPAN_DAYS) {
+            throw new IllegalArgumentException("Trend series cannot span more than " + MAX_SPAN_DAYS + " days");
+        }
+        allocate(origin, lastDate);
+    }
+
+    /**
+     * Adds signed nutrient values, indexed by {@link Nutrient#ordinal()}, to the given day.
+     * A day that would stretch the series past {@link #MAX_SPAN_DAYS} is ignored.
+     */
+    public synchronized void add(LocalDate date, double[] values) {
+        if (!ensureCovers(date)) {
+            return;
+        }
+        int day = dayIndex(date);
+        int week = weekIndex(date);
+        int month = monthIndex(date);
+
+        boolean wasLogged = isLogged(day);
+        for (int n = 0; n < NUTRIENTS; n++) {
+            daily[n][day] += values[n];
+            weekly[n][week] += values[n];
+            monthly[n][month] += values[n];
+        }
+        boolean nowLogged = isLogged(day);
+
+        if (nowLogged != wasLogged) {
+            int change = nowLogged ? 1 : -1;
+            weeklyLoggedDays[week] += change;
+            monthlyLoggedDays[month] += change;
+        }
+    }
+
+    /**
+     * Returns bucket totals and logged-day counts for the buckets overlapping {@code [start, end]}.
+     * Week and month buckets are whole calendar buckets, even where they extend past the range.
+     */
+    public synchronized Buckets buckets(Nutrient nutrient, Granularity granularity, LocalDate start, LocalDate end) {
+        int n = nutrient.ordinal();
+        switch (granularity) {
+            case DAY -> {
+                int count = (int) (end.toEpochDay() - start.toEpochDay() + 1);
+                LocalDate[] starts = new LocalDate[count];
+                double[] totals = new double[count];
+                int[] loggedDays = new int[count];
+                for (int i = 0; i < count; i++) {
+                    LocalDate date = start.plusDays(i);
+                    starts[i] = date;
+                    int day = dayIndexOrNegative(date);
+                    if (day >= 0) {
+                        totals[i] = daily[n][day];
+                        loggedDays[i] = isLogged(day) ? 1 : 0;
+                    }
+                }
+                return new Buckets(starts, totals, loggedDays);
+            }
+            case WEEK -> {
+                LocalDate firstMonday = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                int count = (int) ((end.toEpochDay() - firstMonday.toEpochDay()) / 7 + 1);
+                LocalDate[] starts = new LocalDate[count];
+                double[] totals = new double[count];
+                int[] loggedDays = new int[count];
+                for (int i = 0; i < count; i++) {
+                    LocalDate monday = firstMonday.plusWeeks(i);
+                    starts[i] = monday;
+                    long week = (monday.toEpochDay() - originMondayEpochDay) / 7;
+                    if (monday.toEpochDay() >= originMondayEpochDay && week < weekly[n].length) {
+                        totals[i] = weekly[n][(int) week];
+                        loggedDays[i] = weeklyLoggedDays[(int) week];
+                    }
+                }
+                return new Buckets(starts, totals, loggedDays);
+            }
+            default -> {
+                YearMonth first = YearMonth.from(start);
+                int count = monthOrdinal(YearMonth.from(end)) - monthOrdinal(first) + 1;
+                LocalDate[] starts = new LocalDate[count];
+                double[] totals = new double[count];
+                int[] loggedDays = new int[count];
+                for (int i = 0; i < count; i++) {
+                    YearMonth month = first.plusMonths(i);
+                    starts[i] = month.atDay(1);
+                    int index = monthOrdinal(month) - originMonthIndex;
+                    if (index >= 0 && index < monthly[n].length) {
+                        totals[i] = monthly[n][index];
+                        loggedDays[i] = monthlyLoggedDays[index];
+                    }
+                }
+                return new Buckets(starts, totals, loggedDays);
+            }
+        }
+    }
+
+    /**
+     * Trailing moving average per day over the logged days among the last {@code window} days.
+     * Days with nothing logged in their window are 0.
+     */
+    public synchronized double[] movingAverage(Nutrient nutrient, LocalDate start, LocalDate end, int window) {
+        int n = nutrient.ordinal();
+        int count = (int) (end.toEpochDay() - start.toEpochDay() + 1);
+        double[] result = new double[count];
+
+        LocalDate windowStart = start.minusDays(window - 1L);
+        int total = count + window - 1;
+        double sum = 0;
+        int logged = 0;
+        for (int i = 0; i < total; i++) {
+            int day = dayIndexOrNegative(windowStart.plusDays(i));
+            if (day >= 0 && isLogged(day)) {
+                sum += daily[n][day];
+                logged++;
+            }
+            if (i >= window) {
+                int leaving = dayIndexOrNegative(windowStart.plusDays(i - window));
+                if (leaving >= 0 && isLogged(leaving)) {
+                    sum -= daily[n][leaving];
+                    logged--;
+                }
+            }
+            if (i >= window - 1) {
+                result[i - window + 1] = logged > 0 ? sum / logged : 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fraction of logged days in the range whose calories fall within {@code goal * (1 +/- tolerance)}.
+     *
+     * @return adherence in [0, 1], or NaN when no day in the range was logged
+     */
+    public synchronized double adherence(double goal, double tolerance, LocalDate start, LocalDate end) {
+        double low = goal * (1 - tolerance);
+        double high = goal * (1 + tolerance);
+        int logged = 0;
+        int within = 0;
+        for (long epochDay = start.toEpochDay(); epochDay <= end.toEpochDay(); epochDay++) {
+            int day = dayIndexOrNegative(epochDay);
+            if (day >= 0 && isLogged(day)) {
+                logged++;
+                double calories = daily[CALORIES][day];
+                if (calories >= low && calories <= high) {
+                    within++;
+                }
+            }
+        }
+        return logged > 0 ? (double) within / logged : Double.NaN;
+    }
+
+    /**
+     * Percentiles (0-100, nearest rank) of the nutrient over logged days in the range.
+     *
+     * @return one value per requested percentile, NaN when no day was logged
+     */
+    public synchronized double[] percentiles(Nutrient nutrient, LocalDate start, LocalDate end, double[] percentiles) {
+        double[] values = loggedValues(nutrient, start, end);
+        double[] result = new double[percentiles.length];
+        if (values.length == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        Arrays.sort(values);
+        for (int i = 0; i < percentiles.length; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100.0 * values.length);
+            result[i] = values[Math.min(values.length - 1, Math.max(0, rank - 1))];
+        }
+        return result;
+    }
+
+    public synchronized double[] loggedValues(Nutrient nutrient, LocalDate start, LocalDate end) {
+        int n = nutrient.ordinal();
+        double[] values = new double[(int) Math.max(0, end.toEpochDay() - start.toEpochDay() + 1)];
+        int count = 0;
+        for (long epochDay = start.toEpochDay(); epochDay <= end.toEpochDay(); epochDay++) {
+            int day = dayIndexOrNegative(epochDay);
+            if (day >= 0 && isLogged(day)) {
+                values[count++] = daily[n][day];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Grows the arrays to cover the date.
+     *
+     * @return false if that would exceed {@link #MAX_SPAN_DAYS}, leaving the arrays as they are
+     */
+    private boolean ensureCovers(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay >= originEpochDay && epochDay - originEpochDay < daily[0].length) {
+            return true;
+        }
+
+        LocalDate newOrigin = epochDay < originEpochDay ? date.withDayOfMonth(1) : origin;
+        LocalDate lastCovered = origin.plusDays(daily[0].length - 1L);
+        LocalDate newEnd = lastCovered;
+        if (date.isAfter(lastCovered)) {
+            long maxEndEpochDay = newOrigin.toEpochDay() + MAX_SPAN_DAYS - 1;
+            newEnd = LocalDate.ofEpochDay(Math.min(epochDay + GROWTH_DAYS, Math.max(epochDay, maxEndEpochDay)));
+        }
+        if (newEnd.toEpochDay() - newOrigin.toEpochDay() >= MAX_SPAN_DAYS) {
+            return false;
+        }
+
+        double[][] oldDaily = daily;
+        long oldOriginEpochDay = originEpochDay;
+        allocate(newOrigin, newEnd);
+
+        // Replay the old days so every rollup and logged-day count is rebuilt consistently
+        double[] values = new double[NUTRIENTS];
+        for (int day = 0; day < oldDaily[0].length; day++) {
+            boolean any = false;
+            for (int n = 0; n < NUTRIENTS; n++) {
+                values[n] = oldDaily[n][day];
+                any |= values[n] != 0;
+            }
+            if (any) {
+                add(LocalDate.ofEpochDay(oldOriginEpochDay + day), values);
+            }
+        }
+        return true;
+    }
+
+    private void allocate(LocalDate newOrigin, LocalDate lastDate) {
+        origin = newOrigin;
+        originEpochDay = newOrigin.toEpochDay();
+        originMondayEpochDay = newOrigin.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+        originMonthIndex = monthOrdinal(YearMonth.from(newOrigin));
+
+        int days = (int) (lastDate.toEpochDay() - originEpochDay + 1);
+        int weeks = (int) ((lastDate.toEpochDay() - originMondayEpochDay) / 7 + 1);
+        int months = monthOrdinal(YearMonth.from(lastDate)) - originMonthIndex + 1;
+
+        daily = new double[NUTRIENTS][days];
+        weekly = new double[NUTRIENTS][weeks];
+        monthly = new double[NUTRIENTS][months];
+        weeklyLoggedDays = new int[weeks];
+        monthlyLoggedDays = new int[months];
+    }
+
+    private boolean isLogged(int day) {
+        return daily[CALORIES][day] > LOGGED_MIN_CALORIES;
+    }
+
+    private int dayIndex(LocalDate date) {
+        return (int) (date.toEpochDay() - originEpochDay);
+    }
+
+    private int dayIndexOrNegative(LocalDate date) {
+        return dayIndexOrNegative(date.toEpochDay());
+    }
+
+    private int dayIndexOrNegative(long epochDay) {
+        long day = epochDay - originEpochDay;
+        return day >= 0 && day < daily[0].length ? (int) day : -1;
+    }
+
+    private int weekIndex(LocalDate date) {
+        return (int) ((date.toEpochDay() - originMondayEpochDay) / 7);
+    }
+
+    private int monthIndex(LocalDate date) {
+        return monthOrdinal(YearMonth.from(date)) - originMonthIndex;
+    }
+
+    private static int monthOrdinal(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    /**
+     * Parallel arrays describing consecutive buckets: start date, nutrient total and logged days.
+     */
+    public record Buckets(LocalDate[] starts, double[] totals, int[] loggedDays) {
+    }
+}
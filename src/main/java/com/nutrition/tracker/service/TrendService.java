@@ -0,0 +1,405 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.AdminTrendReport;
+import com.nutrition.tracker.dto.MealDates;
+import com.nutrition.tracker.dto.Nutrient;
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.dto.TrendPoint;
+import com.nutrition.tracker.dto.TrendStatistics;
+import com.nutrition.tracker.entity.DailyNutritionTotal;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.repository.DailyNutritionTotalRepository;
+import com.nutrition.tracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Trend analytics over long date ranges.
+ * Each active user's history is loaded once from daily_nutrition_totals into a {@link TrendSeries}
+ * and then kept current from committed meal changes, so chart queries never touch meal rows.
+ * Series are cached per user in a bounded LRU map.
+ */
+@Service
+public class TrendService {
+
+    private static final int MAX_RANGE_DAYS = 366 * 20;
+    private static final int MAX_WINDOW_DAYS = 365;
+    // Users per fork/join leaf task in admin reports; each leaf reads its users' totals in one query
+    private static final int REPORT_BATCH_SIZE = 64;
+
+    @Autowired
+    private DailyNutritionTotalRepository dailyNutritionTotalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trends.cache.max-users:10000}")
+    private int maxCachedUsers;
+
+    // Report leaves block on queries, so they get their own workers, fewer than database connections
+    @Value("${trends.report.parallelism:4}")
+    private int reportParallelism;
+
+    private ForkJoinPool reportPool;
+
+    private final Map<Long, TrendSeries> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TrendSeries> eldest) {
+            if (size() > maxCachedUsers) {
+                cacheStats.eviction();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Series loads in flight, so a change committed during a load keeps its result out of the cache
+    private final CacheLoadGuard<Long> loads = new CacheLoadGuard<>();
+
+    private final CacheStats cacheStats = new CacheStats();
+
+    @PostConstruct
+    public void init() {
+        cacheStats.bindTo(meterRegistry, "trends", cache);
+        reportPool = new ForkJoinPool(reportParallelism);
+        new ExecutorServiceMetrics(reportPool, "trend-reports", List.of()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reportPool.shutdown();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrendPoint> getSeries(Nutrient nutrient, TrendSeries.Granularity granularity,
+                                      LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        TrendSeries series = getSeries(userService.getCurrentUserId());
+        TrendSeries.Buckets buckets = series.buckets(nutrient, granularity, startDate, endDate);
+
+        List<TrendPoint> points = new ArrayList<>(buckets.starts().length);
+        for (int i = 0; i < buckets.starts().length; i++) {
+            int loggedDays = buckets.loggedDays()[i];
+            double total = buckets.totals()[i];
+            points.add(new TrendPoint(buckets.starts()[i], total, loggedDays > 0 ? total / loggedDays : 0, loggedDays));
+        }
+        return points;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrendPoint> getMovingAverage(Nutrient nutrient, LocalDate startDate, LocalDate endDate, int window) {
+        validateRange(startDate, endDate);
+        if (window < 1 || window > MAX_WINDOW_DAYS) {
+            throw new RuntimeException("Window must be between 1 and " + MAX_WINDOW_DAYS + " days");
+        }
+
+        TrendSeries series = getSeries(userService.getCurrentUserId());
+        double[] averages = series.movingAverage(nutrient, startDate, endDate, window);
+        TrendSeries.Buckets days = series.buckets(nutrient, TrendSeries.Granularity.DAY, startDate, endDate);
+
+        List<TrendPoint> points = new ArrayList<>(averages.length);
+        for (int i = 0; i < averages.length; i++) {
+            points.add(new TrendPoint(days.starts()[i], days.totals()[i], averages[i], days.loggedDays()[i]));
+        }
+        return points;
+    }
+
+    /**
+     * Mean and percentiles of the nutrient over logged days, plus calorie goal adherence:
+     * the share of logged days within {@code tolerance} (a fraction, e.g. 0.1) of the goal.
+     */
+    @Transactional(readOnly = true)
+    public TrendStatistics getStatistics(Nutrient nutrient, LocalDate startDate, LocalDate endDate,
+                                         double[] percentiles, double tolerance) {
+        validateRange(startDate, endDate);
+        for (double percentile : percentiles) {
+            if (percentile < 0 || percentile > 100) {
+                throw new RuntimeException("Percentiles must be between 0 and 100");
+            }
+        }
+        if (tolerance < 0 || tolerance > 1) {
+            throw new RuntimeException("Tolerance must be between 0 and 1");
+        }
+
+        User user = userService.getCurrentUser();
+        TrendSeries series = getSeries(user.getId());
+
+        double[] values = series.loggedValues(nutrient, startDate, endDate);
+        Double mean = null;
+        if (values.length > 0) {
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            mean = sum / values.length;
+        }
+
+        Map<String, Double> percentileValues = new LinkedHashMap<>();
+        double[] results = series.percentiles(nutrient, startDate, endDate, percentiles);
+        for (int i = 0; i < percentiles.length; i++) {
+            percentileValues.put(percentileLabel(percentiles[i]), Double.isNaN(results[i]) ? null : results[i]);
+        }
+
+        Integer goal = user.getDailyCalorieGoal();
+        Double adherence = null;
+        if (goal != null && goal > 0) {
+            double value = series.adherence(goal, tolerance, startDate, endDate);
+            adherence = Double.isNaN(value) ? null : value;
+        }
+
+        return new TrendStatistics(nutrient, startDate, endDate, values.length, mean, percentileValues, goal, adherence);
+    }
+
+    /**
+     * Calorie intake and goal adherence across all users, evaluated in parallel on a dedicated fork/join
+     * pool of {@code trends.report.parallelism} workers. Each leaf task reads the range's calories for its
+     * own batch of users, so only one batch per worker is in memory at a time and a report holds at most
+     * that many connections. The common pool stays free for CPU-only work such as recommendation scans.
+     * Not transactional: the leaves query on their own threads, and the calling thread should not hold
+     * a connection while it waits for them.
+     */
+    public AdminTrendReport getAdminReport(LocalDate startDate, LocalDate endDate, double tolerance) {
+        validateRange(startDate, endDate);
+
+        List<Object[]> goals = userRepository.findAllCalorieGoals();
+        UserGoal[] users = new UserGoal[goals.size()];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = new UserGoal((Long) goals.get(i)[0], (Integer) goals.get(i)[1]);
+        }
+
+        ReportResult result = reportPool.invoke(new ReportTask(dailyNutritionTotalRepository,
+                users, 0, users.length, startDate, endDate, tolerance));
+
+        return new AdminTrendReport(startDate, endDate, users.length, result.usersWithData, result.usersWithGoal,
+                result.usersWithData > 0 ? result.calorieSum / result.usersWithData : null,
+                result.usersWithGoal > 0 ? result.adherenceSum / result.usersWithGoal : null,
+                result.histogram);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        TrendSeries series;
+        synchronized (cache) {
+            series = cache.get(event.getUserId());
+            if (series == null) {
+                // Not cached: the next load reads committed totals, but a load already in flight may not
+                loads.invalidate(event.getUserId());
+                return;
+            }
+        }
+
+        double[] values = new double[Nutrient.values().length];
+        for (Nutrient nutrient : Nutrient.values()) {
+            values[nutrient.ordinal()] = nutrient.valueOf(event.getDelta());
+        }
+        series.add(event.getMealDate(), values);
+    }
+
+    /**
+     * Drops the user's series after their totals were rewritten outside meal events. Loads in flight
+     * may have read the old rows, so they are not cached either.
+     */
+    public void evict(Long userId) {
+        synchronized (cache) {
+            cache.remove(userId);
+            loads.invalidate(userId);
+        }
+    }
+
+    TrendSeries getSeries(Long userId) {
+        synchronized (cache) {
+            TrendSeries series = cache.get(userId);
+            if (series != null) {
+                cacheStats.hit();
+                return series;
+            }
+        }
+
+        cacheStats.miss();
+        CacheLoadGuard<Long>.Load guard = loads.begin(userId);
+        TrendSeries series;
+        try {
+            series = load(userId);
+        } catch (RuntimeException e) {
+            guard.finish();
+            throw e;
+        }
+        synchronized (cache) {
+            if (guard.finish()) {
+                cache.putIfAbsent(userId, series);
+                return cache.get(userId);
+            }
+        }
+        // A change committed while loading; serve this copy but do not cache something possibly stale
+        return series;
+    }
+
+    private TrendSeries load(Long userId) {
+        // Rows outside the allowed meal dates can only predate that check; they would stretch the arrays
+        List<DailyNutritionTotal> totals = dailyNutritionTotalRepository.findByUserIdOrderByDate(userId).stream()
+                .filter(total -> MealDates.isAllowed(total.getDate()))
+                .toList();
+        LocalDate today = LocalDate.now();
+        LocalDate first = totals.isEmpty() ? today : totals.get(0).getDate();
+        LocalDate last = totals.isEmpty() ? today : totals.get(totals.size() - 1).getDate();
+
+        // Leave room for the coming months so new days rarely force a resize
+        LocalDate end = (last.isAfter(today) ? last : today).plusMonths(6);
+        TrendSeries series = new TrendSeries(first, end);
+        double[] values = new double[Nutrient.values().length];
+        for (DailyNutritionTotal total : totals) {
+            copyValues(total, values);
+            series.add(total.getDate(), values);
+        }
+        return series;
+    }
+
+    private static void copyValues(DailyNutritionTotal total, double[] values) {
+        NutritionTotals totals = new NutritionTotals(total.getCalories(), total.getProtein(),
+                total.getCarbohydrates(), total.getFat(), total.getFiber(), total.getSugar(), total.getSodium());
+        for (Nutrient nutrient : Nutrient.values()) {
+            values[nutrient.ordinal()] = nutrient.valueOf(totals);
+        }
+    }
+
+    private static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new RuntimeException("Date range is too large");
+        }
+    }
+
+    private static String percentileLabel(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+
+    private record UserGoal(Long userId, Integer calorieGoal) {
+    }
+
+    private static final class ReportResult {
+        private int usersWithData;
+        private int usersWithGoal;
+        private double calorieSum;
+        private double adherenceSum;
+        private final int[] histogram = new int[10];
+
+        private ReportResult merge(ReportResult other) {
+            usersWithData += other.usersWithData;
+            usersWithGoal += other.usersWithGoal;
+            calorieSum += other.calorieSum;
+            adherenceSum += other.adherenceSum;
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            return this;
+        }
+    }
+
+    private static final class ReportTask extends RecursiveTask<ReportResult> {
+
+        private final DailyNutritionTotalRepository repository;
+        private final UserGoal[] users;
+        private final int from;
+        private final int to;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final double tolerance;
+
+        private ReportTask(DailyNutritionTotalRepository repository, UserGoal[] users, int from, int to,
+                           LocalDate startDate, LocalDate endDate, double tolerance) {
+            this.repository = repository;
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.tolerance = tolerance;
+        }
+
+        @Override
+        protected ReportResult compute() {
+            if (to - from > REPORT_BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                ReportTask left = new ReportTask(repository, users, from, middle, startDate, endDate, tolerance);
+                ReportTask right = new ReportTask(repository, users, middle, to, startDate, endDate, tolerance);
+                left.fork();
+                ReportResult rightResult = right.compute();
+                return left.join().merge(rightResult);
+            }
+
+            ReportResult result = new ReportResult();
+            if (from == to) {
+                return result;
+            }
+
+            // The batch's rows and series live only inside the leaf, so memory stays proportional to
+            // the parallelism rather than to the number of users
+            List<Long> userIds = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                userIds.add(users[i].userId());
+            }
+            List<Object[]> rows = repository.findCaloriesByUserIdInAndDateBetween(userIds, startDate, endDate);
+
+            // Users and rows are both ordered by user id, so one pass pairs them up
+            double[] values = new double[Nutrient.values().length];
+            int row = 0;
+            for (int i = from; i < to && row < rows.size(); i++) {
+                Long userId = users[i].userId();
+                if (!userId.equals(rows.get(row)[0])) {
+                    continue;
+                }
+                TrendSeries series = new TrendSeries(startDate, endDate);
+                for (; row < rows.size() && userId.equals(rows.get(row)[0]); row++) {
+                    values[Nutrient.CALORIES.ordinal()] = (Double) rows.get(row)[2];
+                    series.add((LocalDate) rows.get(row)[1], values);
+                }
+
+                double[] calories = series.loggedValues(Nutrient.CALORIES, startDate, endDate);
+                if (calories.length == 0) {
+                    continue;
+                }
+
+                double sum = 0;
+                for (double value : calories) {
+                    sum += value;
+                }
+                result.usersWithData++;
+                result.calorieSum += sum / calories.length;
+
+                Integer goal = users[i].calorieGoal();
+                if (goal != null && goal > 0) {
+                    double adherence = series.adherence(goal, tolerance, startDate, endDate);
+                    result.usersWithGoal++;
+                    result.adherenceSum += adherence;
+                    result.histogram[Math.min(9, (int) (adherence * 10))]++;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.nutrition.tracker.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nutrition.tracker.entity.Food;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
@@ -22,6 +23,9 @@ public class USDAService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ExternalApiMetrics externalApiMetrics;
+
     @Value("${api.usda.key}")
     private String apiKey;
 
@@ -30,6 +34,7 @@ public class USDAService {
 
     @Async
     public CompletableFuture<List<Food>> searchFood(String query) {
+        Timer.Sample sample = externalApiMetrics.start();
         try {
             String url = UriComponentsBuilder.fromHttpUrl(apiUrl + "/foods/search")
                     .queryParam("api_key", apiKey)
@@ -47,14 +52,17 @@ public class USDAService {
                 foodList.add(food);
             }
 
+            externalApiMetrics.record(sample, "usda", "search", "success");
             return CompletableFuture.completedFuture(foodList);
         } catch (Exception e) {
+            externalApiMetrics.recordFailure(sample, "usda", "search", e);
             return CompletableFuture.failedFuture(e);
         }
     }
 
     @Async
     public CompletableFuture<Food> getFoodById(String fdcId) {
+        Timer.Sample sample = externalApiMetrics.start();
         try {
             String url = UriComponentsBuilder.fromHttpUrl(apiUrl + "/food/" + fdcId)
                     .queryParam("api_key", apiKey)
@@ -64,13 +72,15 @@ public class USDAService {
             JsonNode foodNode = objectMapper.readTree(response);
 
             Food food = parseUSDAFood(foodNode);
+            externalApiMetrics.record(sample, "usda", "food", "success");
             return CompletableFuture.completedFuture(food);
         } catch (Exception e) {
+            externalApiMetrics.recordFailure(sample, "usda", "food", e);
             return CompletableFuture.failedFuture(e);
         }
     }
 
-    private Food parseUSDAFood(JsonNode foodNode) {
+    Food parseUSDAFood(JsonNode foodNode) {
         Food food = new Food();
         food.setFdcId(foodNode.path("fdcId").asText());
         food.setName(foodNode.path("description").asText());
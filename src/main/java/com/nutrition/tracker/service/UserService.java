@@ -3,26 +3,83 @@ package com.nutrition.tracker.service;
 import com.nutrition.tracker.dto.UserProfileRequest;
 import com.nutrition.tracker.entity.User;
 import com.nutrition.tracker.repository.UserRepository;
+import com.nutrition.tracker.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * The authenticated user. Its id comes from the security context without a query; full profiles
+ * are served from a bounded LRU cache whose entries expire after {@code user-profile.cache.ttl-seconds},
+ * which bounds how long a change made on another instance stays unseen. Local profile updates
+ * evict the entry right away.
+ */
 @Service
 public class UserService {
 
     @Autowired
     private UserRepository userRepository;
 
-    public User getCurrentUser() {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-profile.cache.max-users:10000}")
+    private int maxCachedUsers;
+
+    @Value("${user-profile.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, CachedUser> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedUser> eldest) {
+            if (size() > maxCachedUsers) {
+                cacheStats.eviction();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Profile loads in flight, so a change made during a load keeps its result out of the cache
+    private final CacheLoadGuard<Long> loads = new CacheLoadGuard<>();
+
+    private final CacheStats cacheStats = new CacheStats();
+
+    @PostConstruct
+    public void registerMetrics() {
+        cacheStats.bindTo(meterRegistry, "user-profile", cache);
+    }
+
+    /**
+     * Id of the authenticated user, taken from the token's claims.
+     */
+    public Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new RuntimeException("User not found");
+        }
+        return principal.getId();
+    }
+
+    /**
+     * The authenticated user's profile, usually from the cache. The entity is detached and shared
+     * between requests: read it or pass it as a reference, but never modify or save it.
+     */
+    public User getCurrentUser() {
+        return getUser(getCurrentUserId());
     }
 
     public User updateProfile(UserProfileRequest request) {
-        User user = getCurrentUser();
+        // A fresh copy: the cached one is shared, and merging it could touch its lazy meals
+        Long userId = getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (request.getFullName() != null) {
             user.setFullName(request.getFullName());
@@ -46,7 +103,48 @@ public class UserService {
             user.setDailyCalorieGoal(request.getDailyCalorieGoal());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        evict(userId);
+        return saved;
+    }
+
+    public void evict(Long userId) {
+        synchronized (cache) {
+            cache.remove(userId);
+            loads.invalidate(userId);
+        }
+    }
+
+    User getUser(Long userId) {
+        long now = System.nanoTime();
+        synchronized (cache) {
+            CachedUser cached = cache.get(userId);
+            if (cached != null && now - cached.loadedAt() < ttlSeconds * 1_000_000_000L) {
+                cacheStats.hit();
+                return cached.user();
+            }
+        }
+
+        cacheStats.miss();
+        CacheLoadGuard<Long>.Load guard = loads.begin(userId);
+        User user;
+        try {
+            user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        } catch (RuntimeException e) {
+            guard.finish();
+            throw e;
+        }
+        synchronized (cache) {
+            if (guard.finish()) {
+                cache.put(userId, new CachedUser(user, now));
+            }
+        }
+        // Otherwise the profile changed while loading: serve this copy but do not cache it
+        return user;
+    }
+
+    private record CachedUser(User user, long loadedAt) {
     }
 
     public Integer calculateRecommendedCalories(User user) {
@@ -0,0 +1,168 @@
+package com.nutrition.tracker.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stores uploads on the local filesystem under {@code upload.dir}.
+ * Staged files live in the upload root and are moved atomically into their shard directory on commit.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemStorageBackend implements StorageBackend {
+
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private final Path rootDir;
+
+    public FileSystemStorageBackend(@Value("${upload.dir}") String uploadDir) {
+        this.rootDir = Paths.get(uploadDir);
+    }
+
+    @Override
+    public StagedObject stage(InputStream content, long size) throws IOException {
+        Files.createDirectories(rootDir);
+        Path tempFile = Files.createTempFile(rootDir, "upload-", ".tmp");
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel destination = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = destination.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+            return new StagedFile(tempFile, position);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public void commit(StagedObject staged, String key) throws IOException {
+        Path tempFile = ((StagedFile) staged).path();
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            discard(staged);
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Another upload of the same content won the race; its copy is identical
+            discard(staged);
+        }
+    }
+
+    @Override
+    public void discard(StagedObject staged) {
+        try {
+            Files.deleteIfExists(((StagedFile) staged).path());
+        } catch (IOException ignored) {
+            // A leftover temp file only costs disk space
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return Files.size(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new StorageObjectNotFoundException(key);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new StorageObjectNotFoundException(key);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long start, long end) throws IOException {
+        try {
+            FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+            channel.position(start);
+            return new BoundedInputStream(Channels.newInputStream(channel), end - start + 1);
+        } catch (NoSuchFileException e) {
+            throw new StorageObjectNotFoundException(key);
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        return rootDir.resolve(key);
+    }
+
+    /**
+     * Stops after a fixed number of bytes so a ranged read never runs past the requested end.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
+    private record StagedFile(Path path, long size) implements StagedObject {
+    }
+}
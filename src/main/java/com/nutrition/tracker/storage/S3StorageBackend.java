@@ -0,0 +1,228 @@
+package com.nutrition.tracker.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores uploads in an S3-compatible object store (AWS S3, MinIO, Ceph RGW, ...).
+ * Content is streamed to a staging key with a multipart upload, one part buffer at a time,
+ * and copied server-side to its content-addressed key on commit. Set {@code storage.s3.endpoint}
+ * and {@code storage.s3.path-style-access} to point it at a local MinIO instance.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+public class S3StorageBackend implements StorageBackend, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3StorageBackend.class);
+
+    // S3 rejects multipart parts smaller than 5 MiB, except for the last one
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+    private static final String STAGING_PREFIX = "staging/";
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final int partSize;
+
+    @Autowired
+    public S3StorageBackend(@Value("${storage.s3.endpoint:}") String endpoint,
+                            @Value("${storage.s3.region:us-east-1}") String region,
+                            @Value("${storage.s3.bucket}") String bucket,
+                            @Value("${storage.s3.access-key:}") String accessKey,
+                            @Value("${storage.s3.secret-key:}") String secretKey,
+                            @Value("${storage.s3.path-style-access:false}") boolean pathStyleAccess,
+                            @Value("${storage.s3.part-size:8388608}") int partSize) {
+        this(buildClient(endpoint, region, accessKey, secretKey, pathStyleAccess), bucket, partSize);
+    }
+
+    S3StorageBackend(S3Client s3Client, String bucket, int partSize) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+    }
+
+    @Override
+    public StagedObject stage(InputStream content, long size) throws IOException {
+        String stagingKey = STAGING_PREFIX + UUID.randomUUID();
+        if (size >= 0 && size < partSize) {
+            // Known to fit in one part: stream it through a single PUT with no buffering at all
+            s3Client.putObject(PutObjectRequest.builder().bucket(bucket).key(stagingKey).build(),
+                    RequestBody.fromInputStream(content, size));
+            return new StagedS3Object(stagingKey, size);
+        }
+
+        byte[] buffer = new byte[partSize];
+        int filled = fill(content, buffer);
+        if (filled < partSize) {
+            s3Client.putObject(PutObjectRequest.builder().bucket(bucket).key(stagingKey).build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled));
+            return new StagedS3Object(stagingKey, filled);
+        }
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket).key(stagingKey).build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            long total = 0;
+            int partNumber = 1;
+            while (filled > 0) {
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket).key(stagingKey).uploadId(uploadId)
+                                .partNumber(partNumber).contentLength((long) filled).build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                total += filled;
+                partNumber++;
+                filled = fill(content, buffer);
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket).key(stagingKey).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            return new StagedS3Object(stagingKey, total);
+        } catch (IOException | RuntimeException e) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket).key(stagingKey).uploadId(uploadId).build());
+            throw e;
+        }
+    }
+
+    @Override
+    public void commit(StagedObject staged, String key) {
+        String stagingKey = ((StagedS3Object) staged).stagingKey();
+        if (!exists(key)) {
+            s3Client.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(bucket).sourceKey(stagingKey)
+                    .destinationBucket(bucket).destinationKey(key)
+                    .build());
+        }
+        discard(staged);
+    }
+
+    @Override
+    public void discard(StagedObject staged) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder()
+                    .bucket(bucket).key(((StagedS3Object) staged).stagingKey()).build());
+        } catch (RuntimeException e) {
+            // Leftovers under the staging prefix are safe to expire with a bucket lifecycle rule
+            logger.warn("Failed to remove staged object {}: {}", ((StagedS3Object) staged).stagingKey(), e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build()).contentLength();
+        } catch (NoSuchKeyException e) {
+            throw new StorageObjectNotFoundException(key);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long start, long end) throws IOException {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder().bucket(bucket).key(key)
+                    .range("bytes=" + start + "-" + end).build());
+        } catch (NoSuchKeyException e) {
+            throw new StorageObjectNotFoundException(key);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (NoSuchKeyException e) {
+            throw new StorageObjectNotFoundException(key);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+
+    @Override
+    public void destroy() {
+        s3Client.close();
+    }
+
+    private static S3Client buildClient(String endpoint, String region, String accessKey, String secretKey,
+                                        boolean pathStyleAccess) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build());
+
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        if (StringUtils.hasText(accessKey)) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads until the buffer is full or the stream ends, returning the number of bytes read.
+     */
+    private static int fill(InputStream content, byte[] buffer) throws IOException {
+        int filled = 0;
+        while (filled < buffer.length) {
+            int read = content.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                break;
+            }
+            filled += read;
+        }
+        return filled;
+    }
+
+    private record StagedS3Object(String stagingKey, long size) implements StagedObject {
+    }
+}
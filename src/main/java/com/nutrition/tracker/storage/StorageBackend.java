@@ -0,0 +1,63 @@
+package com.nutrition.tracker.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Byte storage used by {@link com.nutrition.tracker.service.FileStorageService}.
+ * Uploads are written in two steps: the content is streamed to a staging location while the caller
+ * hashes it, then committed under its final content-addressed key. Keys are opaque, slash-separated
+ * paths such as {@code ab/cd/abcd...}.
+ */
+public interface StorageBackend {
+
+    /**
+     * Streams the content to a staging location without buffering the whole object in memory.
+     *
+     * @param content stream to consume; it is read to the end but not closed
+     * @param size content length in bytes, or -1 if unknown
+     * @return handle to the staged content
+     */
+    StagedObject stage(InputStream content, long size) throws IOException;
+
+    /**
+     * Promotes staged content to its final key. If the key already holds content it is kept
+     * and the staged copy is discarded, since both are identical by construction.
+     */
+    void commit(StagedObject staged, String key) throws IOException;
+
+    /**
+     * Removes staged content that will not be committed. Never throws.
+     */
+    void discard(StagedObject staged);
+
+    boolean exists(String key) throws IOException;
+
+    long size(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Opens the inclusive byte range {@code [start, end]} of the stored object.
+     */
+    InputStream open(String key, long start, long end) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Returns the local file backing the key, or null when the backend is remote.
+     * Callers use it to serve content with zero-copy file transfer.
+     */
+    default Path localPath(String key) {
+        return null;
+    }
+
+    /**
+     * Handle to staged content, returned by {@link #stage} and understood only by the backend that created it.
+     */
+    interface StagedObject {
+
+        long size();
+    }
+}
@@ -0,0 +1,10 @@
+package com.nutrition.tracker.storage;
+
+import java.io.FileNotFoundException;
+
+public class StorageObjectNotFoundException extends FileNotFoundException {
+
+    public StorageObjectNotFoundException(String key) {
+        super("Stored object not found: " + key);
+    }
+}
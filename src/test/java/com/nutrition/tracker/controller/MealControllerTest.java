@@ -0,0 +1,56 @@
+package com.nutrition.tracker.controller;
+
+import com.nutrition.tracker.dto.DailyNutritionSummary;
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.service.MealService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MealControllerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private MealService mealService;
+
+    @InjectMocks
+    private MealController mealController;
+
+    @Test
+    void testGetDailySummary_ReturnsServiceSummary() {
+        DailyNutritionSummary summary = new DailyNutritionSummary(DATE);
+        summary.addMealType(Meal.MealType.LUNCH, new NutritionTotals(650.0, 30.0, 70.0, 20.0, 6.0, 8.0, 0.9));
+        when(mealService.getDailySummary(DATE)).thenReturn(summary);
+
+        ResponseEntity<DailyNutritionSummary> response = mealController.getDailySummary(DATE);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(650.0, response.getBody().getTotals().getCalories());
+    }
+
+    @Test
+    void testGetSummaryByDateRange_PassesRangeThrough() {
+        List<DailyNutritionSummary> summaries = List.of(new DailyNutritionSummary(DATE),
+                new DailyNutritionSummary(DATE.plusDays(1)));
+        when(mealService.getSummaryByDateRange(DATE, DATE.plusDays(1))).thenReturn(summaries);
+
+        ResponseEntity<List<DailyNutritionSummary>> response =
+                mealController.getSummaryByDateRange(DATE, DATE.plusDays(1));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(summaries, response.getBody());
+    }
+}
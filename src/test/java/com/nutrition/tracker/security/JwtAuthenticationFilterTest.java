@@ -0,0 +1,87 @@
+package com.nutrition.tracker.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider();
+
+    private final TokenDenyList tokenDenyList = new TokenDenyList();
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "test-secret-that-is-at-least-256-bits-long!!");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 60_000L);
+        tokenProvider.init();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "tokenDenyList", tokenDenyList);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testFilter_AuthenticatesFromClaimsWithoutLoadingUser() throws Exception {
+        when(userDetailsService.getAuthorities("alice")).thenReturn(List.of());
+
+        filter.doFilter(request(token()), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("alice", authentication.getName());
+        assertEquals(7L, ((UserPrincipal) authentication.getPrincipal()).getId());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testFilter_IgnoresRevokedAndTamperedTokens() throws Exception {
+        String token = token();
+        JwtTokenProvider.TokenClaims claims = tokenProvider.parse(token);
+        tokenDenyList.deny(claims.tokenId(), claims.expiresAtMillis());
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        assertNull(tokenProvider.parse(token() + "x"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private String token() {
+        UserPrincipal principal = new UserPrincipal(7L, "alice", "hash", List.of());
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/meals/feed");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package com.nutrition.tracker.security;
+
+import com.nutrition.tracker.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        loginThrottle = new LoginThrottle();
+        ReflectionTestUtils.setField(loginThrottle, "windowSeconds", 60L);
+        ReflectionTestUtils.setField(loginThrottle, "maxAttemptsPerIp", 5);
+        ReflectionTestUtils.setField(loginThrottle, "maxAttemptsPerUsername", 2);
+    }
+
+    @Test
+    void testAcquire_LimitsUsernameFailuresAcrossAddresses() {
+        loginThrottle.acquire("10.0.0.1", "alice");
+        loginThrottle.recordFailure("alice");
+        loginThrottle.acquire("10.0.0.2", "Alice");
+        loginThrottle.recordFailure("Alice");
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire("10.0.0.3", "alice"));
+        assertTrue(ex.getRetryAfterSeconds() > 0 && ex.getRetryAfterSeconds() <= 60);
+        assertDoesNotThrow(() -> loginThrottle.acquire("10.0.0.3", "bob"));
+    }
+
+    @Test
+    void testAcquire_SuccessfulLoginsDoNotCountAgainstUsername() {
+        for (int i = 0; i < 5; i++) {
+            int address = i;
+            assertDoesNotThrow(() -> loginThrottle.acquire("10.0.0." + address, "alice"));
+            loginThrottle.recordSuccess("alice");
+        }
+    }
+
+    @Test
+    void testRecordSuccess_ClearsUsernameFailures() {
+        loginThrottle.recordFailure("alice");
+        loginThrottle.recordFailure("alice");
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("10.0.0.1", "alice"));
+
+        loginThrottle.recordSuccess("alice");
+
+        assertDoesNotThrow(() -> loginThrottle.acquire("10.0.0.1", "alice"));
+    }
+
+    @Test
+    void testAcquire_LimitsAddressAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.acquire("10.0.0.1", "user" + i);
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("10.0.0.1", "user9"));
+        assertDoesNotThrow(() -> loginThrottle.acquire("10.0.0.2", "user9"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.AuthRequest;
+import com.nutrition.tracker.dto.AuthResponse;
+import com.nutrition.tracker.dto.RegisterRequest;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.exception.TooManyRequestsException;
+import com.nutrition.tracker.repository.UserRepository;
+import com.nutrition.tracker.security.CustomUserDetailsService;
+import com.nutrition.tracker.security.JwtTokenProvider;
+import com.nutrition.tracker.security.LoginThrottle;
+import com.nutrition.tracker.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @Test
+    void testRegister_HashesPasswordOnce() {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("alice");
+        request.setEmail("alice@example.com");
+        request.setPassword("secret123");
+        when(passwordHasher.encode("secret123")).thenReturn(CompletableFuture.completedFuture("hash"));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(7L);
+            return user;
+        });
+        when(userDetailsService.getAuthorities("alice")).thenReturn(List.of());
+        when(tokenProvider.generateToken(any())).thenReturn("token");
+
+        AuthResponse response = authService.register(request, "10.0.0.1").join();
+
+        assertEquals("token", response.getToken());
+        assertEquals(7L, response.getUserId());
+        verify(userRepository).save(argThat(user -> "hash".equals(user.getPassword())));
+        verify(passwordHasher, never()).matches(anyString(), any());
+    }
+
+    @Test
+    void testLogin_UnknownUserIsHashedAndRejected() {
+        when(userRepository.findByUsername("mallory")).thenReturn(Optional.empty());
+        when(passwordHasher.matches("guess", null)).thenReturn(CompletableFuture.completedFuture(false));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> authService.login(authRequest("mallory", "guess"), "10.0.0.1").join());
+
+        assertInstanceOf(BadCredentialsException.class, ex.getCause());
+        verifyNoInteractions(tokenProvider);
+        verify(loginThrottle).recordFailure("mallory");
+        verify(loginThrottle, never()).recordSuccess(anyString());
+    }
+
+    @Test
+    void testLogin_SuccessClearsUsernameFailures() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+        user.setPassword("hash");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("secret123", "hash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(userDetailsService.getAuthorities("alice")).thenReturn(List.of());
+        when(tokenProvider.generateToken(any())).thenReturn("token");
+
+        AuthResponse response = authService.login(authRequest("alice", "secret123"), "10.0.0.1").join();
+
+        assertEquals("token", response.getToken());
+        verify(loginThrottle).recordSuccess("alice");
+        verify(loginThrottle, never()).recordFailure(anyString());
+    }
+
+    @Test
+    void testLogin_ThrottledBeforeHashing() {
+        doThrow(new TooManyRequestsException("Too many sign-in attempts, please try again later", 30))
+                .when(loginThrottle).acquire("10.0.0.1", "alice");
+
+        assertThrows(TooManyRequestsException.class,
+                () -> authService.login(authRequest("alice", "secret123"), "10.0.0.1"));
+
+        verifyNoInteractions(userRepository, passwordHasher);
+    }
+
+    private AuthRequest authRequest(String username, String password) {
+        AuthRequest request = new AuthRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,43 @@
+package com.nutrition.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheLoadGuardTest {
+
+    @Test
+    void testFinish_NoInvalidation_IsFresh() {
+        CacheLoadGuard<Long> guard = new CacheLoadGuard<>();
+
+        CacheLoadGuard<Long>.Load load = guard.begin(1L);
+
+        assertTrue(load.finish());
+        assertEquals(0, guard.inFlightKeys());
+    }
+
+    @Test
+    void testFinish_OverlappingLoadStartedAfterInvalidation_DoesNotClearIt() {
+        CacheLoadGuard<Long> guard = new CacheLoadGuard<>();
+
+        CacheLoadGuard<Long>.Load first = guard.begin(1L);
+        guard.invalidate(1L);
+        CacheLoadGuard<Long>.Load second = guard.begin(1L);
+
+        assertFalse(first.finish());
+        assertTrue(second.finish());
+        assertEquals(0, guard.inFlightKeys());
+    }
+
+    @Test
+    void testInvalidate_OtherKeyOrNoLoad_LeavesLoadFresh() {
+        CacheLoadGuard<Long> guard = new CacheLoadGuard<>();
+        guard.invalidate(1L);
+
+        CacheLoadGuard<Long>.Load load = guard.begin(1L);
+        guard.invalidate(2L);
+
+        assertTrue(load.finish());
+        assertEquals(0, guard.inFlightKeys());
+    }
+}
@@ -0,0 +1,31 @@
+package com.nutrition.tracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheStatsTest {
+
+    @Test
+    void testBindTo_PublishesHitsMissesAndSize() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        Map<Long, String> cache = new HashMap<>(Map.of(1L, "a", 2L, "b"));
+        CacheStats cacheStats = new CacheStats();
+        cacheStats.bindTo(registry, "trends", cache);
+
+        cacheStats.hit();
+        cacheStats.hit();
+        cacheStats.miss();
+        cacheStats.eviction();
+
+        assertEquals(2.0, registry.get("cache.gets").tags("cache", "trends", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "trends", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.evictions").tags("cache", "trends").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.size").tags("cache", "trends").gauge().value());
+    }
+}
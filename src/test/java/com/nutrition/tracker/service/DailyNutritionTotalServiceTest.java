@@ -0,0 +1,81 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.repository.DailyNutritionTotalRepository;
+import com.nutrition.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyNutritionTotalServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private DailyNutritionTotalRepository dailyNutritionTotalRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TrendService trendService;
+
+    @InjectMocks
+    private DailyNutritionTotalService dailyNutritionTotalService;
+
+    @Test
+    void testApplyDelta_PassesEveryNutrientSigned() {
+        dailyNutritionTotalService.applyDelta(7L, DATE, new NutritionTotals(-650.0, -30.0, -70.0, -20.0, -6.0, -8.0, -0.9));
+
+        verify(dailyNutritionTotalRepository).applyDelta(7L, DATE, -650.0, -30.0, -70.0, -20.0, -6.0, -8.0, -0.9);
+    }
+
+    @Test
+    void testBackfill_RebuildsOnlyUsersWithoutTotals() {
+        when(dailyNutritionTotalRepository.findUserIdsWithoutTotals()).thenReturn(List.of(3L, 5L));
+
+        assertEquals(2, dailyNutritionTotalService.backfill());
+
+        verify(dailyNutritionTotalRepository).deleteRange(eq(3L), any(), any());
+        verify(dailyNutritionTotalRepository).rebuildRange(eq(3L), any(), any());
+        verify(dailyNutritionTotalRepository).rebuildRange(eq(5L), any(), any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testBackfill_NothingToDo() {
+        when(dailyNutritionTotalRepository.findUserIdsWithoutTotals()).thenReturn(List.of());
+
+        assertEquals(0, dailyNutritionTotalService.backfill());
+
+        verify(dailyNutritionTotalRepository, never()).rebuildRange(any(), any(), any());
+    }
+
+    @Test
+    void testRepairAll_ContinuesPastFailedUser() {
+        when(userRepository.findAllIds()).thenReturn(List.of(3L, 5L));
+        when(dailyNutritionTotalRepository.rebuildRange(eq(3L), any(), any())).thenThrow(new RuntimeException("lock wait timeout"));
+
+        dailyNutritionTotalService.repairAll();
+
+        verify(dailyNutritionTotalRepository).rebuildRange(eq(5L), any(), any());
+        // Only the user whose rows were rewritten loses their cached trends
+        verify(trendService).evict(5L);
+        verify(trendService, never()).evict(3L);
+    }
+}
@@ -0,0 +1,198 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.entity.StoredFile;
+import com.nutrition.tracker.entity.StoredFileUpload;
+import com.nutrition.tracker.event.FileStoredEvent;
+import com.nutrition.tracker.repository.StoredFileRepository;
+import com.nutrition.tracker.repository.StoredFileUploadRepository;
+import com.nutrition.tracker.storage.FileSystemStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FileStorageServiceTest {
+
+    // SHA-256 of "hello world"
+    private static final String HELLO_HASH = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+
+    @Mock
+    private StoredFileRepository storedFileRepository;
+
+    @Mock
+    private StoredFileUploadRepository storedFileUploadRepository;
+
+    @Mock
+    private ThumbnailService thumbnailService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private FileStorageService fileStorageService;
+
+    @TempDir
+    Path uploadDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fileStorageService, "storageBackend",
+                new FileSystemStorageBackend(uploadDir.toString()));
+        lenient().when(userService.getCurrentUserId()).thenReturn(7L);
+    }
+
+    @Test
+    void testStoreFile_WritesContentAddressedShard() throws Exception {
+        String key = fileStorageService.storeFile(image("hello world"));
+
+        assertEquals("b9/4d/" + HELLO_HASH, key);
+        Path stored = uploadDir.resolve("b9").resolve("4d").resolve(HELLO_HASH);
+        assertEquals("hello world", Files.readString(stored));
+        verify(storedFileRepository).upsertReference(HELLO_HASH, "image/jpeg", 11L);
+        verify(storedFileUploadRepository).save(new StoredFileUpload(7L, HELLO_HASH));
+        verify(eventPublisher).publishEvent(new FileStoredEvent(key, "image/jpeg"));
+    }
+
+    @Test
+    void testStoreFile_DuplicateUploadSharesFile() throws Exception {
+        String first = fileStorageService.storeFile(image("hello world"));
+        String second = fileStorageService.storeFile(image("hello world"));
+
+        assertEquals(first, second);
+        verify(storedFileRepository, times(2)).upsertReference(eq(HELLO_HASH), any(), anyLong());
+
+        // Only the shard directories and the single stored file remain; temp files are cleaned up
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testDeleteFile_DecrementsSharedReference() throws Exception {
+        String key = fileStorageService.storeFile(image("hello world"));
+        StoredFileUpload upload = new StoredFileUpload(7L, HELLO_HASH);
+        when(storedFileUploadRepository.findFirstByUserIdAndHash(7L, HELLO_HASH)).thenReturn(Optional.of(upload));
+        StoredFile storedFile = storedFile(2);
+        when(storedFileRepository.findByHashForUpdate(HELLO_HASH)).thenReturn(Optional.of(storedFile));
+
+        fileStorageService.deleteFile(key);
+
+        assertEquals(1, storedFile.getRefCount());
+        verify(storedFileRepository).save(storedFile);
+        verify(storedFileUploadRepository).delete(upload);
+        try (InputStream content = fileStorageService.loadFile(key)) {
+            assertEquals("hello world", new String(content.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testDeleteFile_RemovesLastReferenceAfterCommit() throws Exception {
+        String key = fileStorageService.storeFile(image("hello world"));
+        when(storedFileUploadRepository.findFirstByUserIdAndHash(7L, HELLO_HASH))
+                .thenReturn(Optional.of(new StoredFileUpload(7L, HELLO_HASH)));
+        StoredFile storedFile = storedFile(1);
+        when(storedFileRepository.findByHashForUpdate(HELLO_HASH))
+                .thenReturn(Optional.of(storedFile), Optional.empty());
+        Path stored = uploadDir.resolve("b9").resolve("4d").resolve(HELLO_HASH);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fileStorageService.deleteFile(key);
+
+            verify(storedFileRepository).delete(storedFile);
+            assertTrue(Files.exists(stored));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(thumbnailService).deleteThumbnails(key);
+        assertFalse(Files.exists(stored));
+    }
+
+    @Test
+    void testDeleteFile_KeepsContentUploadedAgainBeforeCleanup() throws Exception {
+        String key = fileStorageService.storeFile(image("hello world"));
+        when(storedFileUploadRepository.findFirstByUserIdAndHash(7L, HELLO_HASH))
+                .thenReturn(Optional.of(new StoredFileUpload(7L, HELLO_HASH)));
+        when(storedFileRepository.findByHashForUpdate(HELLO_HASH)).thenReturn(Optional.of(storedFile(1)));
+
+        fileStorageService.deleteFile(key);
+
+        verify(thumbnailService, never()).deleteThumbnails(any());
+        assertTrue(Files.exists(uploadDir.resolve("b9").resolve("4d").resolve(HELLO_HASH)));
+    }
+
+    @Test
+    void testDeleteFile_RejectsOtherUsersFile() {
+        when(storedFileUploadRepository.findFirstByUserIdAndHash(7L, HELLO_HASH)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> fileStorageService.deleteFile("b9/4d/" + HELLO_HASH));
+
+        assertEquals("File not found", exception.getMessage());
+        verify(storedFileRepository, never()).findByHashForUpdate(any());
+    }
+
+    @Test
+    void testLoadFile_RejectsTraversalKey() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> fileStorageService.loadFile("../../etc/passwd"));
+        assertEquals("Invalid file key", exception.getMessage());
+    }
+
+    @Test
+    void testValidateImageFile_RejectsSvg() {
+        MockMultipartFile svg = new MockMultipartFile("file", "x.svg", "image/svg+xml",
+                "<svg><script>alert(1)</script></svg>".getBytes(StandardCharsets.UTF_8));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> fileStorageService.validateImageFile(svg));
+        assertEquals("File must be a JPEG, PNG, GIF or WebP image", exception.getMessage());
+    }
+
+    @Test
+    void testStoreFile_NormalizesContentType() {
+        fileStorageService.storeFile(new MockMultipartFile("file", "photo.png", "Image/PNG; charset=binary",
+                "hello world".getBytes(StandardCharsets.UTF_8)));
+
+        verify(storedFileRepository).upsertReference(HELLO_HASH, "image/png", 11L);
+    }
+
+    private MockMultipartFile image(String content) {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private StoredFile storedFile(int refCount) {
+        return new StoredFile(HELLO_HASH, "image/jpeg", 11L, refCount, LocalDateTime.now());
+    }
+}
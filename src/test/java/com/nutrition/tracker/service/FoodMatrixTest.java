@@ -0,0 +1,61 @@
+package com.nutrition.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodMatrixTest {
+
+    private static final float[] TARGETS = {2000f, 100f, 250f, 67f};
+    private static final float[] WEIGHTS = {3f, 1f, 1f, 1f};
+
+    @Test
+    void testRank_PrefersServingClosestToRemainingBudget() {
+        FoodMatrix matrix = FoodMatrix.of(List.of(
+                row(1L, 50.0, 1.0, 10.0, 0.5),
+                row(2L, 480.0, 30.0, 55.0, 15.0),
+                row(3L, 1200.0, 60.0, 100.0, 60.0),
+                row(4L, 500.0, null, null, null)));
+
+        FoodMatrix.Ranking ranking = matrix.rank(new float[]{500f, 30f, 60f, 16f}, TARGETS, WEIGHTS, 2);
+
+        assertEquals(2, ranking.rows().length);
+        assertEquals(2L, matrix.id(ranking.rows()[0]));
+        assertEquals(4L, matrix.id(ranking.rows()[1]));
+        assertTrue(ranking.scores()[0] < ranking.scores()[1]);
+        assertNull(matrix.servingSize(0));
+    }
+
+    @Test
+    void testRank_ParallelScanMatchesFullSort() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            rows.add(row(id, random.nextDouble() * 900, random.nextDouble() * 50,
+                    random.nextDouble() * 120, random.nextDouble() * 40));
+        }
+        FoodMatrix matrix = FoodMatrix.of(rows);
+        float[] remaining = {700f, 40f, 90f, 20f};
+
+        FoodMatrix.Ranking ranking = matrix.rank(remaining, TARGETS, WEIGHTS, 25);
+
+        float[] scores = new float[matrix.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = FoodMatrix.of(List.<Object[]>of(rows.get(i))).rank(remaining, TARGETS, WEIGHTS, 1).scores()[0];
+        }
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> scores[i]).thenComparing(i -> i))
+                .limit(25).mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(expected, ranking.rows());
+    }
+
+    private Object[] row(Long id, Double calories, Double protein, Double carbohydrates, Double fat) {
+        return new Object[]{id, "Food " + id, null, null, "g", calories, protein, carbohydrates, fat};
+    }
+}
@@ -0,0 +1,53 @@
+package com.nutrition.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodUsageTest {
+
+    @Test
+    void testRecent_KeepsLatestDistinctFoodsNewestFirst() {
+        FoodUsage usage = new FoodUsage(3, 8);
+        for (long foodId : new long[]{1, 2, 3, 1, 4}) {
+            usage.recordUse(foodId);
+        }
+
+        assertEquals(List.of(4L, 1L, 3L), usage.recent(10));
+        assertEquals(List.of(4L, 1L), usage.recent(2));
+    }
+
+    @Test
+    void testFrequent_HeavyHittersSurviveCounterEviction() {
+        FoodUsage usage = new FoodUsage(3, 4);
+        for (int round = 0; round < 20; round++) {
+            usage.recordUse(1L);
+            usage.recordUse(2L);
+            if (round % 2 == 0) {
+                usage.recordUse(2L);
+            }
+            // A long tail of one-off foods competing for the remaining counters
+            usage.recordUse(100L + round);
+        }
+
+        List<FoodUsage.Frequent> frequent = usage.frequent(2);
+        assertEquals(2L, frequent.get(0).foodId());
+        assertEquals(30, frequent.get(0).uses());
+        assertEquals(1L, frequent.get(1).foodId());
+        assertEquals(20, frequent.get(1).uses());
+    }
+
+    @Test
+    void testRecordRemoval_DecrementsWithoutDroppingRecent() {
+        FoodUsage usage = new FoodUsage(3, 4);
+        usage.recordUses(5L, 1);
+        usage.recordUse(6L);
+        usage.recordRemoval(5L);
+        usage.recordRemoval(6L);
+
+        assertTrue(usage.frequent(10).isEmpty());
+        assertEquals(List.of(6L), usage.recent(10));
+    }
+}
@@ -0,0 +1,101 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.event.MealsImportedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MealEventStreamServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private DailyNutritionTotalService dailyNutritionTotalService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    @InjectMocks
+    private MealEventStreamService mealEventStreamService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mealEventStreamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(mealEventStreamService, "maxStreamsPerUser", 2);
+        ReflectionTestUtils.setField(mealEventStreamService, "maxPendingPerStream", 3);
+        ReflectionTestUtils.setField(mealEventStreamService, "sendTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(mealEventStreamService, "executor", executor);
+    }
+
+    @Test
+    void testSubscribe_ClosesOldestStreamPastLimit() {
+        when(userService.getCurrentUserId()).thenReturn(7L);
+
+        mealEventStreamService.subscribe();
+        mealEventStreamService.subscribe();
+        mealEventStreamService.subscribe();
+
+        assertEquals(2, mealEventStreamService.getStreamCount(7L));
+    }
+
+    @Test
+    void testHeartbeat_ClosesStreamThatStopsDraining() {
+        when(userService.getCurrentUserId()).thenReturn(7L);
+        mealEventStreamService.subscribe();
+
+        // The drain task never runs, as when a send is blocked on a client that stopped reading
+        for (int i = 0; i < 3; i++) {
+            mealEventStreamService.heartbeat();
+        }
+        assertEquals(1, mealEventStreamService.getStreamCount(7L));
+        verify(executor, times(1)).execute(any());
+
+        mealEventStreamService.heartbeat();
+        assertEquals(0, mealEventStreamService.getStreamCount(7L));
+    }
+
+    @Test
+    void testOnMealChanged_SkipsUsersWithoutStreams() {
+        mealEventStreamService.onMealChanged(new MealChangedEvent(MealChangedEvent.ChangeType.CREATED, 8L, "bob",
+                1L, LocalDate.of(2024, 3, 1), new NutritionTotals(), List.of(), false));
+
+        verifyNoInteractions(dailyNutritionTotalService);
+        assertEquals(0, mealEventStreamService.getStreamCount(8L));
+    }
+
+    @Test
+    void testImport_SendsOneSummaryPerChunkInsteadOfPerMeal() {
+        when(userService.getCurrentUserId()).thenReturn(7L);
+        mealEventStreamService.subscribe();
+
+        for (long mealId = 1; mealId <= 10; mealId++) {
+            mealEventStreamService.onMealChanged(new MealChangedEvent(MealChangedEvent.ChangeType.CREATED, 7L,
+                    "alice", mealId, LocalDate.of(2024, 3, 1), new NutritionTotals(), List.of(), true));
+        }
+        verifyNoInteractions(executor);
+
+        mealEventStreamService.onMealsImported(new MealsImportedEvent(7L, 10,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1)));
+
+        // One drain task for the single summary; the stream stays well under its pending limit
+        verify(executor, times(1)).execute(any());
+        verifyNoInteractions(dailyNutritionTotalService);
+        assertEquals(1, mealEventStreamService.getStreamCount(7L));
+    }
+}
@@ -0,0 +1,116 @@
+package com.nutrition.tracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.tracker.exception.TooManyRequestsException;
+import com.nutrition.tracker.repository.MealExportReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MealExportServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private MealExportReader mealExportReader;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private MealExportService mealExportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mealExportService, "maxConcurrentExports", 1);
+        mealExportService.init();
+    }
+
+    @Test
+    void testWriteCsv_QuotesFieldsAndLeavesNullsEmpty() throws Exception {
+        stubRows();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        mealExportService.writeCsv(7L, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("date,meal_type,food,quantity,unit,servings,notes,"));
+        assertEquals("2024-03-01,LUNCH,Rice,150.0,g,1.5,\"with \"\"extra\"\", sauce\",1,10,,195.0,4.0,42.0,0.5,,,", lines[1]);
+        assertEquals("2024-03-01,DINNER,,,,,,2,,,,,,,,,", lines[2]);
+    }
+
+    @Test
+    void testExport_GzipsNdjsonLines() throws Exception {
+        when(userService.getCurrentUserId()).thenReturn(7L);
+        stubRows();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        mealExportService.export(MealExportService.Format.NDJSON, true).writeTo(out);
+
+        String body = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(10L, first.get("foodId").asLong());
+        assertEquals(195.0, first.get("calories").asDouble());
+        assertTrue(objectMapper.readTree(lines[1]).get("food").isNull());
+    }
+
+    @Test
+    void testExport_BeyondConcurrencyLimit_IsRefusedUntilRunningExportEnds() throws Exception {
+        when(userService.getCurrentUserId()).thenReturn(7L);
+        StreamingResponseBody running = mealExportService.export(MealExportService.Format.CSV, false);
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> mealExportService.export(MealExportService.Format.CSV, false));
+        assertEquals(30, ex.getRetryAfterSeconds());
+
+        // The slot is freed even when the export fails, e.g. because the client went away
+        doThrow(new IllegalStateException("connection lost")).when(mealExportReader).forEachRow(eq(7L), any());
+        assertThrows(IllegalStateException.class, () -> running.writeTo(new ByteArrayOutputStream()));
+        assertNotNull(mealExportService.export(MealExportService.Format.CSV, false));
+    }
+
+    @Test
+    void testFormat_RejectsUnknownFormat() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> MealExportService.Format.of("xml"));
+        assertEquals("Unsupported export format 'xml'; use csv or ndjson", ex.getMessage());
+        verifyNoInteractions(mealExportReader);
+    }
+
+    private void stubRows() {
+        doAnswer(invocation -> {
+            Consumer<MealExportReader.ExportRow> consumer = invocation.getArgument(1);
+            consumer.accept(new MealExportReader.ExportRow(1L, DATE, "LUNCH", "with \"extra\", sauce",
+                    10L, "Rice", null, 150.0, "g", 1.5, 195.0, 4.0, 42.0, 0.5, null, null, null));
+            consumer.accept(new MealExportReader.ExportRow(2L, DATE, "DINNER", null,
+                    null, null, null, null, null, null, null, null, null, null, null, null, null));
+            return null;
+        }).when(mealExportReader).forEachRow(eq(7L), any());
+    }
+}
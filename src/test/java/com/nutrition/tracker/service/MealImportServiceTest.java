@@ -0,0 +1,165 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.MealImportStatus;
+import com.nutrition.tracker.dto.MealRequest;
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.repository.FoodRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MealImportServiceTest {
+
+    @Mock
+    private MealService mealService;
+
+    @Mock
+    private FoodRepository foodRepository;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private MealImportService mealImportService;
+
+    @TempDir
+    Path tempDir;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mealImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(mealImportService, "maxItemsPerMeal", 3);
+        user = new User();
+        user.setId(7L);
+    }
+
+    @Test
+    void testRunImport_GroupsRowsIntoMealsAndWritesInChunks() throws Exception {
+        ReflectionTestUtils.setField(mealImportService, "chunkSize", 3);
+        when(foodRepository.findByNameInOrderById(anyList()))
+                .thenReturn(List.of(food(1L, "Oatmeal"), food(2L, "Banana"), food(3L, "Rice")));
+        List<List<MealRequest>> chunks = captureChunks();
+
+        MealImportStatus status = run(
+                "Date,Meal Type,Food,Quantity,Unit,Servings,Notes",
+                "2024-01-01,breakfast,Oatmeal,50,g,1,\"Before run, quick\"",
+                "2024-01-01,BREAKFAST,banana,120,g,,",
+                "2024-01-01,lunch,Rice,200,g,1.5,",
+                "2024-01-02,dinner,Rice,150,g,1,");
+
+        assertEquals(MealImportStatus.State.COMPLETED, status.getState());
+        assertEquals(3, status.getMealsImported());
+        assertEquals(4, status.getItemsImported());
+        assertEquals(0, status.getRowsRejected());
+
+        assertEquals(2, chunks.size());
+        MealRequest breakfast = chunks.get(0).get(0);
+        assertEquals(LocalDate.of(2024, 1, 1), breakfast.getMealDate());
+        assertEquals(Meal.MealType.BREAKFAST, breakfast.getMealType());
+        assertEquals("Before run, quick", breakfast.getNotes());
+        assertEquals(2, breakfast.getFoods().size());
+        assertEquals(2L, breakfast.getFoods().get(1).getFoodId());
+        assertNull(breakfast.getFoods().get(1).getServings());
+
+        // Names seen in the first chunk are served from the cache afterwards
+        verify(foodRepository, times(1)).findByNameInOrderById(anyList());
+    }
+
+    @Test
+    void testRunImport_SplitsLongMealsAndCountsItemsTowardChunk() throws Exception {
+        ReflectionTestUtils.setField(mealImportService, "chunkSize", 4);
+        when(foodRepository.findByNameInOrderById(anyList())).thenReturn(List.of(food(1L, "Rice")));
+        List<List<MealRequest>> chunks = captureChunks();
+
+        List<String> lines = new ArrayList<>(List.of("date,meal_type,food,quantity"));
+        for (int i = 0; i < 7; i++) {
+            lines.add("2024-01-01,dinner,Rice," + (i + 1));
+        }
+        MealImportStatus status = run(lines.toArray(String[]::new));
+
+        assertEquals(3, status.getMealsImported());
+        assertEquals(7, status.getItemsImported());
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+        assertEquals(List.of(3, 3, 1), chunks.stream().flatMap(List::stream)
+                .map(meal -> meal.getFoods().size()).toList());
+    }
+
+    @Test
+    void testRunImport_RejectsBadRowsAndUnknownFoods() throws Exception {
+        when(foodRepository.findByNameInOrderById(anyList())).thenReturn(List.of(food(1L, "Oatmeal")));
+        captureChunks();
+
+        MealImportStatus status = run(
+                "date,meal_type,food,quantity",
+                "2024-01-01,breakfast,Oatmeal,50",
+                "2024-13-01,breakfast,Oatmeal,50",
+                "2024-01-02,brunch,Oatmeal,50",
+                "2024-01-03,lunch,Mystery stew,300");
+
+        assertEquals(MealImportStatus.State.COMPLETED, status.getState());
+        assertEquals(1, status.getMealsImported());
+        assertEquals(3, status.getRowsRejected());
+        assertEquals("Line 3: Invalid date '2024-13-01'", status.getErrors().get(0));
+        assertEquals("Line 5: Unknown food 'Mystery stew'", status.getErrors().get(2));
+    }
+
+    @Test
+    void testRunImport_MissingColumnFailsJob() throws Exception {
+        MealImportStatus status = run("date,food,quantity", "2024-01-01,Oatmeal,50");
+
+        assertEquals(MealImportStatus.State.FAILED, status.getState());
+        assertTrue(status.getErrors().get(0).contains("Missing required column 'meal_type'"));
+        verify(mealService, never()).importMeals(any(), anyList(), any());
+    }
+
+    private MealImportStatus run(String... lines) throws Exception {
+        Path file = tempDir.resolve("import.csv");
+        Files.write(file, List.of(lines));
+        MealImportService.ImportJob job = new MealImportService.ImportJob("job-1", user.getId(), Files.size(file));
+
+        mealImportService.runImport(job, user, file, DateTimeFormatter.ISO_LOCAL_DATE);
+
+        assertFalse(Files.exists(file));
+        return job.toStatus();
+    }
+
+    private List<List<MealRequest>> captureChunks() {
+        List<List<MealRequest>> chunks = new ArrayList<>();
+        doAnswer(invocation -> {
+            chunks.add(new ArrayList<>(invocation.getArgument(1)));
+            return null;
+        }).when(mealService).importMeals(eq(user), anyList(), any());
+        return chunks;
+    }
+
+    private Food food(Long id, String name) {
+        Food food = new Food();
+        food.setId(id);
+        food.setName(name);
+        food.setCalories(100.0);
+        return food;
+    }
+}
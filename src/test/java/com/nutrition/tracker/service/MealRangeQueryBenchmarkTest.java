@@ -0,0 +1,245 @@
+package com.nutrition.tracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nutrition.tracker.config.JacksonConfig;
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.entity.MealFood;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.repository.FoodRepository;
+import com.nutrition.tracker.repository.MealBatchWriter;
+import com.nutrition.tracker.repository.MealRepository;
+import com.nutrition.tracker.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the two ways of reading a date range of meals: managed entities through
+ * {@code findByUserAndMealDateBetweenWithFoods} (SELECT DISTINCT ... JOIN FETCH) and the flat scalar
+ * projection behind {@link MealService#getMealsByDateRange}. For 30, 90 and 365 days it reports the
+ * mean time and bytes allocated per request (query plus JSON serialization) and the heap retained
+ * while one result is held, including the persistence context.
+ *
+ * <p>Opt-in, since it seeds a year of meals and takes a while. It runs against the datasource in
+ * application.yml (MySQL); the data is written in the test transaction and rolled back afterwards:
+ * <pre>
+ * mvn test -Dtest=MealRangeQueryBenchmarkTest -Dbenchmark.meal-range=true
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MealBatchWriter.class, JacksonConfig.class})
+@EnabledIfSystemProperty(named = "benchmark.meal-range", matches = "true")
+class MealRangeQueryBenchmarkTest {
+
+    private static final int[] RANGES_IN_DAYS = {30, 90, 365};
+    private static final int FOODS = 200;
+    private static final int ITEMS_PER_MEAL = 4;
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 20;
+    private static final int HEAP_SAMPLES = 7;
+    private static final LocalDate END_DATE = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private MealBatchWriter mealBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareEntityAndProjectionPaths() throws Exception {
+        User user = seed();
+        UserService userService = mock(UserService.class);
+        when(userService.getCurrentUser()).thenReturn(user);
+        MealService mealService = new MealService();
+        ReflectionTestUtils.setField(mealService, "mealRepository", mealRepository);
+        ReflectionTestUtils.setField(mealService, "userService", userService);
+
+        // Both paths are compiled before the first, shortest range is timed
+        LocalDate yearStart = END_DATE.minusDays(RANGES_IN_DAYS[RANGES_IN_DAYS.length - 1] - 1);
+        warmUp(() -> mealRepository.findByUserAndMealDateBetweenWithFoods(user, yearStart, END_DATE));
+        warmUp(() -> mealService.getMealsByDateRange(yearStart, END_DATE));
+
+        System.out.printf("%-6s %-10s %10s %14s %14s %8s%n",
+                "range", "path", "ms/req", "alloc MB/req", "retained MB", "meals");
+        for (int days : RANGES_IN_DAYS) {
+            LocalDate start = END_DATE.minusDays(days - 1);
+            Callable<List<?>> entities = () -> mealRepository.findByUserAndMealDateBetweenWithFoods(user, start, END_DATE);
+            Callable<List<?>> projection = () -> mealService.getMealsByDateRange(start, END_DATE);
+
+            Result entityResult = measure(entities);
+            Result projectionResult = measure(projection);
+            print(days, "entity", entityResult);
+            print(days, "projection", projectionResult);
+
+            assertEquals(entityResult.meals, projectionResult.meals);
+            assertEquals(entityResult.jsonLength, projectionResult.jsonLength);
+        }
+    }
+
+    private User seed() {
+        User user = new User();
+        user.setUsername("benchmark-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("not-a-hash");
+        userRepository.saveAndFlush(user);
+
+        List<Food> foods = new ArrayList<>(FOODS);
+        for (int i = 0; i < FOODS; i++) {
+            Food food = new Food();
+            food.setName("Benchmark food " + i);
+            food.setDescription("Benchmark food " + i + ", raw");
+            food.setCalories(100.0 + i);
+            food.setProtein(3.0);
+            food.setCarbohydrates(20.0);
+            food.setFat(2.0);
+            food.setSource(Food.FoodSource.USDA);
+            foods.add(food);
+        }
+        foodRepository.saveAllAndFlush(foods);
+
+        Random random = new Random(1);
+        List<Meal> meals = new ArrayList<>();
+        List<MealFood> items = new ArrayList<>();
+        int days = RANGES_IN_DAYS[RANGES_IN_DAYS.length - 1];
+        for (int day = 0; day < days; day++) {
+            for (Meal.MealType type : Meal.MealType.values()) {
+                Meal meal = new Meal();
+                meal.setUser(user);
+                meal.setMealType(type);
+                meal.setMealDate(END_DATE.minusDays(day));
+                meals.add(meal);
+                for (int i = 0; i < ITEMS_PER_MEAL; i++) {
+                    MealFood item = new MealFood();
+                    item.setMeal(meal);
+                    item.setFood(foods.get(random.nextInt(FOODS)));
+                    item.setQuantity(100.0);
+                    item.setQuantityUnit("g");
+                    item.setServings(1.0);
+                    NutritionTotals nutrients = NutritionTotals.of(item.getFood(), item.getServings());
+                    item.setCalories(nutrients.getCalories());
+                    item.setProtein(nutrients.getProtein());
+                    item.setCarbohydrates(nutrients.getCarbohydrates());
+                    item.setFat(nutrients.getFat());
+                    item.setFiber(nutrients.getFiber());
+                    item.setSugar(nutrients.getSugar());
+                    item.setSodium(nutrients.getSodium());
+                    meal.getMealFoods().add(item);
+                    items.add(item);
+                }
+            }
+        }
+        mealBatchWriter.insertMeals(meals);
+        mealBatchWriter.insertMealFoods(items);
+        entityManager.flush();
+        entityManager.clear();
+        return user;
+    }
+
+    /**
+     * Each request starts with an empty persistence context, as a new request would. Retained heap is
+     * the median heap while a result is held, less the lowest heap once results are released: a
+     * released result sometimes stays reachable for one more cycle, which only inflates a reading.
+     */
+    private Result measure(Callable<List<?>> query) throws Exception {
+        warmUp(query);
+
+        long nanos = 0;
+        long allocated = 0;
+        int jsonLength = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            entityManager.clear();
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            jsonLength = objectMapper.writeValueAsString(query.call()).length();
+            nanos += System.nanoTime() - start;
+            allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+
+        long[] withResult = new long[HEAP_SAMPLES];
+        long released = Long.MAX_VALUE;
+        int meals = 0;
+        for (int i = 0; i < HEAP_SAMPLES; i++) {
+            entityManager.clear();
+            List<?> held = query.call();
+            withResult[i] = usedHeapAfterGc();
+            meals = held.size();
+            held = null;
+            entityManager.clear();
+            released = Math.min(released, usedHeapAfterGc());
+        }
+        Arrays.sort(withResult);
+
+        return new Result(nanos / MEASURED_RUNS, allocated / MEASURED_RUNS, withResult[HEAP_SAMPLES / 2] - released,
+                meals, jsonLength);
+    }
+
+    private void warmUp(Callable<List<?>> query) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            entityManager.clear();
+            objectMapper.writeValueAsString(query.call());
+        }
+    }
+
+    /**
+     * Heap in use right after a full collection, as recorded by the collector, so nothing allocated
+     * since is counted.
+     */
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+                used += pool.getCollectionUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static void print(int days, String path, Result result) {
+        System.out.printf("%-6s %-10s %10.2f %14.2f %14.2f %8d%n", days + "d", path, result.nanos / 1e6,
+                result.allocatedBytes / 1e6, result.retainedBytes / 1e6, result.meals);
+    }
+
+    private record Result(long nanos, long allocatedBytes, long retainedBytes, int meals, int jsonLength) {
+    }
+}
@@ -0,0 +1,410 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.DailyNutritionSummary;
+import com.nutrition.tracker.dto.MealBatchRequest;
+import com.nutrition.tracker.dto.MealBatchResult;
+import com.nutrition.tracker.dto.MealDates;
+import com.nutrition.tracker.dto.MealFeedPage;
+import com.nutrition.tracker.dto.MealRequest;
+import com.nutrition.tracker.dto.MealTypeNutritionRow;
+import com.nutrition.tracker.dto.MealView;
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.entity.Food;
+import com.nutrition.tracker.entity.Meal;
+import com.nutrition.tracker.entity.MealFood;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.event.MealsImportedEvent;
+import com.nutrition.tracker.repository.FoodRepository;
+import com.nutrition.tracker.repository.MealBatchWriter;
+import com.nutrition.tracker.repository.MealRepository;
+import com.nutrition.tracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MealServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private MealRepository mealRepository;
+
+    @Mock
+    private FoodRepository foodRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private DailyNutritionTotalService dailyNutritionTotalService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MealBatchWriter mealBatchWriter;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private MealService mealService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+    }
+
+    @Test
+    void testCreateMeal_LoadsFoodsOnceAndBatchesItems() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(foodRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(food(1L, 100.0), food(2L, 250.0)));
+        assignMealIds();
+
+        Meal meal = mealService.createMeal(request(item(1L, 2.0), item(2L, null), item(1L, 1.0)));
+
+        verify(foodRepository, times(1)).findAllById(any());
+        verify(foodRepository, never()).findById(any());
+
+        ArgumentCaptor<List<MealFood>> items = ArgumentCaptor.forClass(List.class);
+        verify(mealBatchWriter).insertMealFoods(items.capture());
+        assertEquals(3, items.getValue().size());
+        assertSame(meal, items.getValue().get(0).getMeal());
+        assertEquals(42L, meal.getId());
+        // Nutrients are snapshotted per item, scaled by servings
+        assertEquals(200.0, items.getValue().get(0).getCalories(), 1e-9);
+        assertEquals(250.0, items.getValue().get(1).getCalories(), 1e-9);
+
+        ArgumentCaptor<MealChangedEvent> event = ArgumentCaptor.forClass(MealChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(550.0, event.getValue().getDelta().getCalories(), 1e-9);
+        verify(dailyNutritionTotalService).applyDelta(eq(7L), eq(DATE), any());
+    }
+
+    @Test
+    void testCreateMeal_UnknownFoodFailsBeforeWriting() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(foodRepository.findAllById(Set.of(1L, 99L))).thenReturn(List.of(food(1L, 100.0)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> mealService.createMeal(request(item(1L, 1.0), item(99L, 1.0))));
+
+        assertEquals("Food not found", exception.getMessage());
+        verify(mealBatchWriter, never()).insertMeals(anyList());
+        verify(mealBatchWriter, never()).insertMealFoods(anyList());
+    }
+
+    @Test
+    void testApplyBatch_ReplayedCreateIsAlreadyApplied() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        Meal stored = new Meal();
+        stored.setId(5L);
+        stored.setClientId("c-1");
+        stored.setMealDate(DATE);
+        when(mealRepository.findByUserAndClientIdInWithFoods(eq(user), any())).thenReturn(List.of(stored));
+        when(foodRepository.findAllById(Set.of(1L, 404L))).thenReturn(List.of(food(1L, 100.0)));
+        assignMealIds();
+
+        List<MealBatchResult> results = mealService.applyBatch(batch(
+                create("c-1", item(1L, 1.0)),
+                create("c-2", item(1L, 2.0)),
+                create("c-3", item(404L, 1.0))));
+
+        assertEquals(MealBatchResult.Status.ALREADY_APPLIED, results.get(0).getStatus());
+        assertEquals(5L, results.get(0).getMealId());
+        assertEquals(MealBatchResult.Status.CREATED, results.get(1).getStatus());
+        assertEquals(42L, results.get(1).getMealId());
+        assertEquals(MealBatchResult.Status.REJECTED, results.get(2).getStatus());
+
+        ArgumentCaptor<List<Meal>> meals = ArgumentCaptor.forClass(List.class);
+        verify(mealBatchWriter).insertMeals(meals.capture());
+        assertEquals(1, meals.getValue().size());
+        assertEquals("c-2", meals.getValue().get(0).getClientId());
+        verify(dailyNutritionTotalService).applyDelta(eq(7L), eq(DATE), any());
+    }
+
+    @Test
+    void testApplyBatch_DeleteOfMealCreatedInSameBatchWritesNothing() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(foodRepository.findAllById(Set.of(1L))).thenReturn(List.of(food(1L, 100.0)));
+
+        MealBatchRequest.Operation delete = new MealBatchRequest.Operation();
+        delete.setType(MealBatchRequest.OperationType.DELETE);
+        delete.setClientId("c-1");
+
+        List<MealBatchResult> results = mealService.applyBatch(batch(create("c-1", item(1L, 1.0)), delete));
+
+        assertEquals(MealBatchResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(MealBatchResult.Status.DELETED, results.get(1).getStatus());
+        verify(mealBatchWriter).insertMeals(List.of());
+        verify(mealRepository, never()).deleteAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testApplyBatch_RejectsMealDatesOutsideAllowedWindow() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(foodRepository.findAllById(Set.of(1L))).thenReturn(List.of(food(1L, 100.0)));
+        MealBatchRequest.Operation ancient = create("c-1", item(1L, 1.0));
+        ancient.getMeal().setMealDate(LocalDate.of(1, 1, 1));
+        MealBatchRequest.Operation farFuture = create("c-2", item(1L, 1.0));
+        farFuture.getMeal().setMealDate(LocalDate.now().plusYears(2));
+
+        List<MealBatchResult> results = mealService.applyBatch(batch(ancient, farFuture));
+
+        assertEquals(MealBatchResult.Status.REJECTED, results.get(0).getStatus());
+        assertEquals(MealDates.MESSAGE, results.get(0).getError());
+        assertEquals(MealBatchResult.Status.REJECTED, results.get(1).getStatus());
+        verify(mealBatchWriter).insertMeals(List.of());
+    }
+
+    @Test
+    void testImportMeals_MarksMealEventsImportedAndPublishesOneSummary() {
+        MealRequest first = request(item(1L, 1.0));
+        MealRequest second = request(item(1L, 2.0));
+        second.setMealDate(DATE.plusDays(3));
+
+        mealService.importMeals(user, List.of(first, second, request(item(1L, 1.0))), Map.of(1L, food(1L, 100.0)));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        List<Object> published = events.getAllValues();
+        assertTrue(published.subList(0, 3).stream().allMatch(event -> ((MealChangedEvent) event).isImported()));
+        MealsImportedEvent summary = (MealsImportedEvent) published.get(3);
+        assertEquals(3, summary.getMealCount());
+        assertEquals(DATE, summary.getFromDate());
+        assertEquals(DATE.plusDays(3), summary.getToDate());
+    }
+
+    @Test
+    void testDeleteMeal_SubtractsSnapshotNotCorrectedFood() {
+        Meal meal = new Meal();
+        meal.setId(5L);
+        meal.setUser(user);
+        meal.setMealDate(DATE);
+        MealFood item = new MealFood();
+        item.setFood(food(1L, 300.0));
+        item.setServings(2.0);
+        item.setCalories(200.0);
+        item.setProtein(0.0);
+        item.setCarbohydrates(0.0);
+        item.setFat(0.0);
+        item.setFiber(0.0);
+        item.setSugar(0.0);
+        item.setSodium(0.0);
+        meal.getMealFoods().add(item);
+        when(mealRepository.findByIdWithFoods(5L)).thenReturn(Optional.of(meal));
+        when(userService.getCurrentUser()).thenReturn(user);
+
+        mealService.deleteMeal(5L);
+
+        ArgumentCaptor<NutritionTotals> delta = ArgumentCaptor.forClass(NutritionTotals.class);
+        verify(dailyNutritionTotalService).applyDelta(eq(7L), eq(DATE), delta.capture());
+        assertEquals(-200.0, delta.getValue().getCalories(), 1e-9);
+    }
+
+    @Test
+    void testGetMealsByDateRange_FoldsFlatRowsIntoViews() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(mealRepository.findFlatRowsByUserAndMealDateBetween(user, DATE, DATE)).thenReturn(List.of(
+                flatRow(1L, 10L, 1L), flatRow(1L, 11L, 2L), flatRow(2L, 12L, 1L), flatRow(3L, null, null)));
+
+        List<MealView> meals = mealService.getMealsByDateRange(DATE, DATE);
+
+        assertEquals(3, meals.size());
+        assertEquals(2, meals.get(0).getMealFoods().size());
+        assertEquals("Food 2", meals.get(0).getMealFoods().get(1).getFood().getName());
+        // Rows for the same food share one view
+        assertSame(meals.get(0).getMealFoods().get(0).getFood(), meals.get(1).getMealFoods().get(0).getFood());
+        assertTrue(meals.get(2).getMealFoods().isEmpty());
+    }
+
+    @Test
+    void testGetMealFeed_ReturnsCursorThatSeeksPastLastMeal() {
+        ReflectionTestUtils.setField(mealService, "defaultFeedPageSize", 2);
+        ReflectionTestUtils.setField(mealService, "maxFeedPageSize", 100);
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(mealRepository.findFeedIds(user, PageRequest.of(0, 3))).thenReturn(List.of(5L, 4L, 3L));
+        when(mealRepository.findFlatRowsByIdInNewestFirst(List.of(5L, 4L)))
+                .thenReturn(List.of(flatRow(5L, 10L, 1L), flatRow(4L, 11L, 1L)));
+
+        MealFeedPage page = mealService.getMealFeed(null, null, true);
+
+        assertEquals(2, page.getMeals().size());
+        assertEquals(200.0, page.getTotals().getCalories());
+        assertNotNull(page.getNextCursor());
+
+        when(mealRepository.findFeedIdsBefore(user, DATE, 4L, PageRequest.of(0, 3))).thenReturn(List.of(3L));
+        when(mealRepository.findFlatRowsByIdInNewestFirst(List.of(3L))).thenReturn(List.<Object[]>of(flatRow(3L, null, null)));
+
+        MealFeedPage last = mealService.getMealFeed(page.getNextCursor(), null, false);
+
+        assertEquals(1, last.getMeals().size());
+        assertNull(last.getNextCursor());
+        assertNull(last.getTotals());
+    }
+
+    @Test
+    void testGetMealFeed_RejectsMalformedCursor() {
+        ReflectionTestUtils.setField(mealService, "defaultFeedPageSize", 20);
+        ReflectionTestUtils.setField(mealService, "maxFeedPageSize", 100);
+        when(userService.getCurrentUser()).thenReturn(user);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> mealService.getMealFeed("not-a-cursor", 10, false));
+        assertEquals("Invalid cursor", ex.getMessage());
+    }
+
+    @Test
+    void testCopyDay_RebuildsRangeOnceAndPublishesEachCopy() {
+        LocalDate end = DATE.plusDays(6);
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(mealRepository.findMaxIdForShare(7L)).thenReturn(40L);
+        when(mealRepository.copyDayToDates(7L, DATE.minusDays(1), DATE, end)).thenReturn(2);
+        when(mealRepository.findCopiedIdsAfter(7L, 40L)).thenReturn(List.of(42L, 41L));
+        when(mealRepository.findFlatRowsByIdInNewestFirst(List.of(42L, 41L)))
+                .thenReturn(List.of(flatRow(42L, 20L, 1L), flatRow(41L, 21L, 2L)));
+
+        List<MealView> meals = mealService.copyDay(DATE.minusDays(1), DATE, end);
+
+        assertEquals(2, meals.size());
+        verify(userRepository).findByIdForUpdate(7L);
+        verify(mealRepository).copyItemsOfCopiedMeals(7L, 40L);
+        verify(dailyNutritionTotalService, times(1)).rebuild(7L, DATE, end);
+        ArgumentCaptor<MealChangedEvent> events = ArgumentCaptor.forClass(MealChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(1L), events.getAllValues().get(0).getFoodIds());
+        assertEquals(100.0, events.getAllValues().get(1).getDelta().getCalories());
+    }
+
+    @Test
+    void testCopyMeal_RejectsRangesBeyondLimit() {
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> mealService.copyMeal(1L, DATE, DATE.plusDays(MealService.MAX_COPY_DAYS)));
+        assertEquals("Cannot copy onto more than 366 days at once", ex.getMessage());
+        verifyNoInteractions(mealRepository);
+    }
+
+    @Test
+    void testGetSummaryByDateRange_FillsEveryDayFromAggregateRows() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(mealRepository.sumNutritionByDateAndMealType(user, DATE, DATE.plusDays(2))).thenReturn(List.of(
+                new MealTypeNutritionRow(DATE, Meal.MealType.BREAKFAST, 300.0, 10.0, 40.0, 8.0, 3.0, 12.0, 0.2),
+                new MealTypeNutritionRow(DATE, Meal.MealType.DINNER, 700.0, 35.0, 60.0, 25.0, null, null, null),
+                new MealTypeNutritionRow(DATE.plusDays(2), Meal.MealType.LUNCH, 500.0, 20.0, 50.0, 15.0, 5.0, 6.0, 0.4)));
+
+        List<DailyNutritionSummary> summaries = mealService.getSummaryByDateRange(DATE, DATE.plusDays(2));
+
+        assertEquals(3, summaries.size());
+        assertEquals(1000.0, summaries.get(0).getTotals().getCalories());
+        assertEquals(3.0, summaries.get(0).getTotals().getFiber());
+        assertEquals(Set.of(Meal.MealType.BREAKFAST, Meal.MealType.DINNER), summaries.get(0).getMealTypes().keySet());
+        assertEquals(DATE.plusDays(1), summaries.get(1).getDate());
+        assertEquals(0.0, summaries.get(1).getTotals().getCalories());
+        assertTrue(summaries.get(1).getMealTypes().isEmpty());
+        assertEquals(500.0, summaries.get(2).getMealTypes().get(Meal.MealType.LUNCH).getCalories());
+    }
+
+    @Test
+    void testGetSummaryByDateRange_RejectsRangesBeyondLimit() {
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> mealService.getSummaryByDateRange(DATE, DATE.plusDays(MealService.MAX_SUMMARY_DAYS)));
+        assertEquals("Cannot summarize more than 366 days at once", ex.getMessage());
+        verifyNoInteractions(mealRepository);
+    }
+
+    private Object[] flatRow(Long mealId, Long itemId, Long foodId) {
+        Object[] row = new Object[38];
+        row[0] = mealId;
+        row[1] = Meal.MealType.LUNCH;
+        row[2] = DATE;
+        if (itemId != null) {
+            row[7] = itemId;
+            row[8] = 100.0;
+            row[9] = "g";
+            row[11] = foodId;
+            row[12] = "Food " + foodId;
+            row[19] = 100.0;
+            row[31] = 100.0;
+            for (int i = 32; i < 38; i++) {
+                row[i] = 0.0;
+            }
+        }
+        return row;
+    }
+
+    private void assignMealIds() {
+        doAnswer(invocation -> {
+            List<Meal> meals = invocation.getArgument(0);
+            long id = 42L;
+            for (Meal meal : meals) {
+                meal.setId(id++);
+            }
+            return null;
+        }).when(mealBatchWriter).insertMeals(anyList());
+    }
+
+    private MealBatchRequest batch(MealBatchRequest.Operation... operations) {
+        MealBatchRequest request = new MealBatchRequest();
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private MealBatchRequest.Operation create(String clientId, MealRequest.MealFoodRequest... items) {
+        MealBatchRequest.Operation operation = new MealBatchRequest.Operation();
+        operation.setType(MealBatchRequest.OperationType.CREATE);
+        operation.setClientId(clientId);
+        operation.setMeal(request(items));
+        return operation;
+    }
+
+    private MealRequest request(MealRequest.MealFoodRequest... items) {
+        MealRequest request = new MealRequest();
+        request.setMealType(Meal.MealType.LUNCH);
+        request.setMealDate(DATE);
+        request.setFoods(new ArrayList<>(List.of(items)));
+        return request;
+    }
+
+    private MealRequest.MealFoodRequest item(Long foodId, Double servings) {
+        MealRequest.MealFoodRequest item = new MealRequest.MealFoodRequest();
+        item.setFoodId(foodId);
+        item.setQuantity(100.0);
+        item.setQuantityUnit("g");
+        item.setServings(servings);
+        return item;
+    }
+
+    private Food food(Long id, Double calories) {
+        Food food = new Food();
+        food.setId(id);
+        food.setName("Food " + id);
+        food.setCalories(calories);
+        return food;
+    }
+}
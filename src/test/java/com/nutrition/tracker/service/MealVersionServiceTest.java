@@ -0,0 +1,69 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.NutritionTotals;
+import com.nutrition.tracker.event.MealChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MealVersionServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    private MealVersionService mealVersionService;
+
+    @BeforeEach
+    void setUp() {
+        mealVersionService = new MealVersionService();
+        ReflectionTestUtils.setField(mealVersionService, "maxEntries", 2);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetDayETag_ChangesOnlyForChangedUserAndDay() {
+        String before = mealVersionService.getDayETag(DATE);
+        String otherDay = mealVersionService.getDayETag(DATE.plusDays(1));
+
+        mealVersionService.onMealChanged(event("bob", DATE));
+        assertEquals(before, mealVersionService.getDayETag(DATE));
+
+        mealVersionService.onMealChanged(event("alice", DATE));
+        String after = mealVersionService.getDayETag(DATE);
+
+        assertNotEquals(before, after);
+        assertTrue(after.startsWith("\"") && after.endsWith("\""));
+        assertEquals(otherDay, mealVersionService.getDayETag(DATE.plusDays(1)));
+    }
+
+    @Test
+    void testOnMealChanged_ResetAtLimitInvalidatesEveryTag() {
+        String untouchedDay = mealVersionService.getDayETag(DATE.plusDays(5));
+
+        mealVersionService.onMealChanged(event("alice", DATE));
+        mealVersionService.onMealChanged(event("bob", DATE));
+        String beforeReset = mealVersionService.getDayETag(DATE);
+        mealVersionService.onMealChanged(event("carol", DATE));
+
+        assertNotEquals(untouchedDay, mealVersionService.getDayETag(DATE.plusDays(5)));
+        assertNotEquals(beforeReset, mealVersionService.getDayETag(DATE));
+    }
+
+    private MealChangedEvent event(String username, LocalDate date) {
+        return new MealChangedEvent(MealChangedEvent.ChangeType.CREATED, 1L, username, 10L, date,
+                new NutritionTotals(), List.of(), false);
+    }
+}
@@ -29,6 +29,9 @@ class OpenFoodFactsServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private ExternalApiMetrics externalApiMetrics;
+
     @InjectMocks
     private OpenFoodFactsService openFoodFactsService;
 
@@ -0,0 +1,148 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.SyncResponse;
+import com.nutrition.tracker.entity.SyncChange;
+import com.nutrition.tracker.event.FoodCatalogChangedEvent;
+import com.nutrition.tracker.event.MealChangedEvent;
+import com.nutrition.tracker.repository.FoodRepository;
+import com.nutrition.tracker.repository.SyncChangeRepository;
+import com.nutrition.tracker.repository.SyncChangeWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTest {
+
+    @Mock
+    private SyncChangeRepository syncChangeRepository;
+
+    @Mock
+    private SyncChangeWriter syncChangeWriter;
+
+    @Mock
+    private MealService mealService;
+
+    @Mock
+    private FoodRepository foodRepository;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private SyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(syncService, "maxChanges", 2);
+    }
+
+    @Test
+    void testOnMealChanged_LogsTombstoneWithNextSequence() {
+        when(syncChangeRepository.findVersion(7L)).thenReturn(Optional.of(12L));
+
+        syncService.onMealChanged(mealChanged(MealChangedEvent.ChangeType.DELETED, 3L));
+
+        InOrder inOrder = inOrder(syncChangeRepository, syncChangeWriter);
+        inOrder.verify(syncChangeRepository).incrementVersion(7L, 1);
+        inOrder.verify(syncChangeWriter).insertChanges(List.of(
+                new SyncChange(null, 7L, 12L, SyncChange.EntityType.MEAL, 3L, true, null)));
+    }
+
+    @Test
+    void testOnMealChanged_InTransaction_WritesAllChangesOnceBeforeCommit() {
+        when(syncChangeRepository.findVersion(SyncChange.CATALOG_STREAM)).thenReturn(Optional.of(4L));
+        when(syncChangeRepository.findVersion(7L)).thenReturn(Optional.of(12L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            syncService.onMealChanged(mealChanged(MealChangedEvent.ChangeType.CREATED, 1L));
+            syncService.onMealChanged(mealChanged(MealChangedEvent.ChangeType.CREATED, 2L));
+            syncService.onFoodCatalogChanged(new FoodCatalogChangedEvent(5L));
+            syncService.onMealChanged(mealChanged(MealChangedEvent.ChangeType.DELETED, 1L));
+            verifyNoInteractions(syncChangeRepository, syncChangeWriter);
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Streams are locked in id order, the catalog first
+        InOrder inOrder = inOrder(syncChangeRepository, syncChangeWriter);
+        inOrder.verify(syncChangeRepository).incrementVersion(SyncChange.CATALOG_STREAM, 1);
+        inOrder.verify(syncChangeRepository).incrementVersion(7L, 3);
+        inOrder.verify(syncChangeWriter).insertChanges(List.of(
+                change(7L, 10L, 1L, false), change(7L, 11L, 2L, false),
+                new SyncChange(null, SyncChange.CATALOG_STREAM, 4L, SyncChange.EntityType.FOOD, 5L, false, null),
+                change(7L, 12L, 1L, true)));
+        verifyNoMoreInteractions(syncChangeWriter);
+        assertFalse(TransactionSynchronizationManager.hasResource(syncService));
+    }
+
+    @Test
+    void testGetChanges_KeepsLatestChangePerMealAndPagesByStream() {
+        stubUser();
+        when(syncChangeRepository.findByStreamIdAndSeqGreaterThanOrderBySeq(7L, 4L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(change(7L, 5L, 1L, false), change(7L, 6L, 1L, true), change(7L, 7L, 2L, false)));
+        when(syncChangeRepository.findByStreamIdAndSeqGreaterThanOrderBySeq(SyncChange.CATALOG_STREAM, 9L, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+        when(mealService.getMealViews(List.of())).thenReturn(List.of());
+
+        SyncResponse response = syncService.getChanges("4.9");
+
+        assertEquals(List.of(1L), response.getDeletedMealIds());
+        assertEquals("6.9", response.getToken());
+        assertTrue(response.isHasMore());
+        verifyNoInteractions(foodRepository);
+    }
+
+    @Test
+    void testGetChanges_WithoutTokenReturnsCurrentVersions() {
+        stubUser();
+        when(syncChangeRepository.findVersion(7L)).thenReturn(Optional.of(3L));
+        when(syncChangeRepository.findVersion(SyncChange.CATALOG_STREAM)).thenReturn(Optional.empty());
+
+        SyncResponse response = syncService.getChanges(null);
+
+        assertEquals("3.0", response.getToken());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void testGetChanges_RejectsMalformedToken() {
+        stubUser();
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> syncService.getChanges("abc"));
+        assertEquals("Invalid sync token", ex.getMessage());
+    }
+
+    private void stubUser() {
+        when(userService.getCurrentUserId()).thenReturn(7L);
+    }
+
+    private MealChangedEvent mealChanged(MealChangedEvent.ChangeType type, Long mealId) {
+        return new MealChangedEvent(type, 7L, "alice", mealId, LocalDate.of(2024, 3, 1), null, List.of(), false);
+    }
+
+    private SyncChange change(Long streamId, Long seq, Long mealId, boolean deleted) {
+        return new SyncChange(null, streamId, seq, SyncChange.EntityType.MEAL, mealId, deleted, null);
+    }
+}
@@ -0,0 +1,108 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.config.ExecutorMetrics;
+import com.nutrition.tracker.storage.FileSystemStorageBackend;
+import com.nutrition.tracker.storage.StorageBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ThumbnailServiceTest {
+
+    private static final String KEY = "ab/cd/abcd";
+
+    @Mock
+    private ExecutorMetrics executorMetrics;
+
+    @InjectMocks
+    private ThumbnailService thumbnailService;
+
+    @TempDir
+    Path storageDir;
+
+    private StorageBackend storageBackend;
+
+    @BeforeEach
+    void setUp() {
+        storageBackend = new FileSystemStorageBackend(storageDir.toString());
+        ReflectionTestUtils.setField(thumbnailService, "storageBackend", storageBackend);
+        ReflectionTestUtils.setField(thumbnailService, "poolSize", 1);
+        ReflectionTestUtils.setField(thumbnailService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(thumbnailService, "maxPixels", 40_000_000L);
+        thumbnailService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailService.shutdown();
+    }
+
+    @Test
+    void testRequestVariant_QueuesMissingVariantOnPool() throws Exception {
+        store(KEY, png(800, 600));
+
+        assertEquals(ThumbnailService.Status.PENDING,
+                thumbnailService.requestVariant(KEY, ThumbnailService.Variant.SMALL));
+
+        String variantKey = ThumbnailService.Variant.SMALL.keyFor(KEY);
+        for (int i = 0; i < 100 && !storageBackend.exists(variantKey); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(ThumbnailService.Status.READY,
+                thumbnailService.requestVariant(KEY, ThumbnailService.Variant.SMALL));
+    }
+
+    @Test
+    void testRequestVariant_MissingOriginal() throws Exception {
+        assertEquals(ThumbnailService.Status.MISSING,
+                thumbnailService.requestVariant(KEY, ThumbnailService.Variant.SMALL));
+    }
+
+    @Test
+    void testGenerateThumbnails_SkipsImagesOverPixelBudget() throws Exception {
+        ReflectionTestUtils.setField(thumbnailService, "maxPixels", 100_000L);
+        store(KEY, png(800, 600));
+
+        thumbnailService.generateThumbnails(KEY);
+
+        for (ThumbnailService.Variant variant : ThumbnailService.Variant.values()) {
+            assertFalse(storageBackend.exists(variant.keyFor(KEY)));
+        }
+    }
+
+    @Test
+    void testGenerateThumbnails_WritesEveryVariant() throws Exception {
+        store(KEY, png(800, 600));
+
+        thumbnailService.generateThumbnails(KEY);
+
+        for (ThumbnailService.Variant variant : ThumbnailService.Variant.values()) {
+            assertTrue(storageBackend.exists(variant.keyFor(KEY)));
+        }
+    }
+
+    private void store(String key, byte[] content) throws Exception {
+        storageBackend.commit(storageBackend.stage(new ByteArrayInputStream(content), content.length), key);
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.Nutrient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendSeriesTest {
+
+    // A Monday
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private TrendSeries series;
+
+    @BeforeEach
+    void setUp() {
+        series = new TrendSeries(START, START.plusDays(30));
+    }
+
+    @Test
+    void testBuckets_WeeklyRollupFollowsDailyUpdates() {
+        series.add(START, calories(2000));
+        series.add(START.plusDays(2), calories(1800));
+        series.add(START.plusDays(7), calories(2200));
+        series.add(START.plusDays(2), calories(-1800));
+
+        TrendSeries.Buckets weeks = series.buckets(Nutrient.CALORIES, TrendSeries.Granularity.WEEK,
+                START, START.plusDays(13));
+
+        assertEquals(2, weeks.starts().length);
+        assertEquals(2000, weeks.totals()[0], 1e-9);
+        assertEquals(1, weeks.loggedDays()[0]);
+        assertEquals(2200, weeks.totals()[1], 1e-9);
+    }
+
+    @Test
+    void testAdd_RoundingResidueOfDeletedMealsIsNotLogged() {
+        series.add(START, calories(0.1));
+        series.add(START, calories(0.2));
+        series.add(START, calories(612.7));
+        series.add(START, calories(-612.7));
+        series.add(START, calories(-0.2));
+        series.add(START, calories(-0.1));
+
+        TrendSeries.Buckets weeks = series.buckets(Nutrient.CALORIES, TrendSeries.Granularity.WEEK, START, START);
+        assertEquals(0, weeks.loggedDays()[0]);
+        assertTrue(Double.isNaN(series.adherence(2000, 0.1, START, START)));
+    }
+
+    @Test
+    void testAdd_IgnoresDaysBeyondMaximumSpan() {
+        series.add(START, calories(1000));
+        series.add(LocalDate.of(1, 1, 1), calories(500));
+        series.add(LocalDate.MAX, calories(500));
+
+        assertEquals(1, series.loggedValues(Nutrient.CALORIES, START.minusYears(1), START.plusYears(1)).length);
+        assertThrows(IllegalArgumentException.class, () -> new TrendSeries(LocalDate.of(1, 1, 1), START));
+    }
+
+    @Test
+    void testAdd_GrowsBeyondAllocatedRange() {
+        series.add(START, calories(1000));
+        series.add(START.plusYears(3), calories(1500));
+        series.add(START.minusYears(1), calories(500));
+
+        TrendSeries.Buckets months = series.buckets(Nutrient.CALORIES, TrendSeries.Granularity.MONTH,
+                START.minusYears(1), START.plusYears(3));
+
+        assertEquals(500, months.totals()[0], 1e-9);
+        assertEquals(1000, months.totals()[12], 1e-9);
+        assertEquals(1500, months.totals()[48], 1e-9);
+    }
+
+    @Test
+    void testMovingAverage_IgnoresUnloggedDays() {
+        series.add(START, calories(1000));
+        series.add(START.plusDays(2), calories(2000));
+
+        double[] averages = series.movingAverage(Nutrient.CALORIES, START, START.plusDays(3), 3);
+
+        assertArrayEquals(new double[]{1000, 1000, 1500, 2000}, averages, 1e-9);
+    }
+
+    @Test
+    void testAdherenceAndPercentiles() {
+        double[] days = {1800, 2000, 2100, 2600};
+        for (int i = 0; i < days.length; i++) {
+            series.add(START.plusDays(i), calories(days[i]));
+        }
+
+        assertEquals(0.75, series.adherence(2000, 0.1, START, START.plusDays(30)), 1e-9);
+        assertArrayEquals(new double[]{2000, 2600},
+                series.percentiles(Nutrient.CALORIES, START, START.plusDays(30), new double[]{50, 100}), 1e-9);
+        assertTrue(Double.isNaN(series.adherence(2000, 0.1, START.plusDays(10), START.plusDays(20))));
+    }
+
+    private double[] calories(double calories) {
+        double[] values = new double[Nutrient.values().length];
+        values[Nutrient.CALORIES.ordinal()] = calories;
+        return values;
+    }
+}
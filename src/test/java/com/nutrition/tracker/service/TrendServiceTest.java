@@ -0,0 +1,107 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.AdminTrendReport;
+import com.nutrition.tracker.repository.DailyNutritionTotalRepository;
+import com.nutrition.tracker.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 31);
+
+    @Mock
+    private DailyNutritionTotalRepository dailyNutritionTotalRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TrendService trendService;
+
+    private final ForkJoinPool reportPool = new ForkJoinPool(2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trendService, "reportPool", reportPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportPool.shutdown();
+    }
+
+    @Test
+    void testEvict_DuringLoad_KeepsLoadedSeriesOutOfCache() {
+        ReflectionTestUtils.setField(trendService, "maxCachedUsers", 10);
+        when(dailyNutritionTotalRepository.findByUserIdOrderByDate(7L))
+                .thenAnswer(invocation -> {
+                    // The nightly repair rewrites the user's totals while this load reads them
+                    trendService.evict(7L);
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        trendService.getSeries(7L);
+        trendService.getSeries(7L);
+        trendService.getSeries(7L);
+
+        verify(dailyNutritionTotalRepository, times(2)).findByUserIdOrderByDate(7L);
+    }
+
+    @Test
+    void testGetAdminReport_PairsEachUsersRowsWithTheirGoal() {
+        when(userRepository.findAllCalorieGoals()).thenReturn(List.of(
+                new Object[]{1L, 2000}, new Object[]{2L, 1800}, new Object[]{3L, null}));
+        when(dailyNutritionTotalRepository.findCaloriesByUserIdInAndDateBetween(List.of(1L, 2L, 3L), START, END))
+                .thenReturn(List.of(
+                        new Object[]{1L, START, 2000.0},
+                        new Object[]{1L, START.plusDays(1), 3000.0},
+                        new Object[]{3L, START, 1500.0}));
+
+        AdminTrendReport report = trendService.getAdminReport(START, END, 0.1);
+
+        assertEquals(3, report.getUsers());
+        assertEquals(2, report.getUsersWithData());
+        // Only user 1 has both a goal and data; user 2's goal counts for nothing without logged days
+        assertEquals(1, report.getUsersWithGoal());
+        assertEquals((2500.0 + 1500.0) / 2, report.getAverageDailyCalories(), 1e-9);
+        assertEquals(0.5, report.getAverageGoalAdherence(), 1e-9);
+        assertEquals(1, report.getAdherenceHistogram()[5]);
+    }
+
+    @Test
+    void testGetAdminReport_ReadsTotalsPerBatchOfUsers() {
+        Object[][] goals = new Object[150][];
+        for (int i = 0; i < goals.length; i++) {
+            goals[i] = new Object[]{(long) i + 1, 2000};
+        }
+        when(userRepository.findAllCalorieGoals()).thenReturn(List.of(goals));
+        when(dailyNutritionTotalRepository.findCaloriesByUserIdInAndDateBetween(any(), eq(START), eq(END)))
+                .thenReturn(List.of());
+
+        AdminTrendReport report = trendService.getAdminReport(START, END, 0.1);
+
+        assertEquals(150, report.getUsers());
+        assertEquals(0, report.getUsersWithData());
+        assertNull(report.getAverageDailyCalories());
+        verify(dailyNutritionTotalRepository, times(4)).findCaloriesByUserIdInAndDateBetween(any(), eq(START), eq(END));
+    }
+}
@@ -0,0 +1,100 @@
+package com.nutrition.tracker.service;
+
+import com.nutrition.tracker.dto.UserProfileRequest;
+import com.nutrition.tracker.entity.User;
+import com.nutrition.tracker.repository.UserRepository;
+import com.nutrition.tracker.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userService, "maxCachedUsers", 10);
+        ReflectionTestUtils.setField(userService, "ttlSeconds", 300L);
+        UserPrincipal principal = new UserPrincipal(7L, "alice", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetCurrentUser_LoadsProfileOnceAcrossCalls() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(2000)));
+
+        assertEquals(7L, userService.getCurrentUserId());
+        User first = userService.getCurrentUser();
+        User second = userService.getCurrentUser();
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void testUpdateProfile_EvictsCachedProfile() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(2000)), Optional.of(user(2000)),
+                Optional.of(user(1800)));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        User cached = userService.getCurrentUser();
+
+        UserProfileRequest request = new UserProfileRequest();
+        request.setDailyCalorieGoal(1800);
+        userService.updateProfile(request);
+
+        // The shared copy is never modified; the next read reloads
+        assertEquals(2000, cached.getDailyCalorieGoal());
+        assertEquals(1800, userService.getCurrentUser().getDailyCalorieGoal());
+        verify(userRepository, times(3)).findById(7L);
+    }
+
+    @Test
+    void testGetCurrentUser_ProfileChangedDuringLoad_IsNotCached() {
+        when(userRepository.findById(7L))
+                .thenAnswer(invocation -> {
+                    // Another request updates the profile while this one is reading it
+                    userService.evict(7L);
+                    return Optional.of(user(2000));
+                })
+                .thenReturn(Optional.of(user(1800)));
+
+        assertEquals(2000, userService.getCurrentUser().getDailyCalorieGoal());
+        assertEquals(1800, userService.getCurrentUser().getDailyCalorieGoal());
+        assertEquals(1800, userService.getCurrentUser().getDailyCalorieGoal());
+        verify(userRepository, times(2)).findById(7L);
+    }
+
+    private User user(int dailyCalorieGoal) {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+        user.setDailyCalorieGoal(dailyCalorieGoal);
+        return user;
+    }
+}
@@ -0,0 +1,118 @@
+package com.nutrition.tracker.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3StorageBackendTest {
+
+    private static final String BUCKET = "uploads";
+    private static final int PART_SIZE = S3StorageBackend.MIN_PART_SIZE;
+
+    @Mock
+    private S3Client s3Client;
+
+    private S3StorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = new S3StorageBackend(s3Client, BUCKET, PART_SIZE);
+    }
+
+    @Test
+    void testStage_KnownSmallSizeUsesSinglePut() throws Exception {
+        byte[] content = new byte[1024];
+
+        StorageBackend.StagedObject staged = backend.stage(new ByteArrayInputStream(content), content.length);
+
+        assertEquals(1024, staged.size());
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+        assertEquals(BUCKET, request.getValue().bucket());
+        assertTrue(request.getValue().key().startsWith("staging/"));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testStage_LargeStreamUsesMultipartUpload() throws Exception {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        long size = 2L * PART_SIZE + 100;
+        StorageBackend.StagedObject staged = backend.stage(new ByteArrayInputStream(new byte[(int) size]), -1);
+
+        assertEquals(size, staged.size());
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(3)).uploadPart(parts.capture(), any(RequestBody.class));
+        assertEquals(100L, parts.getAllValues().get(2).contentLength());
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        assertEquals(3, complete.getValue().multipartUpload().parts().size());
+    }
+
+    @Test
+    void testStage_FailedStreamAbortsMultipartUpload() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        InputStream failing = new InputStream() {
+            private int remaining = PART_SIZE;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining-- > 0) {
+                    return 0;
+                }
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertThrows(IOException.class, () -> backend.stage(failing, -1));
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testCommit_ExistingKeySkipsCopy() throws Exception {
+        StorageBackend.StagedObject staged = backend.stage(new ByteArrayInputStream(new byte[10]), 10);
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+
+        backend.commit(staged, "ab/cd/abcd");
+
+        verify(s3Client, never()).copyObject(any(CopyObjectRequest.class));
+        verify(s3Client).deleteObject(any(DeleteObjectRequest.class));
+    }
+
+    @Test
+    void testCommit_NewKeyCopiesStagedObject() throws Exception {
+        StorageBackend.StagedObject staged = backend.stage(new ByteArrayInputStream(new byte[10]), 10);
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenThrow(NoSuchKeyException.builder().build());
+
+        backend.commit(staged, "ab/cd/abcd");
+
+        ArgumentCaptor<CopyObjectRequest> copy = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        verify(s3Client).copyObject(copy.capture());
+        assertEquals("ab/cd/abcd", copy.getValue().destinationKey());
+        verify(s3Client).deleteObject(any(DeleteObjectRequest.class));
+    }
+}
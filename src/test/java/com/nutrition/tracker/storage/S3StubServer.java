@@ -0,0 +1,307 @@
+package com.nutrition.tracker.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process S3-compatible server for tests: path-style buckets and keys, single PUT, server-side
+ * copy, multipart upload, complete and abort, HEAD, ranged GET, delete, and the listings needed to
+ * check for leftovers. Request signatures are not verified. Everything is kept in memory.
+ */
+class S3StubServer implements AutoCloseable {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // Bucket -> key -> content
+    private final Map<String, SortedMap<String, byte[]>> buckets = new ConcurrentHashMap<>();
+    // Upload id -> parts in progress
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    S3StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                handle(exchange);
+            } catch (RuntimeException e) {
+                send(exchange, 500, error("InternalError", e.toString()));
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getRawPath().substring(1);
+        int slash = path.indexOf('/');
+        String bucket = decode(slash < 0 ? path : path.substring(0, slash));
+        String key = slash < 0 || slash == path.length() - 1 ? null : decode(path.substring(slash + 1));
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        String method = exchange.getRequestMethod();
+
+        if (key == null) {
+            handleBucket(exchange, method, bucket, query);
+            return;
+        }
+        SortedMap<String, byte[]> objects = buckets.get(bucket);
+        if (objects == null) {
+            send(exchange, 404, error("NoSuchBucket", bucket));
+            return;
+        }
+
+        switch (method) {
+            case "PUT" -> {
+                byte[] body = body(exchange);
+                if (query.containsKey("partNumber")) {
+                    Upload upload = uploads.get(query.get("uploadId"));
+                    if (upload == null) {
+                        send(exchange, 404, error("NoSuchUpload", query.get("uploadId")));
+                        return;
+                    }
+                    upload.parts.put(Integer.parseInt(query.get("partNumber")), body);
+                    exchange.getResponseHeaders().set("ETag", eTag(body));
+                    send(exchange, 200, null);
+                } else if (exchange.getRequestHeaders().containsKey("x-amz-copy-source")) {
+                    String source = decode(exchange.getRequestHeaders().getFirst("x-amz-copy-source"));
+                    source = source.startsWith("/") ? source.substring(1) : source;
+                    int sourceSlash = source.indexOf('/');
+                    byte[] content = buckets.getOrDefault(source.substring(0, sourceSlash), new TreeMap<>())
+                            .get(source.substring(sourceSlash + 1));
+                    if (content == null) {
+                        send(exchange, 404, error("NoSuchKey", source));
+                        return;
+                    }
+                    objects.put(key, content);
+                    send(exchange, 200, "<CopyObjectResult><ETag>" + eTag(content) + "</ETag></CopyObjectResult>");
+                } else {
+                    objects.put(key, body);
+                    exchange.getResponseHeaders().set("ETag", eTag(body));
+                    send(exchange, 200, null);
+                }
+            }
+            case "POST" -> {
+                if (query.containsKey("uploads")) {
+                    String uploadId = UUID.randomUUID().toString();
+                    uploads.put(uploadId, new Upload(bucket, key));
+                    send(exchange, 200, "<InitiateMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>"
+                            + key + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+                    return;
+                }
+                Upload upload = uploads.remove(query.get("uploadId"));
+                if (upload == null) {
+                    send(exchange, 404, error("NoSuchUpload", query.get("uploadId")));
+                    return;
+                }
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                Matcher partNumber = PART_NUMBER.matcher(new String(body(exchange), StandardCharsets.UTF_8));
+                while (partNumber.find()) {
+                    content.write(upload.parts.get(Integer.parseInt(partNumber.group(1))));
+                }
+                objects.put(key, content.toByteArray());
+                send(exchange, 200, "<CompleteMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key
+                        + "</Key><ETag>\"" + upload.parts.size() + "-part\"</ETag></CompleteMultipartUploadResult>");
+            }
+            case "DELETE" -> {
+                if (query.containsKey("uploadId")) {
+                    uploads.remove(query.get("uploadId"));
+                } else {
+                    objects.remove(key);
+                }
+                send(exchange, 204, null);
+            }
+            case "HEAD" -> {
+                byte[] content = objects.get(key);
+                if (content == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Length", Long.toString(content.length));
+                exchange.getResponseHeaders().set("ETag", eTag(content));
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "GET" -> getObject(exchange, objects.get(key), key);
+            default -> send(exchange, 405, error("MethodNotAllowed", method));
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String method, String bucket, Map<String, String> query)
+            throws IOException {
+        if (method.equals("PUT")) {
+            buckets.putIfAbsent(bucket, new ConcurrentSkipListMap<>());
+            send(exchange, 200, null);
+            return;
+        }
+        SortedMap<String, byte[]> objects = buckets.get(bucket);
+        if (objects == null) {
+            send(exchange, 404, error("NoSuchBucket", bucket));
+            return;
+        }
+        if (query.containsKey("uploads")) {
+            StringBuilder xml = new StringBuilder("<ListMultipartUploadsResult><Bucket>" + bucket + "</Bucket>");
+            uploads.forEach((uploadId, upload) -> {
+                if (upload.bucket.equals(bucket)) {
+                    xml.append("<Upload><Key>").append(upload.key).append("</Key><UploadId>").append(uploadId)
+                            .append("</UploadId></Upload>");
+                }
+            });
+            send(exchange, 200, xml.append("<IsTruncated>false</IsTruncated></ListMultipartUploadsResult>").toString());
+            return;
+        }
+        String prefix = query.getOrDefault("prefix", "");
+        StringBuilder xml = new StringBuilder("<ListBucketResult><Name>" + bucket + "</Name><Prefix>" + prefix
+                + "</Prefix><IsTruncated>false</IsTruncated>");
+        int count = 0;
+        for (Map.Entry<String, byte[]> object : objects.entrySet()) {
+            if (object.getKey().startsWith(prefix)) {
+                xml.append("<Contents><Key>").append(object.getKey()).append("</Key><Size>")
+                        .append(object.getValue().length).append("</Size></Contents>");
+                count++;
+            }
+        }
+        send(exchange, 200, xml.append("<KeyCount>").append(count).append("</KeyCount></ListBucketResult>").toString());
+    }
+
+    private void getObject(HttpExchange exchange, byte[] content, String key) throws IOException {
+        if (content == null) {
+            send(exchange, 404, error("NoSuchKey", key));
+            return;
+        }
+        int start = 0;
+        int end = content.length - 1;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null) {
+            Matcher matcher = RANGE.matcher(range);
+            if (!matcher.matches() || Long.parseLong(matcher.group(1)) >= content.length) {
+                send(exchange, 416, error("InvalidRange", range));
+                return;
+            }
+            start = Integer.parseInt(matcher.group(1));
+            if (!matcher.group(2).isEmpty()) {
+                end = (int) Math.min(end, Long.parseLong(matcher.group(2)));
+            }
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+        }
+        exchange.getResponseHeaders().set("ETag", eTag(content));
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        exchange.sendResponseHeaders(range != null ? 206 : 200, end - start + 1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content, start, end - start + 1);
+        }
+    }
+
+    /**
+     * The request payload, with aws-chunked framing removed when the SDK streamed it signed chunk by chunk.
+     */
+    private static byte[] body(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (contentSha == null || !contentSha.startsWith("STREAMING-")) {
+            return raw;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+        while (true) {
+            int lineEnd = indexOfCrlf(raw, position);
+            String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            if (size == 0) {
+                return decoded.toByteArray();
+            }
+            decoded.write(raw, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private static int indexOfCrlf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Malformed aws-chunked body");
+    }
+
+    private static void send(HttpExchange exchange, int status, String xml) throws IOException {
+        if (xml == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String error(String code, String message) {
+        return "<Error><Code>" + code + "</Code><Message>" + message + "</Message></Error>";
+    }
+
+    private static String eTag(byte[] content) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            query.put(decode(equals < 0 ? parameter : parameter.substring(0, equals)),
+                    equals < 0 ? "" : decode(parameter.substring(equals + 1)));
+        }
+        return query;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Upload(String bucket, String key, Map<Integer, byte[]> parts) {
+
+        private Upload(String bucket, String key) {
+            this(bucket, key, new ConcurrentHashMap<>());
+        }
+    }
+}